@@ -0,0 +1,36 @@
+package com.kett.TicketSystem.authentication.domain.jwt;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenProviderBenchmark {
+    private JwtTokenProvider jwtTokenProvider;
+    private String email;
+    private String token;
+
+    @Setup
+    public void buildUp() {
+        jwtTokenProvider = new JwtTokenProvider();
+        email = "john.doe@gmail.com";
+        token = jwtTokenProvider.generateToken(email);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenProvider.generateToken(email);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String getEmailFromToken() {
+        return jwtTokenProvider.getEmailFromToken(token);
+    }
+}
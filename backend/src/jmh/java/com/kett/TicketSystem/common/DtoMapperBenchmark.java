@@ -0,0 +1,75 @@
+package com.kett.TicketSystem.common;
+
+import com.kett.TicketSystem.notification.application.dto.NotificationResponseDto;
+import com.kett.TicketSystem.notification.domain.Notification;
+import com.kett.TicketSystem.notification.domain.NotificationType;
+import com.kett.TicketSystem.phase.application.dto.PhaseResponseDto;
+import com.kett.TicketSystem.phase.domain.Phase;
+import com.kett.TicketSystem.ticket.application.dto.TicketResponseDto;
+import com.kett.TicketSystem.ticket.domain.Ticket;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DtoMapperBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private DtoMapper dtoMapper;
+    private List<Ticket> tickets;
+    private List<Phase> phases;
+    private List<Notification> notifications;
+
+    @Setup
+    public void buildUp() {
+        dtoMapper = new DtoMapper();
+        UUID projectId = UUID.randomUUID();
+        UUID phaseId = UUID.randomUUID();
+
+        tickets = new ArrayList<>();
+        phases = new ArrayList<>();
+        notifications = new ArrayList<>();
+        Phase previousPhase = null;
+        for (int i = 0; i < size; i++) {
+            tickets.add(new Ticket(
+                    "ticket " + i,
+                    "description " + i,
+                    LocalDateTime.now().plusDays(1),
+                    projectId,
+                    phaseId,
+                    List.of(UUID.randomUUID(), UUID.randomUUID())
+            ));
+
+            Phase phase = new Phase(projectId, "phase " + i, previousPhase, null);
+            if (previousPhase != null) {
+                previousPhase.setNextPhase(phase);
+            }
+            phases.add(phase);
+            previousPhase = phase;
+
+            notifications.add(new Notification(UUID.randomUUID(), NotificationType.TICKET_ASSIGNED, UUID.randomUUID(), UUID.randomUUID()));
+        }
+    }
+
+    @Benchmark
+    public List<TicketResponseDto> mapTicketList() {
+        return dtoMapper.mapTicketListToTicketResponseDtoList(tickets);
+    }
+
+    @Benchmark
+    public List<PhaseResponseDto> mapPhaseList() {
+        return dtoMapper.mapPhaseListToPhaseResponseDtoList(phases);
+    }
+
+    @Benchmark
+    public List<NotificationResponseDto> mapNotificationList() {
+        return dtoMapper.mapNotificationListToNotificationResponseDtoList(notifications);
+    }
+}
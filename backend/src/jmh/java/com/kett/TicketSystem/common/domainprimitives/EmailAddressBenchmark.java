@@ -0,0 +1,33 @@
+package com.kett.TicketSystem.common.domainprimitives;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EmailAddressBenchmark {
+    private String address;
+
+    @Setup
+    public void buildUp() {
+        address = "katharina.vanpoorten@some-company.example.com";
+    }
+
+    @Benchmark
+    public EmailAddress fromString() {
+        return EmailAddress.fromString(address);
+    }
+
+    @Benchmark
+    public EmailAddress fromTrustedString() {
+        return EmailAddress.fromTrustedString(address);
+    }
+
+    // uncached validation as done before for every call of fromString
+    @Benchmark
+    public boolean isValid() {
+        return EmailAddress.isValid(address);
+    }
+}
@@ -0,0 +1,53 @@
+package com.kett.TicketSystem.common.locking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Contention of PhaseDomainService chain changes: one project shared by all threads vs. writers spread over many projects.
+// Throughput and the latency distribution (incl. lock wait) are reported per operation.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class ProjectLocksBenchmark {
+    @Param({"1", "1024"})
+    private int numOfProjects;
+
+    // cpu work done while the lock is held, stands in for rewiring the chain
+    @Param({"100", "1000"})
+    private int tokens;
+
+    private ProjectLocks projectLocks;
+    private UUID[] projectIds;
+
+    @Setup
+    public void buildUp() {
+        projectLocks = new ProjectLocks(null, false, new SimpleMeterRegistry(), 256);
+        projectIds = new UUID[numOfProjects];
+        for (int i = 0; i < numOfProjects; i++) {
+            projectIds[i] = UUID.randomUUID();
+        }
+    }
+
+    @Benchmark
+    public void changeChain() {
+        UUID projectId = projectIds[ThreadLocalRandom.current().nextInt(numOfProjects)];
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            projectLocks.lockForTransaction(projectId);
+            Blackhole.consumeCPU(tokens);
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED)
+            );
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
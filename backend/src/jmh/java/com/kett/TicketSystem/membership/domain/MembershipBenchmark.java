@@ -0,0 +1,23 @@
+package com.kett.TicketSystem.membership.domain;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MembershipBenchmark {
+    private Membership membership;
+
+    @Setup
+    public void buildUp() {
+        membership = new Membership(UUID.randomUUID(), UUID.randomUUID(), Role.ADMIN);
+    }
+
+    @Benchmark
+    public String getAuthority() {
+        return membership.getAuthority();
+    }
+}
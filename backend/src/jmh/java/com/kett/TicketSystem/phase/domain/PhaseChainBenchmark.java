@@ -0,0 +1,73 @@
+package com.kett.TicketSystem.phase.domain;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// In-memory part of PhaseDomainService.patchPhasePosition: unlink a phase and re-insert it at the front.
+// Every operation rotates the chain by one, so it stays valid without a per-invocation setup.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PhaseChainBenchmark {
+    private static final int ROTATIONS_PER_INVOCATION = 64;
+
+    @Param({"4", "32"})
+    private int size;
+
+    private Phase first;
+    private Phase last;
+
+    @Setup(Level.Iteration)
+    public void buildUp() {
+        UUID projectId = UUID.randomUUID();
+        Phase previousPhase = null;
+        for (int i = 0; i < size; i++) {
+            Phase phase = new Phase(projectId, "phase " + i, previousPhase, null);
+            if (previousPhase != null) {
+                previousPhase.setNextPhase(phase);
+            } else {
+                first = phase;
+            }
+            previousPhase = phase;
+        }
+        last = previousPhase;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROTATIONS_PER_INVOCATION)
+    public Phase moveLastToFirst() {
+        for (int i = 0; i < ROTATIONS_PER_INVOCATION; i++) {
+            Phase moved = last;
+
+            Phase previousPhase = moved.getPreviousPhase();
+            Phase nextPhase = moved.getNextPhase();
+            if (previousPhase != null) {
+                previousPhase.setNextPhase(nextPhase);
+                moved.setPreviousPhase(null);
+            }
+            if (nextPhase != null) {
+                nextPhase.setPreviousPhase(previousPhase);
+                moved.setNextPhase(null);
+            }
+
+            moved.setNextPhase(first);
+            first.setPreviousPhase(moved);
+            first = moved;
+            last = previousPhase;
+        }
+        return first;
+    }
+
+    @Benchmark
+    public int traverseChain() {
+        int count = 0;
+        Phase current = first;
+        while (current != null) {
+            count++;
+            current = current.getNextPhase();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,68 @@
+package com.kett.TicketSystem.ticket.domain;
+
+import com.kett.TicketSystem.common.cache.ReplicaCacheFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TicketAssignmentDiffBenchmark {
+    // publishAssignmentEvents stays private in the service, a constant method handle inlines like a direct call
+    private static final MethodHandle PUBLISH_ASSIGNMENT_EVENTS;
+
+    static {
+        try {
+            PUBLISH_ASSIGNMENT_EVENTS = MethodHandles
+                    .privateLookupIn(TicketDomainService.class, MethodHandles.lookup())
+                    .findVirtual(
+                            TicketDomainService.class,
+                            "publishAssignmentEvents",
+                            MethodType.methodType(void.class, Ticket.class, List.class, List.class)
+                    );
+        } catch (ReflectiveOperationException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    @Param({"5", "50"})
+    private int size;
+
+    private Ticket ticket;
+    private List<UUID> oldAssignees;
+    private List<UUID> newAssignees;
+    private TicketDomainService ticketDomainService;
+    private long numOfPublished;
+
+    @Setup
+    public void buildUp() {
+        ReplicaCacheFactory replicaCacheFactory = new ReplicaCacheFactory(new SimpleMeterRegistry(), 16);
+        ticketDomainService = new TicketDomainService(null, event -> numOfPublished++, null, null, null, null, replicaCacheFactory, null, null, null, 500);
+        oldAssignees = new ArrayList<>();
+        newAssignees = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            UUID assigneeId = UUID.randomUUID();
+            oldAssignees.add(assigneeId);
+            if (i % 2 == 0) {
+                newAssignees.add(assigneeId);
+            } else {
+                newAssignees.add(UUID.randomUUID());
+            }
+        }
+        ticket = new Ticket("title", "description", null, UUID.randomUUID(), UUID.randomUUID(), oldAssignees);
+    }
+
+    @Benchmark
+    public long publishAssignmentEvents() throws Throwable {
+        PUBLISH_ASSIGNMENT_EVENTS.invokeExact(ticketDomainService, ticket, newAssignees, oldAssignees);
+        return numOfPublished;
+    }
+}
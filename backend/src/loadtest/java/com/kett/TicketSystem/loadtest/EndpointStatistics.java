@@ -0,0 +1,25 @@
+package com.kett.TicketSystem.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// the percentiles are over whole requests including retries, attemptP99Millis is over single attempts
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointStatistics {
+    private long count;
+    private long errors;
+    private long attempts;
+    private long failedAttempts;
+    private long retries;
+    private double throughputPerSecond;
+    private double p50Millis;
+    private double p90Millis;
+    private double p99Millis;
+    private double maxMillis;
+    private double attemptP99Millis;
+}
@@ -0,0 +1,75 @@
+package com.kett.TicketSystem.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// a request is what the user waits for: all of its attempts and the delays between them
+public class LatencyRecorder {
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<String, Histogram> requests = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> attempts = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> failedAttempts = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> retries = new ConcurrentHashMap<>();
+
+    public void recordAttempt(String endpoint, long durationNanos, boolean successful) {
+        histogramOf(attempts, endpoint).recordValue(Math.min(durationNanos, HIGHEST_TRACKABLE_NANOS));
+        if (!successful) {
+            failedAttempts.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+        }
+    }
+
+    public void recordRequest(String endpoint, long durationNanos, boolean successful) {
+        histogramOf(requests, endpoint).recordValue(Math.min(durationNanos, HIGHEST_TRACKABLE_NANOS));
+        if (!successful) {
+            errors.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+        }
+    }
+
+    public void recordRetry(String endpoint) {
+        retries.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+    }
+
+    public Map<String, EndpointStatistics> snapshot(long elapsedNanos) {
+        double elapsedSeconds = elapsedNanos / 1e9;
+        Map<String, EndpointStatistics> statistics = new TreeMap<>();
+        requests.forEach((endpoint, histogram) -> {
+            Histogram attemptHistogram = histogramOf(attempts, endpoint);
+            statistics.put(endpoint, new EndpointStatistics(
+                    histogram.getTotalCount(),
+                    sumOf(errors, endpoint),
+                    attemptHistogram.getTotalCount(),
+                    sumOf(failedAttempts, endpoint),
+                    sumOf(retries, endpoint),
+                    histogram.getTotalCount() / elapsedSeconds,
+                    toMillis(histogram.getValueAtPercentile(50.0)),
+                    toMillis(histogram.getValueAtPercentile(90.0)),
+                    toMillis(histogram.getValueAtPercentile(99.0)),
+                    toMillis(histogram.getMaxValue()),
+                    toMillis(attemptHistogram.getValueAtPercentile(99.0))
+            ));
+        });
+        return statistics;
+    }
+
+    private static Histogram histogramOf(Map<String, Histogram> histograms, String endpoint) {
+        return histograms.computeIfAbsent(endpoint, key -> new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS));
+    }
+
+    private static long sumOf(Map<String, LongAdder> counters, String endpoint) {
+        LongAdder counter = counters.get(endpoint);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
@@ -0,0 +1,126 @@
+package com.kett.TicketSystem.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.function.Predicate;
+
+public class LoadTestClient {
+    private static final int MAX_ATTEMPTS = 100;
+    private static final long RETRY_DELAY_MILLIS = 20;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final LatencyRecorder latencyRecorder;
+    private final String baseUrl;
+
+    public LoadTestClient(String baseUrl, ObjectMapper objectMapper, LatencyRecorder latencyRecorder) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.objectMapper = objectMapper;
+        this.latencyRecorder = latencyRecorder;
+        this.baseUrl = baseUrl;
+    }
+
+    // endpoint is the templated route used as histogram key, e.g. "PATCH /tickets/{id}"
+    public HttpResponse<String> send(String endpoint, String method, String path, Object body, String jwt) {
+        return sendWhileRetryable(endpoint, method, path, body, jwt, response -> false);
+    }
+
+    // the app is eventually consistent: until the async replicas and memberships catch up, a request can be answered
+    // with 404 (unknown project, phase or member) or 403 (membership not granted yet). only those are retried
+    public HttpResponse<String> sendUntilSuccessful(String endpoint, String method, String path, Object body, String jwt) {
+        return sendWhileRetryable(endpoint, method, path, body, jwt, LoadTestClient::isEventuallyConsistent);
+    }
+
+    // every attempt is recorded, the request itself is recorded with its total latency including retries and delays
+    public HttpResponse<String> sendWhileRetryable(
+            String endpoint,
+            String method,
+            String path,
+            Object body,
+            String jwt,
+            Predicate<HttpResponse<String>> isRetryable
+    ) {
+        HttpRequest request = buildRequest(method, path, body, jwt);
+        HttpResponse<String> response = null;
+        long start = System.nanoTime();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            if (attempt > 0) {
+                latencyRecorder.recordRetry(endpoint);
+                sleep();
+            }
+            long attemptStart = System.nanoTime();
+            response = execute(request);
+            latencyRecorder.recordAttempt(endpoint, System.nanoTime() - attemptStart, isSuccessful(response));
+            if (isSuccessful(response) || !isRetryable.test(response)) {
+                break;
+            }
+        }
+        latencyRecorder.recordRequest(endpoint, System.nanoTime() - start, isSuccessful(response));
+        return response;
+    }
+
+    public JsonNode readTree(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    public static boolean isSuccessful(HttpResponse<String> response) {
+        return response != null && response.statusCode() >= 200 && response.statusCode() < 300;
+    }
+
+    private static boolean isEventuallyConsistent(HttpResponse<String> response) {
+        return response.statusCode() == 403 || response.statusCode() == 404;
+    }
+
+    private HttpRequest buildRequest(String method, String path, Object body, String jwt) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        if (jwt != null) {
+            builder.header("Authorization", "Bearer " + jwt);
+        }
+        try {
+            HttpRequest.BodyPublisher bodyPublisher = body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+            return builder.method(method, bodyPublisher).build();
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private HttpResponse<String> execute(HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(RETRY_DELAY_MILLIS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.kett.TicketSystem.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kett.TicketSystem.authentication.application.dto.AuthenticationPostDto;
+import com.kett.TicketSystem.membership.application.dto.MembershipPostDto;
+import com.kett.TicketSystem.membership.application.dto.MembershipPutStateDto;
+import com.kett.TicketSystem.membership.domain.Role;
+import com.kett.TicketSystem.membership.domain.State;
+import com.kett.TicketSystem.phase.application.dto.PhasePostDto;
+import com.kett.TicketSystem.phase.application.dto.PhasePutPositionDto;
+import com.kett.TicketSystem.project.application.dto.ProjectPostDto;
+import com.kett.TicketSystem.ticket.application.dto.TicketPatchDto;
+import com.kett.TicketSystem.ticket.application.dto.TicketPostDto;
+import com.kett.TicketSystem.user.application.dto.UserPostDto;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "logging.level.com.kett.TicketSystem=INFO" }
+)
+@ActiveProfiles({ "test" })
+public class MixedWorkloadLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(MixedWorkloadLoadTest.class);
+    private static final String PASSWORD = "Loadtest1234!";
+
+    private final int virtualUsers = Integer.getInteger("loadtest.users", 8);
+    private final int iterations = Integer.getInteger("loadtest.iterations", 20);
+    private final double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "2.0"));
+    private final double toleranceMillis = Double.parseDouble(System.getProperty("loadtest.toleranceMillis", "25"));
+    private final double maxErrorRatio = Double.parseDouble(System.getProperty("loadtest.maxErrorRatio", "0.01"));
+    private final boolean updateBaseline = Boolean.getBoolean("loadtest.updateBaseline");
+    private final File baselineFile = new File(System.getProperty("loadtest.baseline", "src/loadtest/resources/loadtest-baseline.json"));
+    private final File reportDirectory = new File(System.getProperty("loadtest.reportDirectory", "target/loadtest"));
+
+    private final ObjectMapper objectMapper;
+    private final LatencyRecorder latencyRecorder = new LatencyRecorder();
+
+    @LocalServerPort
+    private int port;
+
+    private LoadTestClient client;
+
+    @Autowired
+    public MixedWorkloadLoadTest(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Test
+    public void runMixedWorkload() throws Exception {
+        client = new LoadTestClient("http://localhost:" + port, objectMapper, latencyRecorder);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(virtualUsers);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < virtualUsers; i++) {
+                int virtualUser = i;
+                futures.add(executorService.submit(() -> runVirtualUser(virtualUser)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        Map<String, EndpointStatistics> report = latencyRecorder.snapshot(System.nanoTime() - start);
+
+        writeReport(report);
+        if (updateBaseline) {
+            objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(baselineFile, report);
+            logger.info("load test baseline updated: " + baselineFile.getAbsolutePath());
+            return;
+        }
+        assertNoRegression(report);
+    }
+
+    private void runVirtualUser(int virtualUser) {
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+
+        // signup cascade: user creation triggers a default project, its phases and memberships
+        String ownerEmail = "owner-" + virtualUser + "-" + runId + "@loadtest.org";
+        String partnerEmail = "partner-" + virtualUser + "-" + runId + "@loadtest.org";
+        client.sendUntilSuccessful("POST /users", "POST", "/users", new UserPostDto("Owner " + virtualUser, ownerEmail, PASSWORD), null);
+        UUID partnerId = readId(client.sendUntilSuccessful("POST /users", "POST", "/users", new UserPostDto("Partner " + virtualUser, partnerEmail, PASSWORD), null));
+        String ownerJwt = client.sendUntilSuccessful("POST /authentications", "POST", "/authentications", new AuthenticationPostDto(ownerEmail, PASSWORD), null).body();
+        String partnerJwt = client.sendUntilSuccessful("POST /authentications", "POST", "/authentications", new AuthenticationPostDto(partnerEmail, PASSWORD), null).body();
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            runIteration(ownerJwt, partnerJwt, partnerId, iteration);
+        }
+    }
+
+    private void runIteration(String ownerJwt, String partnerJwt, UUID partnerId, int iteration) {
+        // project creation, the admin membership of the creator is granted asynchronously
+        UUID projectId = readId(client.sendUntilSuccessful("POST /projects", "POST", "/projects", new ProjectPostDto("Project " + iteration, "load test"), ownerJwt));
+        UUID backlogId = readId(client.sendUntilSuccessful("POST /phases", "POST", "/phases", new PhasePostDto(projectId, "Backlog", null), ownerJwt));
+        UUID doingId = readId(client.sendUntilSuccessful("POST /phases", "POST", "/phases", new PhasePostDto(projectId, "Doing", backlogId), ownerJwt));
+        UUID doneId = readId(client.sendUntilSuccessful("POST /phases", "POST", "/phases", new PhasePostDto(projectId, "Done", doingId), ownerJwt));
+        client.sendUntilSuccessful("GET /phases?project-id", "GET", "/phases?project-id=" + projectId, null, ownerJwt);
+
+        // membership churn
+        UUID membershipId = readId(client.sendUntilSuccessful("POST /memberships", "POST", "/memberships", new MembershipPostDto(projectId, partnerId, Role.MEMBER), ownerJwt));
+        client.sendUntilSuccessful("PUT /memberships/{id}/state", "PUT", "/memberships/" + membershipId + "/state", new MembershipPutStateDto(State.ACCEPTED), partnerJwt);
+        client.sendUntilSuccessful("GET /memberships?project-id", "GET", "/memberships?project-id=" + projectId, null, ownerJwt);
+
+        // ticket crud and phase moves
+        UUID ticketId = readId(client.sendUntilSuccessful("POST /tickets", "POST", "/tickets", new TicketPostDto(projectId, "Ticket " + iteration, "load test", LocalDateTime.now().plusDays(7), new ArrayList<>()), ownerJwt));
+        client.sendUntilSuccessful("GET /tickets/{id}", "GET", "/tickets/" + ticketId, null, ownerJwt);
+        client.sendUntilSuccessful("PATCH /tickets/{id}", "PATCH", "/tickets/" + ticketId, new TicketPatchDto(null, null, null, doingId, List.of(partnerId)), ownerJwt);
+        client.sendUntilSuccessful("GET /tickets?project-id", "GET", "/tickets?project-id=" + projectId, null, partnerJwt);
+        client.sendUntilSuccessful("PATCH /tickets/{id}", "PATCH", "/tickets/" + ticketId, new TicketPatchDto("Ticket " + iteration + " done", null, null, doneId, new ArrayList<>()), partnerJwt);
+        client.sendUntilSuccessful("PUT /phases/{id}/position", "PUT", "/phases/" + doneId + "/position", new PhasePutPositionDto(backlogId), ownerJwt);
+        client.sendUntilSuccessful("DELETE /tickets/{id}", "DELETE", "/tickets/" + ticketId, null, ownerJwt);
+
+        client.sendUntilSuccessful("DELETE /memberships/{id}", "DELETE", "/memberships/" + membershipId, null, ownerJwt);
+        client.sendUntilSuccessful("DELETE /projects/{id}", "DELETE", "/projects/" + projectId, null, ownerJwt);
+    }
+
+    private UUID readId(HttpResponse<String> response) {
+        if (!LoadTestClient.isSuccessful(response)) {
+            throw new IllegalStateException("request failed with status " + response.statusCode() + ": " + response.body());
+        }
+        return UUID.fromString(client.readTree(response).get("id").asText());
+    }
+
+    private void writeReport(Map<String, EndpointStatistics> report) throws IOException {
+        if (!reportDirectory.exists() && !reportDirectory.mkdirs()) {
+            throw new IOException("could not create " + reportDirectory.getAbsolutePath());
+        }
+        File reportFile = new File(reportDirectory, "results.json");
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, report);
+
+        StringBuilder summary = new StringBuilder("load test results (" + virtualUsers + " users x " + iterations + " iterations):");
+        report.forEach((endpoint, statistics) -> summary.append(String.format(
+                "%n  %-30s count=%5d errors=%3d attempts=%5d failed=%4d retries=%4d rps=%8.1f p50=%7.2fms p90=%7.2fms p99=%7.2fms max=%7.2fms attempt-p99=%7.2fms",
+                endpoint,
+                statistics.getCount(),
+                statistics.getErrors(),
+                statistics.getAttempts(),
+                statistics.getFailedAttempts(),
+                statistics.getRetries(),
+                statistics.getThroughputPerSecond(),
+                statistics.getP50Millis(),
+                statistics.getP90Millis(),
+                statistics.getP99Millis(),
+                statistics.getMaxMillis(),
+                statistics.getAttemptP99Millis()
+        )));
+        logger.info(summary.toString());
+        logger.info("load test report written to " + reportFile.getAbsolutePath());
+    }
+
+    private void assertNoRegression(Map<String, EndpointStatistics> report) throws IOException {
+        List<String> violations = new ArrayList<>();
+        long requests = report.values().stream().mapToLong(EndpointStatistics::getCount).sum();
+        long errors = report.values().stream().mapToLong(EndpointStatistics::getErrors).sum();
+        if (errors > requests * maxErrorRatio) {
+            violations.add(String.format("error ratio %d/%d exceeds %.2f%%", errors, requests, maxErrorRatio * 100));
+        }
+
+        if (!baselineFile.exists()) {
+            logger.warn("no load test baseline found at " + baselineFile.getAbsolutePath() + ", run with -Dloadtest.updateBaseline=true to create one");
+        } else {
+            Map<String, EndpointStatistics> baseline = objectMapper.readValue(baselineFile, new TypeReference<>() {});
+            report.forEach((endpoint, statistics) -> {
+                EndpointStatistics expected = baseline.get(endpoint);
+                if (expected == null) {
+                    logger.warn("no baseline for " + endpoint);
+                    return;
+                }
+                // gated per attempt: the whole-request p99 also holds retries and their backoff, which the error ratio covers
+                if (expected.getAttemptP99Millis() <= 0) {
+                    logger.warn("no attempt p99 in the baseline for " + endpoint + ", run with -Dloadtest.updateBaseline=true to record it");
+                    return;
+                }
+                double allowedP99 = expected.getAttemptP99Millis() * tolerance + toleranceMillis;
+                if (statistics.getAttemptP99Millis() > allowedP99) {
+                    violations.add(String.format(
+                            "%s attempt p99 %.2fms exceeds %.2fms (baseline %.2fms)",
+                            endpoint, statistics.getAttemptP99Millis(), allowedP99, expected.getAttemptP99Millis()
+                    ));
+                }
+            });
+        }
+
+        assertTrue(violations.isEmpty(), "performance regression detected:\n" + String.join("\n", violations));
+    }
+}
@@ -1,5 +1,6 @@
 package com.kett.TicketSystem.authentication.domain.jwt;
 
+import com.kett.TicketSystem.common.domainprimitives.EmailAddress;
 import com.kett.TicketSystem.user.domain.UserDomainService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -32,8 +33,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String jwt = getJwtFromRequest(request);
 
         if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-            String email = jwtTokenProvider.getEmailFromToken(jwt);
-            UserDetails userDetails = userDomainService.loadUserByUsername(email);
+            // the subject of a valid token was validated at registration
+            EmailAddress email = EmailAddress.fromTrustedString(jwtTokenProvider.getEmailFromToken(jwt));
+            UserDetails userDetails = userDomainService.loadUserByEmailAddress(email);
             UsernamePasswordAuthenticationToken authenticationToken =
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
@@ -8,11 +8,15 @@ import com.kett.TicketSystem.notification.domain.Notification;
 import com.kett.TicketSystem.phase.application.dto.PhasePostDto;
 import com.kett.TicketSystem.phase.application.dto.PhaseResponseDto;
 import com.kett.TicketSystem.phase.domain.Phase;
+import com.kett.TicketSystem.ticket.application.dto.ProjectStatisticsResponseDto;
 import com.kett.TicketSystem.ticket.application.dto.TicketPostDto;
 import com.kett.TicketSystem.ticket.application.dto.TicketResponseDto;
+import com.kett.TicketSystem.project.application.dto.ProjectDeletionResponseDto;
 import com.kett.TicketSystem.project.application.dto.ProjectPostDto;
 import com.kett.TicketSystem.project.application.dto.ProjectResponseDto;
 import com.kett.TicketSystem.project.domain.Project;
+import com.kett.TicketSystem.project.domain.ProjectDeletion;
+import com.kett.TicketSystem.ticket.domain.ProjectStatistics;
 import com.kett.TicketSystem.ticket.domain.Ticket;
 import com.kett.TicketSystem.user.application.dto.UserPostDto;
 import com.kett.TicketSystem.user.application.dto.UserResponseDto;
@@ -40,6 +44,9 @@ public class DtoMapper {
            mapper.map(Notification::getCreationTime, NotificationResponseDto::setCreationTime);
            mapper.map(Notification::getRecipientId, NotificationResponseDto::setRecipientId);
            mapper.map(Notification::getIsRead, NotificationResponseDto::setIsRead);
+           mapper.map(Notification::getType, NotificationResponseDto::setType);
+           mapper.map(Notification::getProjectId, NotificationResponseDto::setProjectId);
+           mapper.map(Notification::getTicketId, NotificationResponseDto::setTicketId);
            mapper.map(Notification::getContent, NotificationResponseDto::setContent);
         });
         modelMapper.typeMap(Phase.class, PhaseResponseDto.class).addMappings(mapper -> {
@@ -62,6 +69,15 @@ public class DtoMapper {
             mapper.map(Project::getDescription, ProjectResponseDto::setDescription);
             mapper.map(Project::getCreationTime, ProjectResponseDto::setCreationTime);
         });
+        modelMapper.typeMap(ProjectDeletion.class, ProjectDeletionResponseDto.class).addMappings(mapper -> {
+            mapper.map(ProjectDeletion::getProjectId, ProjectDeletionResponseDto::setProjectId);
+            mapper.map(ProjectDeletion::getState, ProjectDeletionResponseDto::setState);
+            mapper.map(ProjectDeletion::getCreationTime, ProjectDeletionResponseDto::setCreationTime);
+            mapper.map(ProjectDeletion::getFinishTime, ProjectDeletionResponseDto::setFinishTime);
+            mapper.map(ProjectDeletion::getNumOfDeletedMemberships, ProjectDeletionResponseDto::setNumOfDeletedMemberships);
+            mapper.map(ProjectDeletion::getNumOfDeletedPhases, ProjectDeletionResponseDto::setNumOfDeletedPhases);
+            mapper.map(ProjectDeletion::getNumOfDeletedTickets, ProjectDeletionResponseDto::setNumOfDeletedTickets);
+        });
         modelMapper.typeMap(Ticket.class, TicketResponseDto.class).addMappings(mapper -> {
             mapper.map(Ticket::getId, TicketResponseDto::setId);
             mapper.map(Ticket::getTitle, TicketResponseDto::setTitle);
@@ -149,6 +165,10 @@ public class DtoMapper {
         return new Project(projectPostDto.getName(), projectPostDto.getDescription());
     }
 
+    public ProjectDeletionResponseDto mapProjectDeletionToProjectDeletionResponseDto(ProjectDeletion projectDeletion) {
+        return modelMapper.map(projectDeletion, ProjectDeletionResponseDto.class);
+    }
+
 
     // ticket
 
@@ -174,6 +194,17 @@ public class DtoMapper {
         );
     }
 
+    public ProjectStatisticsResponseDto mapProjectStatisticsToProjectStatisticsResponseDto(ProjectStatistics projectStatistics) {
+        return new ProjectStatisticsResponseDto(
+                projectStatistics.getProjectId(),
+                projectStatistics.getTicketCount(),
+                projectStatistics.getOverdueTicketCount(),
+                projectStatistics.getOverdueCountedAt(),
+                projectStatistics.getTicketCountByPhaseId(),
+                projectStatistics.getTicketCountByAssigneeId()
+        );
+    }
+
 
     // user
 
@@ -1,10 +1,22 @@
 package com.kett.TicketSystem.common;
 
+import com.kett.TicketSystem.common.logging.MdcTaskDecorator;
+import com.kett.TicketSystem.common.metrics.QueueTimeTaskDecorator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.EnableAsync;
 
 @Configuration
 @EnableAsync
 public class SpringAsyncConfiguration {
 
+    // picked up by the auto-configured applicationTaskExecutor that runs all @Async listeners
+    @Bean
+    public TaskDecorator taskDecorator(MeterRegistry meterRegistry) {
+        TaskDecorator queueTimeTaskDecorator = new QueueTimeTaskDecorator(meterRegistry);
+        TaskDecorator mdcTaskDecorator = new MdcTaskDecorator();
+        return runnable -> queueTimeTaskDecorator.decorate(mdcTaskDecorator.decorate(runnable));
+    }
 }
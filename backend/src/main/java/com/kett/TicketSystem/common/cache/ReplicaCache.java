@@ -0,0 +1,94 @@
+package com.kett.TicketSystem.common.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// in-memory view of a consumed-data replica, kept up to date by the event handlers that write the replica table
+public class ReplicaCache<K, V> {
+    private final int maxSize;
+    private final Map<K, V> entries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    ReplicaCache(String name, int maxSize, MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.hits = Counter
+                .builder("replica.cache.requests")
+                .description("Number of lookups in a replica cache")
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter
+                .builder("replica.cache.requests")
+                .description("Number of lookups in a replica cache")
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter
+                .builder("replica.cache.evictions")
+                .description("Number of entries dropped because a replica cache was full")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge
+                .builder("replica.cache.size", entries, Map::size)
+                .description("Number of entries in a replica cache")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    // read-through: only found values are cached, the replica might not have consumed the creation event yet
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        V value = entries.get(key);
+        if (value != null) {
+            hits.increment();
+            return Optional.of(value);
+        }
+
+        misses.increment();
+        long invalidationsBeforeLoad = invalidations.get();
+        Optional<V> loadedValue = loader.apply(key);
+        loadedValue.ifPresent(presentValue -> this.putLoaded(key, presentValue, invalidationsBeforeLoad));
+        return loadedValue;
+    }
+
+    // The loader may have read the replica row right before a project deletion removed it. If any entry was
+    // invalidated meanwhile, the loaded value is withdrawn again, otherwise it would answer "exists" until the
+    // cache runs full. Checked after the put, since evict counts before it removes.
+    private void putLoaded(K key, V value, long invalidationsBeforeLoad) {
+        this.put(key, value);
+        if (invalidations.get() != invalidationsBeforeLoad) {
+            entries.remove(key, value);
+        }
+    }
+
+    public void put(K key, V value) {
+        if (entries.size() >= maxSize) {
+            // a miss costs one indexed replica lookup, so refilling is cheaper than keeping an access order per entry
+            evictions.increment(entries.size());
+            entries.clear();
+        }
+        entries.put(key, value);
+    }
+
+    // to be called once the removal of the replica row is committed
+    public void evict(K key) {
+        invalidations.incrementAndGet();
+        entries.remove(key);
+    }
+
+    public void evictIf(Predicate<V> predicate) {
+        invalidations.incrementAndGet();
+        entries.values().removeIf(predicate);
+    }
+}
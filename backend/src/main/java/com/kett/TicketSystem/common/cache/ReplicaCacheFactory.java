@@ -0,0 +1,25 @@
+package com.kett.TicketSystem.common.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReplicaCacheFactory {
+    private final MeterRegistry meterRegistry;
+    private final int maxSize;
+
+    @Autowired
+    public ReplicaCacheFactory(
+            MeterRegistry meterRegistry,
+            @Value("${replica.cache.max-size:10000}") int maxSize
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.maxSize = maxSize;
+    }
+
+    public <K, V> ReplicaCache<K, V> create(String name) {
+        return new ReplicaCache<>(name, maxSize, meterRegistry);
+    }
+}
@@ -1,17 +1,26 @@
 package com.kett.TicketSystem.common.domainprimitives;
 
 import lombok.Getter;
+import org.slf4j.MDC;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Getter
 public abstract class DomainEvent {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
     protected final UUID id;
     protected final LocalDateTime timeStamp;
+    protected final String transactionId;
+    // publish order within this instance, async listeners may run in any order
+    protected final long sequenceNumber;
 
     protected DomainEvent() {
         this.id = UUID.randomUUID();
         this.timeStamp = LocalDateTime.now();
+        this.transactionId = MDC.get("transactionId");
+        this.sequenceNumber = SEQUENCE.incrementAndGet();
     }
 }
@@ -4,6 +4,8 @@ import lombok.*;
 import org.apache.commons.validator.routines.EmailValidator;
 
 import javax.persistence.Embeddable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Getter
 @Setter(AccessLevel.PROTECTED)
@@ -11,6 +13,9 @@ import javax.persistence.Embeddable;
 @Embeddable
 @EqualsAndHashCode
 public class EmailAddress {
+    private static final int MAX_VALIDATED_CANDIDATES = 10_000;
+    private static final Set<String> validatedCandidates = ConcurrentHashMap.newKeySet();
+
     private String localPart;
     private String domain;
 
@@ -30,12 +35,42 @@ public class EmailAddress {
         if (eMailAddressCandidate == null || eMailAddressCandidate.isEmpty()) {
             throw new EmailAddressException("eMailAddressCandidate must not be null or empty");
         }
-        if (!EmailValidator.getInstance().isValid(eMailAddressCandidate)) {
-            throw new EmailAddressException("eMailAddressCandidate is not in a valid format: " + eMailAddressCandidate);
+        if (!validatedCandidates.contains(eMailAddressCandidate)) {
+            if (!isValid(eMailAddressCandidate)) {
+                throw new EmailAddressException("eMailAddressCandidate is not in a valid format: " + eMailAddressCandidate);
+            }
+            if (validatedCandidates.size() >= MAX_VALIDATED_CANDIDATES) {
+                validatedCandidates.clear();
+            }
+            validatedCandidates.add(eMailAddressCandidate);
+        }
+
+        return split(eMailAddressCandidate);
+    }
+
+    // only for addresses that were validated before, e.g. the subject of a signed jwt
+    public static EmailAddress fromTrustedString(String trustedEMailAddress) {
+        if (trustedEMailAddress == null || trustedEMailAddress.isEmpty()) {
+            throw new EmailAddressException("trustedEMailAddress must not be null or empty");
+        }
+        return split(trustedEMailAddress);
+    }
+
+    static boolean isValid(String eMailAddressCandidate) {
+        // cheap structural check first, EmailValidator is regex heavy
+        int atIndex = eMailAddressCandidate.indexOf('@');
+        if (atIndex <= 0 || atIndex == eMailAddressCandidate.length() - 1) {
+            return false;
         }
+        return EmailValidator.getInstance().isValid(eMailAddressCandidate);
+    }
 
-        String[] addressParts = eMailAddressCandidate.split("@", 2);
-        return new EmailAddress(addressParts[0], addressParts[1]);
+    private static EmailAddress split(String eMailAddress) {
+        int atIndex = eMailAddress.indexOf('@');
+        if (atIndex < 0) {
+            throw new EmailAddressException("eMailAddress must contain an @: " + eMailAddress);
+        }
+        return new EmailAddress(eMailAddress.substring(0, atIndex), eMailAddress.substring(atIndex + 1));
     }
 
     @Override
@@ -0,0 +1,173 @@
+package com.kett.TicketSystem.common.eventlog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kett.TicketSystem.common.domainprimitives.DomainEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+// append-only log of all committed domain events on local disk. every partition is a directory of numbered
+// NDJSON segments; the events of one project always go to the same partition, so replay keeps their order
+@Component
+public class EventLog {
+    static final String SEGMENT_SUFFIX = ".ndjson";
+    private static final List<String> PARTITION_KEYS = List.of("projectId", "userId", "id");
+
+    private final Logger logger = LoggerFactory.getLogger(EventLog.class);
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long segmentSize;
+    private final List<String> excludedEvents;
+    private final Partition[] partitions;
+    private final Counter appendedEvents;
+
+    @Autowired
+    public EventLog(
+            MeterRegistry meterRegistry,
+            @Value("${event-log.directory:}") String directory,
+            @Value("${event-log.partitions:16}") int numOfPartitions,
+            @Value("${event-log.segment-size:67108864}") long segmentSize,
+            @Value("${event-log.excluded-events:UserAuthenticatedEvent}") List<String> excludedEvents
+    ) {
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.directory = directory == null || directory.isBlank() ? null : Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.excludedEvents = excludedEvents;
+        this.partitions = new Partition[numOfPartitions];
+        for (int i = 0; i < numOfPartitions; i++) {
+            this.partitions[i] = new Partition(i);
+        }
+        this.appendedEvents = Counter
+                .builder("event.log.appended")
+                .description("Number of domain events appended to the event log")
+                .register(meterRegistry);
+    }
+
+    public Boolean isEnabled() {
+        return directory != null;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private static Path partitionDirectory(Path directory, int partition) {
+        return directory.resolve(String.format("partition-%03d", partition));
+    }
+
+    // events of rolled back transactions are not logged, events published outside of transactions right away
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleDomainEvent(DomainEvent domainEvent) {
+        String type = domainEvent.getClass().getSimpleName();
+        if (!this.isEnabled() || excludedEvents.contains(type)) {
+            return;
+        }
+
+        ObjectNode event = objectMapper.valueToTree(domainEvent);
+        ObjectNode line = objectMapper.createObjectNode();
+        line.put("type", type);
+        line.set("event", event);
+        try {
+            partitionOf(event).append(objectMapper.writeValueAsString(line));
+            appendedEvents.increment();
+        } catch (IOException exception) {
+            logger.error("could not append event " + domainEvent.getId() + " to the event log: " + exception.getMessage());
+        }
+    }
+
+    private Partition partitionOf(JsonNode event) {
+        String key = PARTITION_KEYS.stream()
+                .map(event::get)
+                .filter(value -> value != null && !value.isNull())
+                .map(JsonNode::asText)
+                .findFirst()
+                .orElse("");
+        return partitions[Math.floorMod(key.hashCode(), partitions.length)];
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Partition partition : partitions) {
+            partition.close();
+        }
+    }
+
+    private class Partition {
+        private final int number;
+        private Writer writer;
+        private long segmentNumber = -1;
+        private long bytesInSegment;
+
+        private Partition(int number) {
+            this.number = number;
+        }
+
+        private synchronized void append(String line) throws IOException {
+            if (writer == null || bytesInSegment >= segmentSize) {
+                this.openNextSegment();
+            }
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+            bytesInSegment += line.length() + 1;
+        }
+
+        // a restart always begins a new segment, the last one of the previous run may end with a torn line
+        private void openNextSegment() throws IOException {
+            Path partitionDirectory = partitionDirectory(directory, number);
+            if (segmentNumber < 0) {
+                Files.createDirectories(partitionDirectory);
+                segmentNumber = lastSegmentNumber(partitionDirectory);
+            }
+            this.close();
+            segmentNumber++;
+            Path segment = partitionDirectory.resolve(String.format("%020d", segmentNumber) + SEGMENT_SUFFIX);
+            writer = Files.newBufferedWriter(segment, StandardCharsets.UTF_8);
+            bytesInSegment = 0;
+        }
+
+        private long lastSegmentNumber(Path partitionDirectory) throws IOException {
+            try (Stream<Path> segments = Files.list(partitionDirectory)) {
+                return segments
+                        .map(segment -> segment.getFileName().toString())
+                        .filter(fileName -> fileName.endsWith(SEGMENT_SUFFIX))
+                        .mapToLong(fileName -> Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length())))
+                        .max()
+                        .orElse(-1);
+            }
+        }
+
+        private synchronized void close() {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.close();
+            } catch (IOException exception) {
+                logger.error("could not close segment of event log partition " + number + ": " + exception.getMessage());
+            }
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.kett.TicketSystem.common.eventlog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// a domain event as read back from the event log, fields are looked up by the getter names of the event
+@Getter
+@AllArgsConstructor
+public class EventLogRecord {
+    private final String type;
+    private final JsonNode event;
+
+    public UUID getUuid(String field) {
+        JsonNode value = event.get(field);
+        return value == null || value.isNull() ? null : UUID.fromString(value.asText());
+    }
+
+    public List<UUID> getUuids(String field) {
+        List<UUID> uuids = new ArrayList<>();
+        JsonNode values = event.get(field);
+        if (values != null) {
+            values.forEach(value -> uuids.add(UUID.fromString(value.asText())));
+        }
+        return uuids;
+    }
+}
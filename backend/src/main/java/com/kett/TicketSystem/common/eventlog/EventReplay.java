@@ -0,0 +1,187 @@
+package com.kett.TicketSystem.common.eventlog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// rebuilds the consumed data of a module from the event log, one thread per partition and one transaction per batch
+@Component
+public class EventReplay {
+    private final Logger logger = LoggerFactory.getLogger(EventReplay.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EventLog eventLog;
+    private final List<ReplicaRebuild> replicaRebuilds;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int numOfThreads;
+    private final int batchSize;
+
+    @Autowired
+    public EventReplay(
+            EventLog eventLog,
+            List<ReplicaRebuild> replicaRebuilds,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${event-log.replay.threads:4}") int numOfThreads,
+            @Value("${event-log.replay.batch-size:1000}") int batchSize
+    ) {
+        this.eventLog = eventLog;
+        this.replicaRebuilds = replicaRebuilds;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.numOfThreads = numOfThreads;
+        this.batchSize = batchSize;
+    }
+
+    public List<String> getReplicaRebuildNames() {
+        return replicaRebuilds.stream().map(ReplicaRebuild::getName).toList();
+    }
+
+    // returns the number of replayed events
+    public long rebuild(String name) throws IOException {
+        if (!eventLog.isEnabled()) {
+            throw new IllegalStateException("the event log is disabled, there is nothing to replay");
+        }
+        ReplicaRebuild replicaRebuild = replicaRebuilds.stream()
+                .filter(rebuild -> rebuild.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("there is no replica rebuild with name: " + name));
+
+        Counter replayedEvents = Counter
+                .builder("event.log.replayed")
+                .description("Number of domain events replayed from the event log")
+                .tag("replica", name)
+                .register(meterRegistry);
+        Timer duration = Timer
+                .builder("event.log.replay.duration")
+                .description("Time taken to rebuild a replica from the event log")
+                .tag("replica", name)
+                .register(meterRegistry);
+
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> replicaRebuild.reset());
+        long numOfReplayed = this.replayPartitions(replicaRebuild, replayedEvents);
+        transactionTemplate.executeWithoutResult(status -> replicaRebuild.complete());
+        long elapsedNanos = System.nanoTime() - start;
+        duration.record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        logger.info(
+                "rebuilt " + name + " from " + numOfReplayed + " events in " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) +
+                " ms (" + Math.round(numOfReplayed / Math.max(elapsedNanos / 1e9, 1e-9)) + " events/s)"
+        );
+        return numOfReplayed;
+    }
+
+    private long replayPartitions(ReplicaRebuild replicaRebuild, Counter replayedEvents) throws IOException {
+        List<Path> partitionDirectories;
+        try (Stream<Path> directories = Files.list(eventLog.getDirectory())) {
+            partitionDirectories = directories.filter(Files::isDirectory).sorted().collect(Collectors.toList());
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.max(1, Math.min(numOfThreads, partitionDirectories.size())));
+        try {
+            List<Future<Long>> replayedPartitions = new ArrayList<>();
+            for (Path partitionDirectory : partitionDirectories) {
+                replayedPartitions.add(executorService.submit(() -> this.replayPartition(partitionDirectory, replicaRebuild, replayedEvents)));
+            }
+
+            long numOfReplayed = 0;
+            for (Future<Long> replayedPartition : replayedPartitions) {
+                numOfReplayed += replayedPartition.get();
+            }
+            return numOfReplayed;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("replay of " + replicaRebuild.getName() + " was interrupted", exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            throw new IllegalStateException("replay of " + replicaRebuild.getName() + " failed", exception.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private long replayPartition(Path partitionDirectory, ReplicaRebuild replicaRebuild, Counter replayedEvents) {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(partitionDirectory)) {
+            segments = files
+                    .filter(file -> file.getFileName().toString().endsWith(EventLog.SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        long numOfReplayed = 0;
+        List<EventLogRecord> batch = new ArrayList<>(batchSize);
+        for (Path segment : segments) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    EventLogRecord eventLogRecord = this.parse(line, segment);
+                    if (eventLogRecord == null || !replicaRebuild.getConsumedEvents().contains(eventLogRecord.getType())) {
+                        continue;
+                    }
+                    batch.add(eventLogRecord);
+                    if (batch.size() >= batchSize) {
+                        numOfReplayed += this.applyBatch(batch, replicaRebuild, replayedEvents);
+                    }
+                }
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+        numOfReplayed += this.applyBatch(batch, replicaRebuild, replayedEvents);
+        return numOfReplayed;
+    }
+
+    private int applyBatch(List<EventLogRecord> batch, ReplicaRebuild replicaRebuild, Counter replayedEvents) {
+        int numOfApplied = batch.size();
+        transactionTemplate.executeWithoutResult(status -> batch.forEach(replicaRebuild::apply));
+        replayedEvents.increment(numOfApplied);
+        batch.clear();
+        return numOfApplied;
+    }
+
+    // a crash while appending can leave a torn last line in a segment, it is skipped
+    private EventLogRecord parse(String line, Path segment) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (node.hasNonNull("type") && node.hasNonNull("event")) {
+                return new EventLogRecord(node.get("type").asText(), node.get("event"));
+            }
+        } catch (JsonProcessingException exception) {
+            // skipped below
+        }
+        logger.warn("skipped unreadable line in event log segment " + segment);
+        return null;
+    }
+}
@@ -0,0 +1,38 @@
+package com.kett.TicketSystem.common.eventlog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+// java -jar TicketSystem.jar --event-log.replay.rebuild=ticket,phase
+// rebuilds the listed replicas on startup; writes to them while replaying are overwritten or lost
+@Component
+public class EventReplayRunner implements ApplicationRunner {
+    private final Logger logger = LoggerFactory.getLogger(EventReplayRunner.class);
+    private final EventReplay eventReplay;
+    private final List<String> replicasToRebuild;
+
+    @Autowired
+    public EventReplayRunner(EventReplay eventReplay, @Value("${event-log.replay.rebuild:}") List<String> replicasToRebuild) {
+        this.eventReplay = eventReplay;
+        this.replicasToRebuild = replicasToRebuild;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (replicasToRebuild.isEmpty()) {
+            return;
+        }
+        logger.info("rebuilding " + replicasToRebuild + " from the event log, available: " + eventReplay.getReplicaRebuildNames());
+        for (String name : replicasToRebuild) {
+            eventReplay.rebuild(name.trim());
+        }
+    }
+}
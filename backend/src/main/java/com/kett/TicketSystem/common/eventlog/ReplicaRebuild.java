@@ -0,0 +1,21 @@
+package com.kett.TicketSystem.common.eventlog;
+
+import java.util.Set;
+
+// consumed data of a module that can be rebuilt by replaying the event log
+public interface ReplicaRebuild {
+    String getName();
+
+    // simple class names of the replayed events, all others are skipped
+    Set<String> getConsumedEvents();
+
+    // before the replay, in its own transaction
+    void reset();
+
+    // one transaction per batch. partitions are replayed in parallel,
+    // the events of one project are in one partition and arrive in the order they were published
+    void apply(EventLogRecord eventLogRecord);
+
+    // after all partitions are replayed, in its own transaction
+    void complete();
+}
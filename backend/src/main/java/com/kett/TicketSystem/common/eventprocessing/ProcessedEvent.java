@@ -0,0 +1,36 @@
+package com.kett.TicketSystem.common.eventprocessing;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(indexes = {
+        @Index(name = "uk_processed_event_event_consumer", columnList = "eventId, consumer", unique = true),
+        @Index(name = "idx_processed_event_processed_at", columnList = "processedAt")
+})
+@Getter
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ProcessedEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Setter(AccessLevel.PROTECTED)
+    @Column(length = 16)
+    UUID id;
+
+    @Column(length = 16)
+    UUID eventId;
+
+    String consumer;
+
+    LocalDateTime processedAt;
+
+    public ProcessedEvent(@NonNull UUID eventId, @NonNull String consumer) {
+        this.eventId = eventId;
+        this.consumer = consumer;
+        this.processedAt = LocalDateTime.now();
+    }
+}
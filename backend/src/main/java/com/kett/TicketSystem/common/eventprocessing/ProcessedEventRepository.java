@@ -0,0 +1,19 @@
+package com.kett.TicketSystem.common.eventprocessing;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, UUID> {
+    Boolean existsByEventIdAndConsumer(UUID eventId, String consumer);
+
+    @Modifying
+    @Query("delete from ProcessedEvent p where p.processedAt < :cutoff")
+    Integer deleteByProcessedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
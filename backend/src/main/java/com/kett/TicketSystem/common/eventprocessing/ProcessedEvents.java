@@ -0,0 +1,71 @@
+package com.kett.TicketSystem.common.eventprocessing;
+
+import com.kett.TicketSystem.common.domainprimitives.DomainEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// remembers which consumer already handled which event, so redelivered events are skipped
+@Component
+public class ProcessedEvents {
+    private final Logger logger = LoggerFactory.getLogger(ProcessedEvents.class);
+    private final ProcessedEventRepository processedEventRepository;
+    private final MeterRegistry meterRegistry;
+    private final Duration retention;
+
+    @Autowired
+    public ProcessedEvents(
+            ProcessedEventRepository processedEventRepository,
+            MeterRegistry meterRegistry,
+            @Value("${event.processed.retention:1d}") Duration retention
+    ) {
+        this.processedEventRepository = processedEventRepository;
+        this.meterRegistry = meterRegistry;
+        this.retention = retention;
+    }
+
+    // recorded in the transaction of the handler: if the handler fails, the event counts as unprocessed again.
+    // two deliveries racing each other both pass the check, the unique index lets only one of them commit.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Boolean markAsProcessed(DomainEvent domainEvent, String consumer) {
+        if (processedEventRepository.existsByEventIdAndConsumer(domainEvent.getId(), consumer)) {
+            Counter
+                    .builder("domain.events.duplicates")
+                    .description("Number of redelivered domain events skipped by a consumer")
+                    .tag("event", domainEvent.getClass().getSimpleName())
+                    .tag("consumer", consumer)
+                    .register(meterRegistry)
+                    .increment();
+            return false;
+        }
+        processedEventRepository.saveAndFlush(new ProcessedEvent(domainEvent.getId(), consumer));
+        return true;
+    }
+
+    // read-only check for consumers that record the event later on, together with the write it caused
+    @Transactional(readOnly = true)
+    public Boolean isProcessed(DomainEvent domainEvent, String consumer) {
+        return processedEventRepository.existsByEventIdAndConsumer(domainEvent.getId(), consumer);
+    }
+
+    // redelivery happens within seconds, older entries only bloat the table
+    @Scheduled(
+            initialDelayString = "${event.processed.compaction-interval:3600000}",
+            fixedDelayString = "${event.processed.compaction-interval:3600000}"
+    )
+    @Transactional
+    public void compact() {
+        Integer numOfDeleted = processedEventRepository.deleteByProcessedAtBefore(LocalDateTime.now().minus(retention));
+        logger.info("processed events compaction deleted " + numOfDeleted + " entries");
+    }
+}
@@ -0,0 +1,40 @@
+package com.kett.TicketSystem.common.eventprocessing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.BooleanSupplier;
+
+// creates the row of a replica if it is missing, for handlers of events that might be delivered more than once
+@Component
+public class ReplicaInserts {
+    private final Logger logger = LoggerFactory.getLogger(ReplicaInserts.class);
+    private final TransactionTemplate requiresNewTransactionTemplate;
+
+    @Autowired
+    public ReplicaInserts(PlatformTransactionManager transactionManager) {
+        this.requiresNewTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Two deliveries racing each other both pass the check, the unique index of the replica lets only one insert
+    // commit. The insert has to be flushed in a transaction of its own, so losing the race rolls back only the
+    // insert and not the rest of the handler.
+    public void insertIfAbsent(BooleanSupplier exists, Runnable insertAndFlush, String description) {
+        try {
+            requiresNewTransactionTemplate.executeWithoutResult(status -> {
+                if (!exists.getAsBoolean()) {
+                    insertAndFlush.run();
+                }
+            });
+        } catch (DataIntegrityViolationException dataIntegrityViolationException) {
+            logger.debug(description + " was inserted concurrently");
+        }
+    }
+}
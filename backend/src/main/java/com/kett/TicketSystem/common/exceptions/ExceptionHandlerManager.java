@@ -18,6 +18,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
@@ -35,7 +36,8 @@ public class ExceptionHandlerManager extends ResponseEntityExceptionHandler {
             ProjectException.class,
             TicketException.class,
             UserException.class,
-            EmailAddressException.class
+            EmailAddressException.class,
+            InvalidEntityTagException.class
     })
     public ResponseEntity<String> handleBadRequestException(RuntimeException runtimeException) {
         logger.warn("exception -> " + runtimeException.getClass().getSimpleName() + ": " + runtimeException.getMessage());
@@ -64,13 +66,26 @@ public class ExceptionHandlerManager extends ResponseEntityExceptionHandler {
             LastPhaseException.class,
             InvalidProjectMembersException.class,
             EmailAlreadyInUseException.class,
-            UnrelatedPhaseException.class
+            UnrelatedPhaseException.class,
+            ObjectOptimisticLockingFailureException.class
     })
     public ResponseEntity<String> handleConflictException(RuntimeException runtimeException) {
         logger.warn("exception -> " + runtimeException.getClass().getSimpleName() + ": " + runtimeException.getMessage());
         return new ResponseEntity<>(runtimeException.getMessage(), HttpStatus.CONFLICT);
     }
 
+    // the current version is sent as entity tag, so the client can decide again and retry with If-Match
+    @ExceptionHandler(value = {
+            VersionConflictException.class
+    })
+    public ResponseEntity<String> handleVersionConflictException(VersionConflictException versionConflictException) {
+        logger.warn("exception -> " + versionConflictException.getClass().getSimpleName() + ": " + versionConflictException.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .eTag(String.valueOf(versionConflictException.getCurrentVersion()))
+                .body(versionConflictException.getMessage());
+    }
+
     @ExceptionHandler(value = {
             ImpossibleException.class
     })
@@ -0,0 +1,7 @@
+package com.kett.TicketSystem.common.exceptions;
+
+public class InvalidEntityTagException extends RuntimeException {
+    public InvalidEntityTagException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.kett.TicketSystem.common.exceptions;
+
+import lombok.Getter;
+
+public class VersionConflictException extends RuntimeException {
+    @Getter
+    private final Long currentVersion;
+
+    public VersionConflictException(String message, Long currentVersion) {
+        super(message);
+        this.currentVersion = currentVersion;
+    }
+}
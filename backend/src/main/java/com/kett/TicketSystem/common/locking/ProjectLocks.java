@@ -0,0 +1,90 @@
+package com.kett.TicketSystem.common.locking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// serializes writers of one project while other projects proceed, projects sharing a stripe wait for each other
+@Component
+public class ProjectLocks {
+    private static final Logger logger = LoggerFactory.getLogger(ProjectLocks.class);
+
+    private final ReentrantLock[] stripes;
+    private final JdbcTemplate jdbcTemplate;
+    private final Boolean useAdvisoryLocks;
+    private final Timer waitTime;
+
+    @Autowired
+    public ProjectLocks(
+            DataSource dataSource,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${project.lock.stripes:256}") int numOfStripes
+    ) {
+        this(jdbcTemplate, isPostgres(dataSource), meterRegistry, numOfStripes);
+    }
+
+    ProjectLocks(JdbcTemplate jdbcTemplate, Boolean useAdvisoryLocks, MeterRegistry meterRegistry, int numOfStripes) {
+        this.stripes = new ReentrantLock[numOfStripes];
+        for (int i = 0; i < numOfStripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.useAdvisoryLocks = useAdvisoryLocks;
+        this.waitTime = Timer
+                .builder("project.lock.wait")
+                .description("Time spent waiting for the lock of a project")
+                .register(meterRegistry);
+    }
+
+    private static Boolean isPostgres(DataSource dataSource) {
+        try {
+            String productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(productName);
+        } catch (MetaDataAccessException metaDataAccessException) {
+            logger.warn("could not determine the database, project locks are held in this instance only", metaDataAccessException);
+            return false;
+        }
+    }
+
+    // held until the transaction completes, so the next writer reads what this one committed
+    public void lockForTransaction(UUID projectId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("the lock of project with id: " + projectId + " needs a transaction");
+        }
+
+        ReentrantLock stripe = stripes[Math.floorMod(projectId.hashCode(), stripes.length)];
+        long start = System.nanoTime();
+        stripe.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                stripe.unlock();
+            }
+        });
+
+        // other instances do not share the stripes, the advisory lock is released by the database on commit or rollback
+        if (useAdvisoryLocks) {
+            jdbcTemplate.queryForList(
+                    "select pg_advisory_xact_lock(?)",
+                    projectId.getMostSignificantBits() ^ projectId.getLeastSignificantBits()
+            );
+        }
+        waitTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
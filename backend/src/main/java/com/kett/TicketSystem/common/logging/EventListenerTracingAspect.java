@@ -0,0 +1,63 @@
+package com.kett.TicketSystem.common.logging;
+
+import com.kett.TicketSystem.common.domainprimitives.DomainEvent;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class EventListenerTracingAspect {
+    private final Logger logger = LoggerFactory.getLogger(EventListenerTracingAspect.class);
+
+    @Around("@annotation(org.springframework.context.event.EventListener) && within(com.kett.TicketSystem..domain..*)")
+    public Object traceListener(ProceedingJoinPoint joinPoint) throws Throwable {
+        String previousTransactionId = MDC.get("transactionId");
+        String parentSpanId = MDC.get("spanId");
+        String spanId = UUID.randomUUID().toString().substring(0, 8);
+
+        Object event = joinPoint.getArgs().length > 0 ? joinPoint.getArgs()[0] : null;
+        if (previousTransactionId == null && event instanceof DomainEvent domainEvent && domainEvent.getTransactionId() != null) {
+            MDC.put("transactionId", domainEvent.getTransactionId());
+        }
+        MDC.put("spanId", spanId);
+
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable throwable) {
+            outcome = "failure";
+            throw throwable;
+        } finally {
+            logger.trace(
+                    "span finished -> " +
+                            "listener:" + joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName() +
+                            ", event:" + (event == null ? null : event.getClass().getSimpleName()) +
+                            ", spanId:" + spanId +
+                            ", parentSpanId:" + parentSpanId +
+                            ", outcome:" + outcome +
+                            ", durationMs:" + (System.nanoTime() - start) / 1_000_000.0
+            );
+            restore("transactionId", previousTransactionId);
+            restore("spanId", parentSpanId);
+        }
+    }
+
+    private void restore(String key, String value) {
+        if (value == null) {
+            MDC.remove(key);
+        } else {
+            MDC.put(key, value);
+        }
+    }
+}
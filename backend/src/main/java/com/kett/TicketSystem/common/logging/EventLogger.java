@@ -4,10 +4,13 @@ import com.kett.TicketSystem.authentication.domain.events.UserAuthenticatedEvent
 import com.kett.TicketSystem.membership.domain.events.LastProjectMemberDeletedEvent;
 import com.kett.TicketSystem.membership.domain.events.MembershipAcceptedEvent;
 import com.kett.TicketSystem.membership.domain.events.MembershipDeletedEvent;
+import com.kett.TicketSystem.membership.domain.events.ProjectMembershipsDeletedEvent;
 import com.kett.TicketSystem.membership.domain.events.UnacceptedProjectMembershipCreatedEvent;
 import com.kett.TicketSystem.phase.domain.events.PhaseCreatedEvent;
 import com.kett.TicketSystem.phase.domain.events.PhaseDeletedEvent;
 import com.kett.TicketSystem.phase.domain.events.PhasePositionUpdatedEvent;
+import com.kett.TicketSystem.phase.domain.events.PhasesCreatedEvent;
+import com.kett.TicketSystem.phase.domain.events.ProjectPhasesDeletedEvent;
 import com.kett.TicketSystem.project.domain.events.DefaultProjectCreatedEvent;
 import com.kett.TicketSystem.project.domain.events.ProjectCreatedEvent;
 import com.kett.TicketSystem.project.domain.events.ProjectDeletedEvent;
@@ -53,6 +56,15 @@ public class EventLogger {
         );
     }
     @EventListener
+    public void handleProjectMembershipsDeletedEvent(ProjectMembershipsDeletedEvent projectMembershipsDeletedEvent) {
+        logger.trace(
+                "memberships of project deleted -> " +
+                        "projectId:" + projectMembershipsDeletedEvent.getProjectId() +
+                        ", numOfDeletedMemberships:" + projectMembershipsDeletedEvent.getNumOfDeletedMemberships() +
+                        ", isFinished:" + projectMembershipsDeletedEvent.getIsFinished()
+        );
+    }
+    @EventListener
     public void handleLastProjectMemberDeletedEvents(LastProjectMemberDeletedEvent lastProjectMemberDeletedEvent) {
         logger.trace(
                 "last membership deleted -> " +
@@ -82,6 +94,14 @@ public class EventLogger {
         );
     }
     @EventListener
+    public void handlePhasesCreatedEvent(PhasesCreatedEvent phasesCreatedEvent) {
+        logger.trace(
+                "phases created -> " +
+                        "projectId:" + phasesCreatedEvent.getProjectId() +
+                        ", phaseIds:" + phasesCreatedEvent.getPhaseIds()
+        );
+    }
+    @EventListener
     public void handlePhaseDeletedEvent(PhaseDeletedEvent phaseDeletedEvent) {
         logger.trace(
                 "phase deleted -> " +
@@ -90,6 +110,15 @@ public class EventLogger {
         );
     }
     @EventListener
+    public void handleProjectPhasesDeletedEvent(ProjectPhasesDeletedEvent projectPhasesDeletedEvent) {
+        logger.trace(
+                "phases of project deleted -> " +
+                        "projectId:" + projectPhasesDeletedEvent.getProjectId() +
+                        ", numOfDeletedPhases:" + projectPhasesDeletedEvent.getNumOfDeletedPhases() +
+                        ", isFinished:" + projectPhasesDeletedEvent.getIsFinished()
+        );
+    }
+    @EventListener
     public void handlePhasePositionUpdatedEvent(PhasePositionUpdatedEvent phasePositionUpdatedEvent) {
         logger.trace(
                 "phase position updated -> " +
@@ -127,6 +156,15 @@ public class EventLogger {
 
     // ticket
     @EventListener
+    public void handleProjectTicketsDeletedEvent(ProjectTicketsDeletedEvent projectTicketsDeletedEvent) {
+        logger.trace(
+                "tickets of project deleted -> " +
+                        "projectId:" + projectTicketsDeletedEvent.getProjectId() +
+                        ", numOfDeletedTickets:" + projectTicketsDeletedEvent.getNumOfDeletedTickets() +
+                        ", isFinished:" + projectTicketsDeletedEvent.getIsFinished()
+        );
+    }
+    @EventListener
     public void handleTicketCreatedEvent(TicketCreatedEvent ticketCreatedEvent) {
         logger.trace(
                 "ticket created -> " +
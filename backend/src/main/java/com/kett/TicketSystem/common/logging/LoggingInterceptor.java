@@ -6,7 +6,6 @@ import org.slf4j.MDC;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
-import org.springframework.web.servlet.ModelAndView;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -18,7 +17,9 @@ public class LoggingInterceptor implements HandlerInterceptor {
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        MDC.put("transactionId", UUID.randomUUID().toString());
+        String transactionId = UUID.randomUUID().toString();
+        MDC.put("transactionId", transactionId);
+        response.setHeader("X-Transaction-Id", transactionId);
 
         String log = request.getMethod()  + " " + request.getRequestURI();
         if (request.getQueryString() != null) {
@@ -29,10 +30,11 @@ public class LoggingInterceptor implements HandlerInterceptor {
         return true;
     }
 
+    // afterCompletion instead of postHandle so the id is also cleared when the handler throws
     @Override
-    public void postHandle(
+    public void afterCompletion(
             HttpServletRequest request, HttpServletResponse response, Object handler,
-                            @Nullable ModelAndView modelAndView) throws Exception {
+                            @Nullable Exception exception) throws Exception {
         MDC.remove("transactionId");
     }
 }
@@ -0,0 +1,31 @@
+package com.kett.TicketSystem.common.logging;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+
+public class MdcTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Map<String, String> publisherContext = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> previousContext = MDC.getCopyOfContextMap();
+            if (publisherContext == null) {
+                MDC.clear();
+            } else {
+                MDC.setContextMap(publisherContext);
+            }
+            try {
+                runnable.run();
+            } finally {
+                if (previousContext == null) {
+                    MDC.clear();
+                } else {
+                    MDC.setContextMap(previousContext);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package com.kett.TicketSystem.common.metrics;
+
+import com.kett.TicketSystem.common.domainprimitives.DomainEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DomainEventMetrics {
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public DomainEventMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener
+    public void handleDomainEvent(DomainEvent domainEvent) {
+        Counter
+                .builder("domain.events.published")
+                .description("Number of published domain events")
+                .tag("event", domainEvent.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+}
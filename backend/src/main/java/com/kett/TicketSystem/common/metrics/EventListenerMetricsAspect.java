@@ -0,0 +1,60 @@
+package com.kett.TicketSystem.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Runs on the executor thread for @Async listeners because the async advisor is always placed first.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class EventListenerMetricsAspect {
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public EventListenerMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(org.springframework.context.event.EventListener) && within(com.kett.TicketSystem..domain..*)")
+    public Object measureListener(ProceedingJoinPoint joinPoint) throws Throwable {
+        String listener = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        String event = joinPoint.getArgs().length > 0 ? joinPoint.getArgs()[0].getClass().getSimpleName() : "none";
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable throwable) {
+            outcome = "failure";
+            Counter
+                    .builder("domain.events.listener.failures")
+                    .description("Number of domain event listener invocations that threw an exception")
+                    .tag("listener", listener)
+                    .tag("event", event)
+                    .tag("exception", throwable.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+            throw throwable;
+        } finally {
+            sample.stop(
+                    Timer
+                            .builder("domain.events.listener")
+                            .description("Execution time of domain event listeners")
+                            .tag("listener", listener)
+                            .tag("event", event)
+                            .tag("outcome", outcome)
+                            .publishPercentiles(0.5, 0.99)
+                            .publishPercentileHistogram()
+                            .register(meterRegistry)
+            );
+        }
+    }
+}
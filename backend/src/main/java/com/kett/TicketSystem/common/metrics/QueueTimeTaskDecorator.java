@@ -0,0 +1,29 @@
+package com.kett.TicketSystem.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.TimeUnit;
+
+public class QueueTimeTaskDecorator implements TaskDecorator {
+    private final Timer queueTimer;
+
+    public QueueTimeTaskDecorator(MeterRegistry meterRegistry) {
+        this.queueTimer = Timer
+                .builder("domain.events.async.queue")
+                .description("Time @Async tasks spend waiting for an executor thread")
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        long submittedAt = System.nanoTime();
+        return () -> {
+            queueTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+            runnable.run();
+        };
+    }
+}
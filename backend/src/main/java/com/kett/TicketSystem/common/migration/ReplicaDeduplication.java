@@ -0,0 +1,83 @@
+package com.kett.TicketSystem.common.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The replica tables got unique indexes on their lookup key after rows had been written without them. Hibernate
+// only creates an index on an existing table if the table holds no duplicates, so they are removed first: one row
+// per key is kept, its counters are repaired by the reconcilers.
+@Component(ReplicaDeduplication.BEAN_NAME)
+public class ReplicaDeduplication {
+    static final String BEAN_NAME = "replicaDeduplication";
+
+    private static final Map<String, String> KEY_COLUMNS_BY_TABLE = new LinkedHashMap<>();
+
+    static {
+        KEY_COLUMNS_BY_TABLE.put("project_data_of_phase", "project_id");
+        KEY_COLUMNS_BY_TABLE.put("project_data_of_ticket", "project_id");
+        KEY_COLUMNS_BY_TABLE.put("phase_data_of_ticket", "phase_id");
+        KEY_COLUMNS_BY_TABLE.put("membership_data_of_ticket", "membership_id");
+        KEY_COLUMNS_BY_TABLE.put("project_data_of_membership", "project_id");
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ReplicaDeduplication.class);
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ReplicaDeduplication(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @PostConstruct
+    public void run() {
+        KEY_COLUMNS_BY_TABLE.forEach(this::deduplicate);
+    }
+
+    private void deduplicate(String table, String keyColumn) {
+        List<Object> duplicatedKeys;
+        try {
+            duplicatedKeys = jdbcTemplate.queryForList(
+                    "select " + keyColumn + " from " + table +
+                    " where " + keyColumn + " is not null group by " + keyColumn + " having count(*) > 1",
+                    Object.class
+            );
+        } catch (BadSqlGrammarException badSqlGrammarException) {
+            // a new schema, hibernate creates the table together with its index
+            return;
+        }
+
+        int numOfDeleted = 0;
+        for (Object key : duplicatedKeys) {
+            List<Object> ids = jdbcTemplate.queryForList(
+                    "select id from " + table + " where " + keyColumn + " = ? order by id",
+                    Object.class,
+                    key
+            );
+            for (Object id : ids.subList(1, ids.size())) {
+                numOfDeleted += jdbcTemplate.update("delete from " + table + " where id = ?", id);
+            }
+        }
+        if (numOfDeleted > 0) {
+            logger.info("deleted " + numOfDeleted + " duplicated rows of " + table + " before indexing " + keyColumn);
+        }
+    }
+
+    // the entity manager factory runs the schema update, so it waits for the deduplication
+    @Component
+    static class EntityManagerFactoryDependsOnReplicaDeduplication extends EntityManagerFactoryDependsOnPostProcessor {
+        EntityManagerFactoryDependsOnReplicaDeduplication() {
+            super(BEAN_NAME);
+        }
+    }
+}
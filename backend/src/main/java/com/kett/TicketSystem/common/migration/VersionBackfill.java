@@ -0,0 +1,39 @@
+package com.kett.TicketSystem.common.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.util.List;
+
+// The schema update added the version columns as null to rows that already existed. Hibernate matches no row when
+// updating those, and Spring Data takes an entity without a version for a new one. Runs right after the schema
+// update, before the application serves requests.
+@Component
+@DependsOn("entityManagerFactory")
+public class VersionBackfill {
+    private static final List<String> VERSIONED_TABLES = List.of("project", "phase", "ticket", "membership");
+
+    private final Logger logger = LoggerFactory.getLogger(VersionBackfill.class);
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public VersionBackfill(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @PostConstruct
+    public void run() {
+        for (String table : VERSIONED_TABLES) {
+            int numOfUpdated = jdbcTemplate.update("update " + table + " set version = 0 where version is null");
+            if (numOfUpdated > 0) {
+                logger.info("initialized the version of " + numOfUpdated + " rows of " + table);
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.kett.TicketSystem.common.userdirectory;
+
+import com.kett.TicketSystem.common.domainprimitives.EmailAddress;
+import com.kett.TicketSystem.user.domain.events.UserCreatedEvent;
+import com.kett.TicketSystem.user.domain.events.UserDeletedEvent;
+import com.kett.TicketSystem.user.domain.events.UserPatchedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// shared by all modules: one map and one snapshot row per user instead of a user replica table per module
+@Component
+@Transactional
+public class InMemoryUserDirectory implements UserDirectory {
+    private final UserDirectoryEntryRepository userDirectoryEntryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean isSnapshotEnabled;
+
+    private final Map<EmailAddress, UUID> userIdsByEmail = new ConcurrentHashMap<>();
+    private final Map<UUID, EmailAddress> emailsByUserId = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InMemoryUserDirectory(
+            UserDirectoryEntryRepository userDirectoryEntryRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${user.directory.snapshot.enabled:true}") boolean isSnapshotEnabled
+    ) {
+        this.userDirectoryEntryRepository = userDirectoryEntryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.isSnapshotEnabled = isSnapshotEnabled;
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!isSnapshotEnabled) {
+            userDirectoryEntryRepository
+                    .findRegisteredUsers()
+                    .forEach(user -> this.put(user.getUserId(), user.getUserEmail()));
+            return;
+        }
+
+        // users registered before the snapshot existed or while it was disabled are added to it,
+        // users deleted meanwhile are dropped from it
+        transactionTemplate.executeWithoutResult(status -> {
+            userDirectoryEntryRepository.deleteEntriesWithoutRegisteredUser();
+            List<RegisteredUser> usersWithoutEntry = userDirectoryEntryRepository.findRegisteredUsersWithoutEntry();
+            usersWithoutEntry.forEach(user ->
+                    userDirectoryEntryRepository.save(new UserDirectoryEntry(user.getUserId(), user.getUserEmail()))
+            );
+        });
+        userDirectoryEntryRepository
+                .findAll()
+                .forEach(entry -> this.put(entry.getUserId(), entry.getUserEmail()));
+    }
+
+    // A miss is checked against the user table before it is reported: the events only reach the instance that handled
+    // the request, users registered on another instance are cached here on their first lookup. Without a transaction,
+    // so only committed users are read and cached.
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<UUID> findUserIdByEmail(EmailAddress emailAddress) {
+        UUID userId = userIdsByEmail.get(emailAddress);
+        if (userId != null) {
+            return Optional.of(userId);
+        }
+        return userDirectoryEntryRepository
+                .findRegisteredUserByEmail(emailAddress)
+                .map(this::cache);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean containsUserId(UUID userId) {
+        if (emailsByUserId.containsKey(userId)) {
+            return true;
+        }
+        return userDirectoryEntryRepository
+                .findRegisteredUserById(userId)
+                .map(this::cache)
+                .isPresent();
+    }
+
+    private UUID cache(RegisteredUser registeredUser) {
+        this.put(registeredUser.getUserId(), registeredUser.getUserEmail());
+        return registeredUser.getUserId();
+    }
+
+    private synchronized void put(UUID userId, EmailAddress emailAddress) {
+        EmailAddress oldEmailAddress = emailsByUserId.put(userId, emailAddress);
+        if (oldEmailAddress != null && !oldEmailAddress.equals(emailAddress)) {
+            userIdsByEmail.remove(oldEmailAddress, userId);
+        }
+        userIdsByEmail.put(emailAddress, userId);
+    }
+
+    private synchronized void remove(UUID userId) {
+        EmailAddress emailAddress = emailsByUserId.remove(userId);
+        if (emailAddress != null) {
+            userIdsByEmail.remove(emailAddress, userId);
+        }
+    }
+
+    private void saveSnapshotEntry(UUID userId, EmailAddress emailAddress) {
+        if (!isSnapshotEnabled) {
+            return;
+        }
+        UserDirectoryEntry userDirectoryEntry =
+                userDirectoryEntryRepository
+                        .findById(userId)
+                        .orElseGet(() -> new UserDirectoryEntry(userId, emailAddress));
+        userDirectoryEntry.setUserEmail(emailAddress);
+        userDirectoryEntryRepository.save(userDirectoryEntry);
+    }
+
+
+    // event listeners: the snapshot is written in the transaction of the user module, the map is only changed once
+    // that transaction committed, so a rolled back user never becomes known. Still synchronous, so the user is known
+    // to every module before the request that changed it returns.
+
+    @EventListener
+    public void handleUserCreatedEvent(UserCreatedEvent userCreatedEvent) {
+        this.saveSnapshotEntry(userCreatedEvent.getUserId(), userCreatedEvent.getEmailAddress());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void handleCommittedUserCreatedEvent(UserCreatedEvent userCreatedEvent) {
+        this.put(userCreatedEvent.getUserId(), userCreatedEvent.getEmailAddress());
+    }
+
+    @EventListener
+    public void handleUserPatchedEvent(UserPatchedEvent userPatchedEvent) {
+        this.saveSnapshotEntry(userPatchedEvent.getUserId(), userPatchedEvent.getEmailAddress());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void handleCommittedUserPatchedEvent(UserPatchedEvent userPatchedEvent) {
+        this.put(userPatchedEvent.getUserId(), userPatchedEvent.getEmailAddress());
+    }
+
+    @EventListener
+    public void handleUserDeletedEvent(UserDeletedEvent userDeletedEvent) {
+        if (isSnapshotEnabled) {
+            userDirectoryEntryRepository.removeByUserId(userDeletedEvent.getUserId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void handleCommittedUserDeletedEvent(UserDeletedEvent userDeletedEvent) {
+        this.remove(userDeletedEvent.getUserId());
+    }
+}
@@ -0,0 +1,10 @@
+package com.kett.TicketSystem.common.userdirectory;
+
+import com.kett.TicketSystem.common.domainprimitives.EmailAddress;
+
+import java.util.UUID;
+
+public interface RegisteredUser {
+    UUID getUserId();
+    EmailAddress getUserEmail();
+}
@@ -0,0 +1,12 @@
+package com.kett.TicketSystem.common.userdirectory;
+
+import com.kett.TicketSystem.common.domainprimitives.EmailAddress;
+
+import java.util.Optional;
+import java.util.UUID;
+
+// read-only view on the users for every module that is not the user module itself
+public interface UserDirectory {
+    Optional<UUID> findUserIdByEmail(EmailAddress emailAddress);
+    boolean containsUserId(UUID userId);
+}
@@ -0,0 +1,23 @@
+package com.kett.TicketSystem.common.userdirectory;
+
+import com.kett.TicketSystem.common.domainprimitives.EmailAddress;
+import lombok.*;
+
+import javax.persistence.*;
+import java.util.UUID;
+
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_user_directory_entry_email", columnList = "localPart, domain")
+})
+@Getter
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class UserDirectoryEntry {
+    @Id
+    @Column(length = 16)
+    UUID userId;
+
+    @Setter
+    EmailAddress userEmail;
+}
@@ -0,0 +1,35 @@
+package com.kett.TicketSystem.common.userdirectory;
+
+import com.kett.TicketSystem.common.domainprimitives.EmailAddress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UserDirectoryEntryRepository extends JpaRepository<UserDirectoryEntry, UUID> {
+    Long removeByUserId(UUID userId);
+
+    // the user table stays the source of truth, the snapshot only spares reading it completely on every startup
+    @Query("select u.id as userId, u.email as userEmail from User u")
+    List<RegisteredUser> findRegisteredUsers();
+
+    @Query("select u.id as userId, u.email as userEmail from User u where u.id = :userId")
+    Optional<RegisteredUser> findRegisteredUserById(@Param("userId") UUID userId);
+
+    @Query("select u.id as userId, u.email as userEmail from User u where u.email = :email")
+    Optional<RegisteredUser> findRegisteredUserByEmail(@Param("email") EmailAddress email);
+
+    @Query("select u.id as userId, u.email as userEmail from User u " +
+            "where not exists (select e.userId from UserDirectoryEntry e where e.userId = u.id)")
+    List<RegisteredUser> findRegisteredUsersWithoutEntry();
+
+    @Modifying
+    @Query("delete from UserDirectoryEntry e where not exists (select u.id from User u where u.id = e.userId)")
+    Integer deleteEntriesWithoutRegisteredUser();
+}
@@ -0,0 +1,26 @@
+package com.kett.TicketSystem.common.versioning;
+
+import com.kett.TicketSystem.common.exceptions.InvalidEntityTagException;
+
+// the entity tags of the api are the quoted versions of the tagged entities
+public final class EntityTags {
+    private EntityTags() {
+    }
+
+    // a missing or wildcard If-Match header does not expect any version
+    public static Long toExpectedVersion(String ifMatch) throws InvalidEntityTagException {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String entityTag = ifMatch.trim();
+        if (entityTag.length() < 3 || !entityTag.startsWith("\"") || !entityTag.endsWith("\"")) {
+            throw new InvalidEntityTagException("If-Match must be a single strong entity tag, not: " + ifMatch);
+        }
+        try {
+            return Long.valueOf(entityTag.substring(1, entityTag.length() - 1));
+        } catch (NumberFormatException numberFormatException) {
+            throw new InvalidEntityTagException("If-Match does not contain a version: " + ifMatch);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.kett.TicketSystem.common.versioning;
+
+import com.kett.TicketSystem.common.exceptions.VersionConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// entities are versioned instead of locked, conflicts are either retried or handed back to the client
+@Component
+public class OptimisticLockingTemplate {
+    private final TransactionTemplate requiresNewTransactionTemplate;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Counter retries;
+    private final Counter exhaustedRetries;
+
+    @Autowired
+    public OptimisticLockingTemplate(
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${optimistic-locking.retry.max-attempts:5}") int maxAttempts,
+            @Value("${optimistic-locking.retry.initial-backoff:10}") long initialBackoffMillis,
+            @Value("${optimistic-locking.retry.max-backoff:200}") long maxBackoffMillis
+    ) {
+        this.requiresNewTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.retries = Counter
+                .builder("optimistic.locking.retries")
+                .description("Number of internal updates retried after an optimistic locking conflict")
+                .register(meterRegistry);
+        this.exhaustedRetries = Counter
+                .builder("optimistic.locking.retries.exhausted")
+                .description("Number of internal updates that still conflicted after the last attempt")
+                .register(meterRegistry);
+    }
+
+    // only for idempotent internal updates, every attempt runs in a new transaction and reads the entities again
+    public void executeWithRetry(Consumer<TransactionStatus> action) throws OptimisticLockingFailureException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                requiresNewTransactionTemplate.executeWithoutResult(action);
+                return;
+            } catch (OptimisticLockingFailureException optimisticLockingFailureException) {
+                if (attempt >= maxAttempts) {
+                    exhaustedRetries.increment();
+                    throw optimisticLockingFailureException;
+                }
+                retries.increment();
+                this.backOff(attempt, optimisticLockingFailureException);
+            }
+        }
+    }
+
+    // full jitter, so updates that conflicted once do not meet again on the next attempt
+    private void backOff(int attempt, OptimisticLockingFailureException conflict) {
+        long bound = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+
+    // client updates are not retried, the client decides again based on the current version
+    public void flushOrThrowConflict(
+            Runnable flush,
+            Supplier<Optional<Long>> currentVersion,
+            Supplier<RuntimeException> notFound,
+            String description
+    ) throws VersionConflictException {
+        try {
+            flush.run();
+        } catch (OptimisticLockingFailureException optimisticLockingFailureException) {
+            // the transaction of the update is rollback-only by now, so the version is read in a new one
+            Long version = requiresNewTransactionTemplate
+                    .execute(status -> currentVersion.get())
+                    .orElseThrow(notFound);
+            throw new VersionConflictException(
+                    description + " was changed concurrently, current version: " + version,
+                    version
+            );
+        }
+    }
+
+    public void checkExpectedVersion(Long expectedVersion, Long currentVersion, String description) throws VersionConflictException {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new VersionConflictException(
+                    description + " has version: " + currentVersion + ", expected version: " + expectedVersion,
+                    currentVersion
+            );
+        }
+    }
+}
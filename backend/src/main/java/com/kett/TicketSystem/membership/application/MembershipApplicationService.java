@@ -35,6 +35,13 @@ public class MembershipApplicationService {
         return dtoMapper.mapMembershipToMembershipResponseDto(membership);
     }
 
+    @PreAuthorize("hasAnyAuthority(" +
+            "'ROLE_PROJECT_ADMIN_'.concat(@membershipDomainService.getProjectIdByMembershipId(#id))," +
+            "'ROLE_USER_'.concat(@membershipDomainService.getUserIdByMembershipId(#id)))")
+    public Long getMembershipVersionById(UUID id) {
+        return membershipDomainService.getMembershipById(id).getVersion();
+    }
+
     @PreAuthorize("hasAuthority('ROLE_USER_'.concat(#userId))")
     public List<MembershipResponseDto> getMembershipsByUserId(UUID userId) {
         List<Membership> memberships = membershipDomainService.getMembershipsByUserId(userId);
@@ -69,8 +76,8 @@ public class MembershipApplicationService {
     }
 
     @PreAuthorize("hasAuthority('ROLE_PROJECT_ADMIN_'.concat(@membershipDomainService.getProjectIdByMembershipId(#id)))")
-    public void updateMembershipRole(UUID id, MembershipPutRoleDto membershipPutRoleDto) {
-        membershipDomainService.updateMembershipRole(id, membershipPutRoleDto.getRole());
+    public void updateMembershipRole(UUID id, Long expectedVersion, MembershipPutRoleDto membershipPutRoleDto) {
+        membershipDomainService.updateMembershipRole(id, expectedVersion, membershipPutRoleDto.getRole());
     }
 
     @PreAuthorize("hasAnyAuthority(" +
@@ -7,11 +7,13 @@ import com.kett.TicketSystem.membership.application.dto.MembershipPutRoleDto;
 import com.kett.TicketSystem.membership.application.dto.MembershipPutStateDto;
 import com.kett.TicketSystem.membership.application.dto.MembershipPostDto;
 import com.kett.TicketSystem.membership.application.dto.MembershipResponseDto;
+import com.kett.TicketSystem.common.versioning.EntityTags;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -32,7 +34,11 @@ public class MembershipController {
 
 
     @GetMapping("/{id}")
-    public ResponseEntity<MembershipResponseDto> getMembershipById(@PathVariable UUID id) {
+    public ResponseEntity<MembershipResponseDto> getMembershipById(@PathVariable UUID id, WebRequest webRequest) {
+        // the entity tag is what a role update expects in If-Match
+        if (webRequest.checkNotModified(String.valueOf(membershipApplicationService.getMembershipVersionById(id)))) {
+            return null;
+        }
         MembershipResponseDto membershipResponseDto = membershipApplicationService.getMembershipById(id);
         return new ResponseEntity<>(membershipResponseDto, HttpStatus.OK);
     }
@@ -85,8 +91,12 @@ public class MembershipController {
     }
 
     @PutMapping("/{id}/role")
-    public ResponseEntity<?> updateMembershipRole(@PathVariable UUID id, @RequestBody MembershipPutRoleDto membershipPutRoleDto) {
-        membershipApplicationService.updateMembershipRole(id, membershipPutRoleDto);
+    public ResponseEntity<?> updateMembershipRole(
+            @PathVariable UUID id,
+            @RequestHeader(name = "If-Match", required = false) String ifMatch,
+            @RequestBody MembershipPutRoleDto membershipPutRoleDto
+    ) {
+        membershipApplicationService.updateMembershipRole(id, EntityTags.toExpectedVersion(ifMatch), membershipPutRoleDto);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
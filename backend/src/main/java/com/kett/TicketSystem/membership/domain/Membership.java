@@ -3,12 +3,16 @@ package com.kett.TicketSystem.membership.domain;
 import com.kett.TicketSystem.common.exceptions.IllegalStateUpdateException;
 import com.kett.TicketSystem.membership.domain.exceptions.MembershipException;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 
 import javax.persistence.*;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "membership")
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Membership implements GrantedAuthority {
@@ -19,6 +23,10 @@ public class Membership implements GrantedAuthority {
     @Column(length = 16)
     private UUID id;
 
+    @Version
+    @Getter
+    private Long version;
+
     @Getter
     @Column(length = 16)
     private UUID projectId;
@@ -1,11 +1,17 @@
 package com.kett.TicketSystem.membership.domain;
 
+import com.kett.TicketSystem.common.cache.ReplicaCache;
+import com.kett.TicketSystem.common.cache.ReplicaCacheFactory;
+import com.kett.TicketSystem.common.eventprocessing.ReplicaInserts;
 import com.kett.TicketSystem.common.domainprimitives.EmailAddress;
+import com.kett.TicketSystem.common.exceptions.VersionConflictException;
+import com.kett.TicketSystem.common.userdirectory.UserDirectory;
+import com.kett.TicketSystem.common.versioning.OptimisticLockingTemplate;
 import com.kett.TicketSystem.membership.domain.consumedData.ProjectDataOfMembership;
-import com.kett.TicketSystem.membership.domain.consumedData.UserDataOfMembership;
 import com.kett.TicketSystem.membership.domain.events.LastProjectMemberDeletedEvent;
 import com.kett.TicketSystem.membership.domain.events.MembershipAcceptedEvent;
 import com.kett.TicketSystem.membership.domain.events.MembershipDeletedEvent;
+import com.kett.TicketSystem.membership.domain.events.ProjectMembershipsDeletedEvent;
 import com.kett.TicketSystem.membership.domain.events.UnacceptedProjectMembershipCreatedEvent;
 import com.kett.TicketSystem.membership.domain.exceptions.AlreadyLastAdminException;
 import com.kett.TicketSystem.membership.domain.exceptions.MembershipAlreadyExistsException;
@@ -13,22 +19,24 @@ import com.kett.TicketSystem.membership.domain.exceptions.NoMembershipFoundExcep
 import com.kett.TicketSystem.membership.repository.MembershipRepository;
 import com.kett.TicketSystem.common.exceptions.ImpossibleException;
 import com.kett.TicketSystem.membership.repository.ProjectDataOfMembershipRepository;
-import com.kett.TicketSystem.membership.repository.UserDataOfMembershipRepository;
 import com.kett.TicketSystem.project.domain.events.DefaultProjectCreatedEvent;
 import com.kett.TicketSystem.project.domain.events.ProjectCreatedEvent;
 import com.kett.TicketSystem.project.domain.events.ProjectDeletedEvent;
 import com.kett.TicketSystem.common.exceptions.NoProjectFoundException;
-import com.kett.TicketSystem.user.domain.events.UserCreatedEvent;
 import com.kett.TicketSystem.user.domain.events.UserDeletedEvent;
 import com.kett.TicketSystem.common.exceptions.NoUserFoundException;
-import com.kett.TicketSystem.user.domain.events.UserPatchedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
 
@@ -37,27 +45,42 @@ import java.util.*;
 public class MembershipDomainService {
     private final MembershipRepository membershipRepository;
     private final ApplicationEventPublisher eventPublisher;
-    private final UserDataOfMembershipRepository userDataOfMembershipRepository;
     private final ProjectDataOfMembershipRepository projectDataOfMembershipRepository;
+    private final UserDirectory userDirectory;
+    private final ReplicaCache<UUID, Boolean> existingProjectIds;
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticLockingTemplate optimisticLockingTemplate;
+    private final ReplicaInserts replicaInserts;
+    private final int deletionChunkSize;
 
     @Autowired
     public MembershipDomainService(
             MembershipRepository membershipRepository,
             ApplicationEventPublisher eventPublisher,
-            UserDataOfMembershipRepository userDataOfMembershipRepository,
-            ProjectDataOfMembershipRepository projectDataOfMembershipRepository
+            ProjectDataOfMembershipRepository projectDataOfMembershipRepository,
+            UserDirectory userDirectory,
+            ReplicaCacheFactory replicaCacheFactory,
+            PlatformTransactionManager transactionManager,
+            OptimisticLockingTemplate optimisticLockingTemplate,
+            ReplicaInserts replicaInserts,
+            @Value("${project.deletion.chunk-size:500}") int deletionChunkSize
     ) {
         this.membershipRepository = membershipRepository;
         this.eventPublisher = eventPublisher;
-        this.userDataOfMembershipRepository = userDataOfMembershipRepository;
         this.projectDataOfMembershipRepository = projectDataOfMembershipRepository;
+        this.userDirectory = userDirectory;
+        this.existingProjectIds = replicaCacheFactory.create("ProjectDataOfMembership.projectId");
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.optimisticLockingTemplate = optimisticLockingTemplate;
+        this.replicaInserts = replicaInserts;
+        this.deletionChunkSize = deletionChunkSize;
     }
 
 
     // create
 
     public Membership addNewMembership(Membership membership) throws MembershipAlreadyExistsException {
-        if (!userDataOfMembershipRepository.existsByUserId(membership.getUserId())) {
+        if (!userDirectory.containsUserId(membership.getUserId())) {
             throw new NoUserFoundException("could not find user with id: " + membership.getUserId());
         }
 
@@ -86,8 +109,16 @@ public class MembershipDomainService {
         return initializedMembership;
     }
 
+    // the project events may be redelivered or published twice, the admin membership is only created once
+    private void addDefaultMembershipIfAbsent(Membership membership) {
+        if (membershipRepository.existsByUserIdAndProjectId(membership.getUserId(), membership.getProjectId())) {
+            return;
+        }
+        this.addDefaultMembership(membership);
+    }
+
     private Membership addMembership(Membership membership) throws MembershipAlreadyExistsException {
-        if (!projectDataOfMembershipRepository.existsByProjectId(membership.getProjectId())) {
+        if (!this.projectDataExists(membership.getProjectId())) {
             throw new NoProjectFoundException("could not find project with id: " + membership.getProjectId());
         }
         if (membershipRepository.existsByUserIdAndProjectId(membership.getUserId(), membership.getProjectId())) {
@@ -149,11 +180,15 @@ public class MembershipDomainService {
     }
 
     public UUID getUserIdByUserEmailAddress(EmailAddress emailAddress) {
-        List<UserDataOfMembership> userData = userDataOfMembershipRepository.findByUserEmailEquals(emailAddress);
-        if (userData.isEmpty()) {
-            throw new ImpossibleException("no user data found for user: " + emailAddress.toString());
-        }
-        return userData.get(0).getUserId();
+        return userDirectory
+                .findUserIdByEmail(emailAddress)
+                .orElseThrow(() -> new ImpossibleException("no user data found for user: " + emailAddress.toString()));
+    }
+
+    private Boolean projectDataExists(UUID projectId) {
+        return existingProjectIds
+                .get(projectId, id -> projectDataOfMembershipRepository.existsByProjectId(id) ? Optional.of(true) : Optional.empty())
+                .isPresent();
     }
 
 
@@ -172,8 +207,14 @@ public class MembershipDomainService {
         );
     }
 
-    public void updateMembershipRole(UUID id, Role role) throws NoMembershipFoundException {
+    public void updateMembershipRole(UUID id, Long expectedVersion, Role role) throws NoMembershipFoundException, VersionConflictException {
         Membership existingMembership = this.getMembershipById(id);
+        optimisticLockingTemplate.checkExpectedVersion(expectedVersion, existingMembership.getVersion(), "membership with id: " + id);
+
+        // two admins degrading each other change different rows, the versions alone would let both pass the check
+        if (existingMembership.isAccepted() && role.equals(Role.MEMBER)) {
+            projectDataOfMembershipRepository.findForUpdateByProjectId(existingMembership.getProjectId());
+        }
         Integer numOfActiveAdmins =
                 membershipRepository
                         .countMembershipByProjectIdAndStateEqualsAndRoleEquals(
@@ -189,7 +230,12 @@ public class MembershipDomainService {
             );
         }
         existingMembership.setRole(role);
-        membershipRepository.save(existingMembership);
+        optimisticLockingTemplate.flushOrThrowConflict(
+                () -> membershipRepository.saveAndFlush(existingMembership),
+                () -> membershipRepository.findVersionById(id),
+                () -> new NoMembershipFoundException("could not find membership with id: " + id),
+                "membership with id: " + id
+        );
     }
 
 
@@ -244,61 +290,71 @@ public class MembershipDomainService {
         membershipRepository.save(newAdmin);
     }
 
+    private void addProjectDataIfAbsent(UUID projectId) {
+        replicaInserts.insertIfAbsent(
+                () -> projectDataOfMembershipRepository.existsByProjectId(projectId),
+                () -> projectDataOfMembershipRepository.saveAndFlush(new ProjectDataOfMembership(projectId)),
+                "project data of project " + projectId
+        );
+        existingProjectIds.put(projectId, true);
+    }
+
 
     // event listeners
 
     @EventListener
     @Async
     public void handleProjectCreatedEvent(ProjectCreatedEvent projectCreatedEvent) {
-        projectDataOfMembershipRepository.save(new ProjectDataOfMembership(projectCreatedEvent.getProjectId()));
+        this.addProjectDataIfAbsent(projectCreatedEvent.getProjectId());
         Membership defaultMembership = new Membership(
                 projectCreatedEvent.getProjectId(),
                 projectCreatedEvent.getUserId(),
                 Role.ADMIN
         );
-        this.addDefaultMembership(defaultMembership);
+        this.addDefaultMembershipIfAbsent(defaultMembership);
     }
 
     @EventListener
     @Async
     public void handleDefaultProjectCreatedEvent(DefaultProjectCreatedEvent defaultProjectCreatedEvent) {
-        projectDataOfMembershipRepository.save(new ProjectDataOfMembership(defaultProjectCreatedEvent.getProjectId()));
+        this.addProjectDataIfAbsent(defaultProjectCreatedEvent.getProjectId());
         Membership defaultMembership = new Membership(
                 defaultProjectCreatedEvent.getProjectId(),
                 defaultProjectCreatedEvent.getUserId(),
                 Role.ADMIN
         );
-        this.addDefaultMembership(defaultMembership);
-    }
-
-    @EventListener
-    public void handleProjectDeletedEvent(ProjectDeletedEvent projectDeletedEvent) {
-        List<Membership> deletedMemberships = membershipRepository.deleteByProjectId(projectDeletedEvent.getProjectId());
-        deletedMemberships.forEach(membership ->
-                eventPublisher.publishEvent(
-                        new MembershipDeletedEvent(membership.getId(), membership.getProjectId(), membership.getUserId())
-                )
-        );
-        projectDataOfMembershipRepository.deleteByProjectId(projectDeletedEvent.getProjectId());
+        this.addDefaultMembershipIfAbsent(defaultMembership);
     }
 
+    // one transaction per chunk instead of one for the whole project
     @EventListener
     @Async
-    public void handleUserCreatedEvent(UserCreatedEvent userCreatedEvent) {
-        if (!userDataOfMembershipRepository.existsByUserId(userCreatedEvent.getUserId())) {
-            userDataOfMembershipRepository.save(new UserDataOfMembership(userCreatedEvent.getUserId(), userCreatedEvent.getEmailAddress()));
-        }
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void handleProjectDeletedEvent(ProjectDeletedEvent projectDeletedEvent) {
+        UUID projectId = projectDeletedEvent.getProjectId();
+
+        // the replica goes first, so no memberships are added while purging
+        transactionTemplate.executeWithoutResult(status -> projectDataOfMembershipRepository.deleteByProjectId(projectId));
+        existingProjectIds.evict(projectId);
+
+        List<Membership> deletedMemberships;
+        do {
+            deletedMemberships = transactionTemplate.execute(status -> this.deleteMembershipChunkByProjectId(projectId));
+            deletedMemberships.forEach(membership ->
+                    eventPublisher.publishEvent(
+                            new MembershipDeletedEvent(membership.getId(), membership.getProjectId(), membership.getUserId())
+                    )
+            );
+            eventPublisher.publishEvent(
+                    new ProjectMembershipsDeletedEvent(projectId, deletedMemberships.size(), deletedMemberships.isEmpty())
+            );
+        } while (!deletedMemberships.isEmpty());
     }
 
-    @EventListener
-    @Async
-    public void handleUserPatchedEvent(UserPatchedEvent userPatchedEvent) {
-        UserDataOfMembership userDataOfMembership =
-                userDataOfMembershipRepository
-                        .findByUserId(userPatchedEvent.getUserId())
-                        .get(0);
-        userDataOfMembership.setUserEmail(userPatchedEvent.getEmailAddress());
-        userDataOfMembershipRepository.save(userDataOfMembership);
+    private List<Membership> deleteMembershipChunkByProjectId(UUID projectId) {
+        List<Membership> chunk = membershipRepository.findByProjectId(projectId, PageRequest.of(0, deletionChunkSize));
+        membershipRepository.deleteAll(chunk);
+        return chunk;
     }
 
     @EventListener
@@ -310,6 +366,5 @@ public class MembershipDomainService {
                     new MembershipDeletedEvent(membership.getId(), membership.getProjectId(), membership.getUserId())
             );
         });
-        userDataOfMembershipRepository.deleteByUserId(userDeletedEvent.getUserId());
     }
 }
@@ -6,6 +6,9 @@ import javax.persistence.*;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "uk_project_data_of_membership_project", columnList = "projectId", unique = true)
+})
 @Getter
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -0,0 +1,20 @@
+package com.kett.TicketSystem.membership.domain.events;
+
+import com.kett.TicketSystem.common.domainprimitives.DomainEvent;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+public class ProjectMembershipsDeletedEvent extends DomainEvent {
+    private final UUID projectId;
+    private final Integer numOfDeletedMemberships;
+    private final Boolean isFinished;
+
+    public ProjectMembershipsDeletedEvent(UUID projectId, Integer numOfDeletedMemberships, Boolean isFinished) {
+        super();
+        this.projectId = projectId;
+        this.numOfDeletedMemberships = numOfDeletedMemberships;
+        this.isFinished = isFinished;
+    }
+}
@@ -3,21 +3,35 @@ package com.kett.TicketSystem.membership.repository;
 import com.kett.TicketSystem.membership.domain.Membership;
 import com.kett.TicketSystem.membership.domain.Role;
 import com.kett.TicketSystem.membership.domain.State;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface MembershipRepository extends JpaRepository<Membership, UUID> {
     List<Membership> findByUserId(UUID userId);
     List<Membership> findByProjectId(UUID projectId);
+    List<Membership> findByProjectId(UUID projectId, Pageable pageable);
     List<Membership> findByProjectIdAndStateEquals(UUID projectId, State state);
+    // resolved on every authenticated request
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "membership-authorities")
+    })
     List<Membership> findByUserIdAndStateEquals(UUID userId, State state);
 
     Boolean existsByUserIdAndProjectId(UUID userId, UUID projectId);
 
     Integer countMembershipByProjectIdAndStateEqualsAndRoleEquals(UUID projectId, State state, Role role);
 
+    @Query("select m.version from Membership m where m.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
     Long removeById(UUID id);
-    List<Membership> deleteByProjectId(UUID projectId);
 }
@@ -2,14 +2,21 @@ package com.kett.TicketSystem.membership.repository;
 
 import com.kett.TicketSystem.membership.domain.consumedData.ProjectDataOfMembership;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ProjectDataOfMembershipRepository extends JpaRepository<ProjectDataOfMembership, UUID> {
-    ProjectDataOfMembership findByProjectId(UUID projectId);
+    Optional<ProjectDataOfMembership> findByProjectId(UUID projectId);
     Integer deleteByProjectId(UUID projectId);
 
     Boolean existsByProjectId(UUID projectId);
+
+    // only taken when an admin is degraded, the row lock is held until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ProjectDataOfMembership> findForUpdateByProjectId(UUID projectId);
 }
@@ -2,19 +2,30 @@ package com.kett.TicketSystem.notification.application;
 
 import com.kett.TicketSystem.common.DtoMapper;
 import com.kett.TicketSystem.common.domainprimitives.EmailAddress;
+import com.kett.TicketSystem.notification.application.dto.NotificationInboxPageDto;
 import com.kett.TicketSystem.notification.application.dto.NotificationPatchDto;
 import com.kett.TicketSystem.notification.application.dto.NotificationResponseDto;
+import com.kett.TicketSystem.notification.application.dto.NotificationUnreadCountDto;
 import com.kett.TicketSystem.notification.domain.Notification;
 import com.kett.TicketSystem.notification.domain.NotificationDomainService;
+import com.kett.TicketSystem.notification.domain.NotificationType;
+import com.kett.TicketSystem.notification.domain.exceptions.NotificationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Service
 public class NotificationApplicationService {
+    private static final String CURSOR_SEPARATOR = "|";
+
     private final NotificationDomainService notificationDomainService;
     private final DtoMapper dtoMapper;
 
@@ -45,6 +56,48 @@ public class NotificationApplicationService {
         return dtoMapper.mapNotificationListToNotificationResponseDtoList(notifications);
     }
 
+    public NotificationInboxPageDto getInboxPage(UUID recipientId, boolean unreadOnly, NotificationType type, String cursor, int limit) {
+        LocalDateTime beforeTime = null;
+        UUID beforeId = null;
+        if (cursor != null) {
+            String[] cursorParts = decodeCursor(cursor);
+            beforeTime = LocalDateTime.parse(cursorParts[0]);
+            beforeId = UUID.fromString(cursorParts[1]);
+        }
+
+        List<Notification> notifications = notificationDomainService.getInboxPage(recipientId, unreadOnly, type, beforeTime, beforeId, limit);
+        String nextCursor = null;
+        if (notifications.size() == limit) {
+            Notification last = notifications.get(notifications.size() - 1);
+            nextCursor = encodeCursor(last.getCreationTime(), last.getId());
+        }
+        return new NotificationInboxPageDto(dtoMapper.mapNotificationListToNotificationResponseDtoList(notifications), nextCursor);
+    }
+
+    public NotificationUnreadCountDto getUnreadCount(UUID recipientId) {
+        return new NotificationUnreadCountDto(recipientId, notificationDomainService.getUnreadCountByRecipientId(recipientId));
+    }
+
+    // opaque for clients: position of the last notification of the previous page
+    private static String encodeCursor(LocalDateTime creationTime, UUID id) {
+        String cursor = creationTime + CURSOR_SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) throws NotificationException {
+        try {
+            String[] cursorParts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(Pattern.quote(CURSOR_SEPARATOR));
+            if (cursorParts.length != 2) {
+                throw new NotificationException("invalid cursor: " + cursor);
+            }
+            LocalDateTime.parse(cursorParts[0]);
+            UUID.fromString(cursorParts[1]);
+            return cursorParts;
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            throw new NotificationException("invalid cursor: " + cursor);
+        }
+    }
+
     @PreAuthorize("hasAuthority('ROLE_USER_'.concat(@notificationDomainService.getGetRecipientIdByNotificationId(#id)))")
     public void patchNotification(UUID id, NotificationPatchDto notificationPatchDto) {
         notificationDomainService.patchById(id, notificationPatchDto.getIsRead());
@@ -3,13 +3,21 @@ package com.kett.TicketSystem.notification.application;
 import com.kett.TicketSystem.common.domainprimitives.EmailAddress;
 import com.kett.TicketSystem.common.exceptions.NoParametersException;
 import com.kett.TicketSystem.common.exceptions.TooManyParametersException;
+import com.kett.TicketSystem.notification.application.dto.NotificationInboxPageDto;
 import com.kett.TicketSystem.notification.application.dto.NotificationPatchDto;
 import com.kett.TicketSystem.notification.application.dto.NotificationResponseDto;
+import com.kett.TicketSystem.notification.application.dto.NotificationUnreadCountDto;
+import com.kett.TicketSystem.notification.domain.NotificationType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.UUID;
@@ -19,11 +27,18 @@ import java.util.UUID;
 @CrossOrigin(origins = {"http://localhost:10000"}, allowCredentials = "true")
 @RequestMapping("/notifications")
 public class NotificationController {
+    private static final String USER_AUTHORITY_PREFIX = "ROLE_USER_";
+
     private final NotificationApplicationService notificationApplicationService;
+    private final NotificationStreamService notificationStreamService;
 
     @Autowired
-    public NotificationController(NotificationApplicationService notificationApplicationService) {
+    public NotificationController(
+            NotificationApplicationService notificationApplicationService,
+            NotificationStreamService notificationStreamService
+    ) {
         this.notificationApplicationService = notificationApplicationService;
+        this.notificationStreamService = notificationStreamService;
     }
 
 
@@ -54,6 +69,29 @@ public class NotificationController {
         return new ResponseEntity<>(notificationResponseDtos, HttpStatus.OK);
     }
 
+    @GetMapping("/inbox")
+    public ResponseEntity<NotificationInboxPageDto> getInbox(
+            @RequestParam(name = "unread-only", required = false, defaultValue = "false") boolean unreadOnly,
+            @RequestParam(name = "type", required = false) NotificationType type,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false, defaultValue = "20") int limit
+    ) {
+        NotificationInboxPageDto notificationInboxPageDto =
+                notificationApplicationService.getInboxPage(getAuthenticatedUserId(), unreadOnly, type, cursor, limit);
+        return new ResponseEntity<>(notificationInboxPageDto, HttpStatus.OK);
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<NotificationUnreadCountDto> getUnreadCount() {
+        NotificationUnreadCountDto notificationUnreadCountDto = notificationApplicationService.getUnreadCount(getAuthenticatedUserId());
+        return new ResponseEntity<>(notificationUnreadCountDto, HttpStatus.OK);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@RequestHeader(name = "Last-Event-ID", required = false) UUID lastEventId) {
+        return notificationStreamService.subscribe(getAuthenticatedUserId(), lastEventId);
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<?> patchNotification(@PathVariable UUID id, @RequestBody NotificationPatchDto notificationPatchDto) {
         notificationApplicationService.patchNotification(id, notificationPatchDto);
@@ -65,4 +103,15 @@ public class NotificationController {
         notificationApplicationService.deleteNotificationById(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    // the jwt filter grants ROLE_USER_<id>, so no lookup of the user is needed
+    private UUID getAuthenticatedUserId() {
+        return SecurityContextHolder.getContext().getAuthentication().getAuthorities()
+                .stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith(USER_AUTHORITY_PREFIX))
+                .map(authority -> UUID.fromString(authority.substring(USER_AUTHORITY_PREFIX.length())))
+                .findFirst()
+                .orElseThrow(() -> new AccessDeniedException("no authenticated user"));
+    }
 }
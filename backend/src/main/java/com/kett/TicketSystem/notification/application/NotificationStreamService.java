@@ -0,0 +1,120 @@
+package com.kett.TicketSystem.notification.application;
+
+import com.kett.TicketSystem.common.DtoMapper;
+import com.kett.TicketSystem.notification.application.dto.NotificationResponseDto;
+import com.kett.TicketSystem.notification.domain.Notification;
+import com.kett.TicketSystem.notification.domain.NotificationDomainService;
+import com.kett.TicketSystem.notification.domain.events.NotificationCreatedEvent;
+import com.kett.TicketSystem.notification.domain.exceptions.NoNotificationFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+@Service
+public class NotificationStreamService {
+    private static final String EVENT_NAME = "notification";
+
+    private final Logger logger = LoggerFactory.getLogger(NotificationStreamService.class);
+    private final Map<UUID, Set<SseEmitter>> emittersByRecipientId = new ConcurrentHashMap<>();
+    private final NotificationDomainService notificationDomainService;
+    private final DtoMapper dtoMapper;
+    private final long emitterTimeout;
+
+    @Autowired
+    public NotificationStreamService(
+            NotificationDomainService notificationDomainService,
+            DtoMapper dtoMapper,
+            @Value("${notification.stream.timeout:1800000}") long emitterTimeout
+    ) {
+        this.notificationDomainService = notificationDomainService;
+        this.dtoMapper = dtoMapper;
+        this.emitterTimeout = emitterTimeout;
+    }
+
+    public SseEmitter subscribe(UUID recipientId, UUID lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout);
+        Set<SseEmitter> emitters = emittersByRecipientId.computeIfAbsent(recipientId, key -> new CopyOnWriteArraySet<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> this.unsubscribe(recipientId, emitter));
+        emitter.onTimeout(() -> this.unsubscribe(recipientId, emitter));
+        emitter.onError(throwable -> this.unsubscribe(recipientId, emitter));
+
+        // resume: deliver everything the client missed since the last event it received
+        if (lastEventId != null) {
+            notificationDomainService
+                    .getNotificationsByRecipientIdCreatedAfter(recipientId, lastEventId)
+                    .forEach(notification -> this.send(recipientId, emitter, notification));
+        }
+        return emitter;
+    }
+
+    public int getNumberOfSubscribers(UUID recipientId) {
+        Set<SseEmitter> emitters = emittersByRecipientId.get(recipientId);
+        return emitters == null ? 0 : emitters.size();
+    }
+
+    private void unsubscribe(UUID recipientId, SseEmitter emitter) {
+        emittersByRecipientId.computeIfPresent(recipientId, (key, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private void send(UUID recipientId, SseEmitter emitter, Notification notification) {
+        NotificationResponseDto notificationResponseDto = dtoMapper.mapNotificationToNotificationResponseDto(notification);
+        try {
+            emitter.send(
+                    SseEmitter.event()
+                            .id(notification.getId().toString())
+                            .name(EVENT_NAME)
+                            .data(notificationResponseDto)
+            );
+        } catch (IOException | IllegalStateException exception) {
+            logger.debug("dropping notification stream of recipient " + recipientId + ": " + exception.getMessage());
+            emitter.completeWithError(exception);
+            this.unsubscribe(recipientId, emitter);
+        }
+    }
+
+    // only committed notifications are pushed, so a resuming client finds them in the database
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleNotificationCreatedEvent(NotificationCreatedEvent notificationCreatedEvent) {
+        Set<SseEmitter> emitters = emittersByRecipientId.get(notificationCreatedEvent.getRecipientId());
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+
+        Notification notification;
+        try {
+            notification = notificationDomainService.getNotificationById(notificationCreatedEvent.getNotificationId());
+        } catch (NoNotificationFoundException exception) {
+            return; // deleted in the meantime
+        }
+        emitters.forEach(emitter -> this.send(notificationCreatedEvent.getRecipientId(), emitter, notification));
+    }
+
+    // keeps idle connections open through proxies and detects clients that went away
+    @Scheduled(fixedRateString = "${notification.stream.heartbeat-interval:15000}")
+    public void sendHeartbeats() {
+        emittersByRecipientId.forEach((recipientId, emitters) -> emitters.forEach(emitter -> {
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException exception) {
+                emitter.completeWithError(exception);
+                this.unsubscribe(recipientId, emitter);
+            }
+        }));
+    }
+}
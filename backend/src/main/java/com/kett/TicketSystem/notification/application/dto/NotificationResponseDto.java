@@ -1,5 +1,6 @@
 package com.kett.TicketSystem.notification.application.dto;
 
+import com.kett.TicketSystem.notification.domain.NotificationType;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -17,5 +18,8 @@ public class NotificationResponseDto {
     private LocalDateTime creationTime;
     private UUID recipientId;
     private Boolean isRead;
+    private NotificationType type;
+    private UUID projectId;
+    private UUID ticketId;
     private String content;
 }
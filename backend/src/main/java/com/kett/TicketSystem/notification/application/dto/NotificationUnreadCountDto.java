@@ -0,0 +1,17 @@
+package com.kett.TicketSystem.notification.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationUnreadCountDto {
+    private UUID recipientId;
+    private Long unreadCount;
+}
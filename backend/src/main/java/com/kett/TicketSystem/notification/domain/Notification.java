@@ -6,9 +6,15 @@ import lombok.*;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_notification_recipient_read_creation", columnList = "recipientId, isRead, creationTime"),
+        @Index(name = "idx_notification_recipient_type_creation", columnList = "recipientId, type, creationTime"),
+        @Index(name = "idx_notification_creation", columnList = "creationTime")
+})
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Notification {
@@ -33,8 +39,40 @@ public class Notification {
 
     @Getter
     @Setter(AccessLevel.PROTECTED)
-    @Column(length = 1000)
-    private String content; // TODO: exchange for different types of events (invitation, ticketAssigned etc.)
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private NotificationType type;
+
+    @Getter
+    @Setter(AccessLevel.PROTECTED)
+    @Column(length = 16)
+    private UUID projectId;
+
+    @Getter
+    @Setter(AccessLevel.PROTECTED)
+    @Column(length = 16)
+    private UUID ticketId; // null for notifications that do not refer to a ticket
+
+    // text stored by versions before typed notifications, rows written since then leave it null
+    @Column(name = "content", length = 1000, insertable = false, updatable = false)
+    private String legacyContent;
+
+    // rendered at read time, only the compact fields are stored
+    public String getContent() {
+        if (this.type == null) {
+            return this.legacyContent;
+        }
+        switch (this.type) {
+            case PROJECT_INVITATION:
+                return "You got invited to project " + this.projectId + ".";
+            case TICKET_ASSIGNED:
+                return "You got assigned to ticket " + this.ticketId + " of project " + this.projectId + ".";
+            case TICKET_UNASSIGNED:
+                return "Your assignment to ticket " + this.ticketId + " of project " + this.projectId + " has been revoked.";
+            default:
+                throw new NotificationException("unknown notification type: " + this.type);
+        }
+    }
 
     public void setIsRead(Boolean isReadStatus) {
         if (isReadStatus == null) {
@@ -49,10 +87,22 @@ public class Notification {
         this.isRead = isReadStatus;
     }
 
-    public Notification(UUID recipientId, String content) {
-        this.creationTime = LocalDateTime.now();
+    public Notification(UUID recipientId, NotificationType type, UUID projectId, UUID ticketId) {
+        if (type == null) {
+            throw new NotificationException("type must not be null");
+        }
+        if (projectId == null) {
+            throw new NotificationException("projectId must not be null");
+        }
+        if (ticketId == null && type != NotificationType.PROJECT_INVITATION) {
+            throw new NotificationException("ticketId must not be null for notifications of type " + type);
+        }
+
+        this.creationTime = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS); // database precision, used as keyset
         this.recipientId = recipientId;
         this.isRead = Boolean.FALSE;
-        this.content = content;
+        this.type = type;
+        this.projectId = projectId;
+        this.ticketId = ticketId;
     }
 }
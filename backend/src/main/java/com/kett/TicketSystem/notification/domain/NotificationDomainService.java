@@ -1,41 +1,256 @@
 package com.kett.TicketSystem.notification.domain;
 
+import com.kett.TicketSystem.common.domainprimitives.DomainEvent;
 import com.kett.TicketSystem.common.domainprimitives.EmailAddress;
+import com.kett.TicketSystem.common.eventprocessing.ProcessedEvents;
+import com.kett.TicketSystem.common.userdirectory.UserDirectory;
 import com.kett.TicketSystem.common.exceptions.IllegalStateUpdateException;
 import com.kett.TicketSystem.common.exceptions.ImpossibleException;
 import com.kett.TicketSystem.membership.domain.events.UnacceptedProjectMembershipCreatedEvent;
-import com.kett.TicketSystem.notification.domain.consumedData.UserDataOfNotification;
+import com.kett.TicketSystem.notification.domain.events.NotificationCreatedEvent;
 import com.kett.TicketSystem.notification.domain.exceptions.NoNotificationFoundException;
 import com.kett.TicketSystem.notification.domain.exceptions.NotificationException;
 import com.kett.TicketSystem.notification.repository.NotificationRepository;
-import com.kett.TicketSystem.notification.repository.UserDataOfNotificationRepository;
+import com.kett.TicketSystem.notification.repository.UnreadNotificationCounterRepository;
 import com.kett.TicketSystem.ticket.domain.events.TicketAssignedEvent;
 import com.kett.TicketSystem.ticket.domain.events.TicketUnassignedEvent;
 import com.kett.TicketSystem.user.domain.events.UserCreatedEvent;
 import com.kett.TicketSystem.user.domain.events.UserDeletedEvent;
-import com.kett.TicketSystem.user.domain.events.UserPatchedEvent;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
-import java.util.UUID;
+import javax.annotation.PreDestroy;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class NotificationDomainService {
+    public static final int MAX_INBOX_PAGE_SIZE = 100;
+    private static final String EVENT_CONSUMER = "notification";
+
     private final NotificationRepository notificationRepository;
-    private final UserDataOfNotificationRepository userDataOfNotificationRepository;
+    private final UserDirectory userDirectory;
+    private final UnreadNotificationCounterRepository unreadNotificationCounterRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProcessedEvents processedEvents;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPendingNotifications;
+    private final long coalescingWindowNanos;
+
+    // write-behind buffer: notifications are inserted in batches instead of one transaction per event.
+    // the events behind a notification are marked as processed when it is inserted, not when it is buffered,
+    // so a crash before the flush lets the redelivered event notify again instead of losing the notification
+    private final Queue<PendingNotification> pendingNotifications = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numOfPendingNotifications = new AtomicInteger();
+
+    // flushes share the lock, a deletion of a recipient waits for the batches already taken from the buffer
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    // assign/unassign churn on the same ticket is merged into one net notification per window
+    private final Map<AssignmentKey, CoalescedAssignment> coalescedAssignments = new ConcurrentHashMap<>();
+
+    private final Logger logger = LoggerFactory.getLogger(NotificationDomainService.class);
 
     @Autowired
     public NotificationDomainService(
             NotificationRepository notificationRepository,
-            UserDataOfNotificationRepository userDataOfNotificationRepository
+            UserDirectory userDirectory,
+            UnreadNotificationCounterRepository unreadNotificationCounterRepository,
+            ApplicationEventPublisher eventPublisher,
+            ProcessedEvents processedEvents,
+            PlatformTransactionManager transactionManager,
+            @Value("${notification.write-buffer.max-size:50}") int maxPendingNotifications,
+            @Value("${notification.coalescing.window:0}") long coalescingWindow
     ) {
         this.notificationRepository = notificationRepository;
-        this.userDataOfNotificationRepository = userDataOfNotificationRepository;
+        this.userDirectory = userDirectory;
+        this.unreadNotificationCounterRepository = unreadNotificationCounterRepository;
+        this.eventPublisher = eventPublisher;
+        this.processedEvents = processedEvents;
+        // writes of the buffer never join the transaction of whoever triggered them, e.g. an unrelated event listener
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxPendingNotifications = maxPendingNotifications;
+        this.coalescingWindowNanos = TimeUnit.MILLISECONDS.toNanos(coalescingWindow);
+    }
+
+    private void addNotification(PendingNotification pendingNotification) {
+        pendingNotifications.add(pendingNotification);
+        if (numOfPendingNotifications.incrementAndGet() >= maxPendingNotifications) {
+            this.flushPendingNotifications();
+        }
+    }
+
+    // the batch and every isolated retry commit or roll back on their own, a failed batch must not doom the retries
+    @Scheduled(fixedDelayString = "${notification.write-buffer.flush-interval:100}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void flushPendingNotifications() {
+        flushLock.readLock().lock();
+        try {
+            this.flushPendingBatch();
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    private void flushPendingBatch() {
+        List<PendingNotification> batch = new ArrayList<>();
+        PendingNotification pendingNotification;
+        while (batch.size() < maxPendingNotifications && (pendingNotification = pendingNotifications.poll()) != null) {
+            batch.add(pendingNotification);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        numOfPendingNotifications.addAndGet(-batch.size());
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> this.insertNotifications(batch));
+        } catch (RuntimeException exception) {
+            // isolate the notification that broke the batch instead of losing all of them
+            logger.warn("batch insert of " + batch.size() + " notifications failed, inserting them one by one: " + exception.getMessage());
+            batch.forEach(singleNotification -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> this.insertNotifications(List.of(singleNotification)));
+                } catch (RuntimeException singleException) {
+                    logger.error("dropping notification for recipient " + singleNotification.notification.getRecipientId() + ": " + singleException.getMessage());
+                }
+            });
+        }
+    }
+
+    // the listener threads run in any order, first and last are determined by the publish order of the events
+    private void coalesceAssignment(DomainEvent event, UUID recipientId, UUID ticketId, UUID projectId, boolean isAssigned) {
+        if (coalescingWindowNanos <= 0) {
+            this.addNotification(new PendingNotification(
+                    createAssignmentNotification(recipientId, ticketId, projectId, isAssigned),
+                    List.of(event)
+            ));
+            return;
+        }
+
+        long releaseTime = System.nanoTime() + coalescingWindowNanos;
+        long sequenceNumber = event.getSequenceNumber();
+        coalescedAssignments.compute(new AssignmentKey(recipientId, ticketId), (key, coalescedAssignment) -> {
+            if (coalescedAssignment == null) {
+                coalescedAssignment = new CoalescedAssignment(projectId, sequenceNumber, isAssigned, sequenceNumber, isAssigned, releaseTime);
+            }
+            coalescedAssignment.events.add(event);
+            if (sequenceNumber < coalescedAssignment.firstSequenceNumber) {
+                coalescedAssignment.firstSequenceNumber = sequenceNumber;
+                coalescedAssignment.firstIsAssigned = isAssigned;
+            }
+            if (sequenceNumber > coalescedAssignment.lastSequenceNumber) {
+                coalescedAssignment.lastSequenceNumber = sequenceNumber;
+                coalescedAssignment.lastIsAssigned = isAssigned;
+            }
+            return coalescedAssignment;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${notification.write-buffer.flush-interval:100}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void releaseCoalescedNotifications() {
+        this.releaseCoalescedNotifications(false);
+    }
+
+    private void releaseCoalescedNotifications(boolean releaseAll) {
+        long now = System.nanoTime();
+        List<PendingNotification> releasedNotifications = new ArrayList<>();
+        List<DomainEvent> cancelledOutEvents = new ArrayList<>();
+        for (AssignmentKey assignmentKey : coalescedAssignments.keySet()) {
+            coalescedAssignments.computeIfPresent(assignmentKey, (key, coalescedAssignment) -> {
+                if (!releaseAll && now - coalescedAssignment.releaseTime < 0) {
+                    return coalescedAssignment;
+                }
+                // only notify if the net state changed; if first and last event differ, the assignment ends where it started
+                if (coalescedAssignment.firstIsAssigned == coalescedAssignment.lastIsAssigned) {
+                    releasedNotifications.add(new PendingNotification(
+                            createAssignmentNotification(
+                                    key.recipientId,
+                                    key.ticketId,
+                                    coalescedAssignment.projectId,
+                                    coalescedAssignment.lastIsAssigned
+                            ),
+                            coalescedAssignment.events
+                    ));
+                } else {
+                    cancelledOutEvents.addAll(coalescedAssignment.events);
+                }
+                return null;
+            });
+        }
+        // outside of compute: adding may trigger a flush, which must not run while holding a map bin lock
+        releasedNotifications.forEach(this::addNotification);
+        this.markCancelledOutEventsAsProcessed(cancelledOutEvents);
+    }
+
+    // events that cancelled each other out never reach the buffer, they are done once released
+    private void markCancelledOutEventsAsProcessed(List<DomainEvent> cancelledOutEvents) {
+        if (cancelledOutEvents.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    cancelledOutEvents.forEach(event -> processedEvents.markAsProcessed(event, EVENT_CONSUMER))
+            );
+        } catch (DataIntegrityViolationException exception) {
+            logger.debug("cancelled out assignment events were marked as processed concurrently");
+        }
+    }
+
+    @PreDestroy
+    public void flushAllPendingNotifications() {
+        this.releaseCoalescedNotifications(true);
+        while (!pendingNotifications.isEmpty()) {
+            this.flushPendingNotifications();
+        }
+    }
+
+    // marker and notification commit together: a notification whose events were all handled already, e.g. by
+    // an earlier delivery of the same event that sat in the buffer at the same time, is dropped as duplicate
+    private void insertNotifications(List<PendingNotification> pendingNotifications) {
+        List<Notification> notifications = pendingNotifications
+                .stream()
+                .filter(this::markEventsAsProcessed)
+                .map(pendingNotification -> pendingNotification.notification)
+                .collect(Collectors.toList());
+        List<Notification> initializedNotifications = notificationRepository.saveAll(notifications);
+
+        Map<UUID, Long> numOfNotificationsByRecipientId = initializedNotifications
+                .stream()
+                .collect(Collectors.groupingBy(Notification::getRecipientId, Collectors.counting()));
+        numOfNotificationsByRecipientId.forEach(this::updateUnreadCount);
+
+        initializedNotifications.forEach(initializedNotification ->
+                eventPublisher.publishEvent(new NotificationCreatedEvent(initializedNotification.getId(), initializedNotification.getRecipientId()))
+        );
     }
 
     public Notification getNotificationById(UUID id) throws NoNotificationFoundException {
@@ -66,6 +281,67 @@ public class NotificationDomainService {
         return notifications;
     }
 
+    public List<Notification> getNotificationsByRecipientIdCreatedAfter(UUID recipientId, UUID lastNotificationId) {
+        Optional<Notification> lastNotification = notificationRepository.findById(lastNotificationId);
+        if (lastNotification.isEmpty() || !lastNotification.get().getRecipientId().equals(recipientId)) {
+            return List.of();
+        }
+        return notificationRepository.findByRecipientIdAfter(
+                recipientId,
+                lastNotification.get().getCreationTime(),
+                lastNotification.get().getId()
+        );
+    }
+
+    public List<Notification> getInboxPage(
+            UUID recipientId,
+            boolean unreadOnly,
+            NotificationType type,
+            LocalDateTime beforeTime,
+            UUID beforeId,
+            int limit
+    ) {
+        if (limit < 1 || limit > MAX_INBOX_PAGE_SIZE) {
+            throw new NotificationException("limit must be between 1 and " + MAX_INBOX_PAGE_SIZE + " but was: " + limit);
+        }
+        if ((beforeTime == null) != (beforeId == null)) {
+            throw new NotificationException("beforeTime and beforeId must be specified together");
+        }
+
+        Pageable pageable = PageRequest.of(0, limit);
+        if (beforeTime == null) {
+            return notificationRepository.findFirstInboxPage(recipientId, unreadOnly, type, pageable);
+        }
+        return notificationRepository.findInboxPage(recipientId, unreadOnly, type, beforeTime, beforeId, pageable);
+    }
+
+    public List<Notification> getReadNotificationsCreatedBefore(LocalDateTime creationTime, int limit) {
+        return notificationRepository.findByIsReadTrueAndCreationTimeBeforeOrderByCreationTimeAsc(creationTime, PageRequest.of(0, limit));
+    }
+
+    public List<UUID> getRecipientIdsWithMoreNotificationsThan(int maxNotifications) {
+        return notificationRepository.findRecipientIdsWithMoreNotificationsThan(maxNotifications);
+    }
+
+    // the last of the newest maxNotifications notifications of the recipient, everything older is beyond the limit
+    public Optional<Notification> getOldestKeptNotification(UUID recipientId, int maxNotifications) {
+        return notificationRepository
+                .findByRecipientIdOrderByCreationTimeDescIdDesc(recipientId, PageRequest.of(maxNotifications - 1, 1))
+                .stream()
+                .findFirst();
+    }
+
+    // keyset page in (creationTime, id) order, newest first
+    public List<Notification> getNotificationsOlderThan(UUID recipientId, LocalDateTime beforeTime, UUID beforeId, int limit) {
+        return notificationRepository.findInboxPage(recipientId, false, null, beforeTime, beforeId, PageRequest.of(0, limit));
+    }
+
+    public Long getUnreadCountByRecipientId(UUID recipientId) {
+        return unreadNotificationCounterRepository
+                .findUnreadCountByRecipientId(recipientId)
+                .orElse(0L);
+    }
+
     public UUID getGetRecipientIdByNotificationId(UUID id) throws NoNotificationFoundException {
         return this
                 .getNotificationById(id)
@@ -73,86 +349,184 @@ public class NotificationDomainService {
     }
 
     public UUID getUserIdByUserEmailAddress(EmailAddress emailAddress) {
-        List<UserDataOfNotification> userData = userDataOfNotificationRepository.findByUserEmailEquals(emailAddress);
-        if (userData.isEmpty()) {
-            throw new ImpossibleException("no user data found for user: " + emailAddress.toString());
-        }
-        return userData.get(0).getUserId();
+        return userDirectory
+                .findUserIdByEmail(emailAddress)
+                .orElseThrow(() -> new ImpossibleException("no user data found for user: " + emailAddress.toString()));
     }
 
     public void patchById(UUID id, Boolean isRead) throws NoNotificationFoundException, NotificationException, IllegalStateUpdateException {
         Notification notification = this.getNotificationById(id);
+        boolean wasRead = notification.getIsRead();
         notification.setIsRead(isRead);
         notificationRepository.save(notification);
+        if (!wasRead && notification.getIsRead()) {
+            this.updateUnreadCount(notification.getRecipientId(), -1);
+        }
     }
 
     public void deleteById(UUID id) throws NoNotificationFoundException {
+        Optional<Notification> notification = notificationRepository.findById(id);
         Long numOfDeletedNotifications = notificationRepository.removeById(id);
-        if (numOfDeletedNotifications == 0) {
+        if (notification.isEmpty() || numOfDeletedNotifications == 0) {
             throw new NoNotificationFoundException("Could not find notification with id: " + id);
         }
+        if (!notification.get().getIsRead()) {
+            this.updateUnreadCount(notification.get().getRecipientId(), -1);
+        }
+    }
+
+    public void deleteNotifications(List<Notification> notifications) {
+        notificationRepository.deleteAllByIdInBatch(notifications.stream().map(Notification::getId).collect(Collectors.toList()));
+        notifications
+                .stream()
+                .filter(notification -> !notification.getIsRead())
+                .collect(Collectors.groupingBy(Notification::getRecipientId, Collectors.counting()))
+                .forEach((recipientId, numOfUnread) -> this.updateUnreadCount(recipientId, -numOfUnread));
     }
 
+    // a batch taken by a concurrent flush could otherwise be inserted after the delete. Notifications still buffered for
+    // the recipient are dropped instead of inserted, their events are done so a redelivery does not notify again.
     public void deleteByRecipientId(UUID recipientId) {
-        notificationRepository.deleteByRecipientId(recipientId);
+        coalescedAssignments.keySet().removeIf(assignmentKey -> assignmentKey.recipientId.equals(recipientId));
+        flushLock.writeLock().lock();
+        try {
+            List<PendingNotification> droppedNotifications = pendingNotifications
+                    .stream()
+                    .filter(pendingNotification -> pendingNotification.notification.getRecipientId().equals(recipientId))
+                    .collect(Collectors.toList());
+            droppedNotifications.forEach(droppedNotification -> {
+                if (pendingNotifications.remove(droppedNotification)) {
+                    numOfPendingNotifications.decrementAndGet();
+                    this.markEventsAsProcessed(droppedNotification);
+                }
+            });
+            notificationRepository.deleteByRecipientId(recipientId);
+            unreadNotificationCounterRepository.deleteByRecipientId(recipientId);
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    private void updateUnreadCount(UUID recipientId, long delta) {
+        int numOfUpdatedCounters = unreadNotificationCounterRepository.addToUnreadCount(recipientId, delta);
+        if (numOfUpdatedCounters == 0) {
+            // no counter yet, e.g. user data not consumed yet -> start from the committed count and add to it as usual
+            this.createUnreadCounterIfAbsent(recipientId);
+            unreadNotificationCounterRepository.addToUnreadCount(recipientId, delta);
+        }
+    }
+
+    // in a transaction of its own: losing the race against a concurrent insert of the same counter
+    // rolls back only the insert, not the notifications of the caller
+    private void createUnreadCounterIfAbsent(UUID recipientId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!unreadNotificationCounterRepository.existsById(recipientId)) {
+                    Long unreadCount = notificationRepository.countByRecipientIdAndIsReadFalse(recipientId);
+                    unreadNotificationCounterRepository.saveAndFlush(new UnreadNotificationCounter(recipientId, unreadCount));
+                }
+            });
+        } catch (DataIntegrityViolationException exception) {
+            logger.debug("unread counter of recipient " + recipientId + " was created concurrently");
+        }
+    }
+
+    private Boolean markEventsAsProcessed(PendingNotification pendingNotification) {
+        boolean isAnyEventNew = false;
+        for (DomainEvent event : pendingNotification.events) {
+            isAnyEventNew |= processedEvents.markAsProcessed(event, EVENT_CONSUMER);
+        }
+        return isAnyEventNew;
+    }
+
+    private Notification createAssignmentNotification(UUID recipientId, UUID ticketId, UUID projectId, boolean isAssigned) {
+        NotificationType type = isAssigned ? NotificationType.TICKET_ASSIGNED : NotificationType.TICKET_UNASSIGNED;
+        return new Notification(recipientId, type, projectId, ticketId);
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class AssignmentKey {
+        private final UUID recipientId;
+        private final UUID ticketId;
+    }
+
+    @AllArgsConstructor
+    private static class PendingNotification {
+        private final Notification notification;
+        private final List<DomainEvent> events;
+    }
+
+    @AllArgsConstructor
+    private static class CoalescedAssignment {
+        private final List<DomainEvent> events = new ArrayList<>();
+        private final UUID projectId;
+        private long firstSequenceNumber;
+        private boolean firstIsAssigned;
+        private long lastSequenceNumber;
+        private boolean lastIsAssigned;
+        private final long releaseTime;
     }
 
 
     // event listeners
 
+    // a redelivered event must not notify twice: known duplicates are skipped right away,
+    // the event itself is marked as processed together with the insert of its notification
     @EventListener
     @Async
     public void handleUnacceptedProjectMembershipCreatedEvent(UnacceptedProjectMembershipCreatedEvent unacceptedProjectMembershipCreatedEvent) {
-        String message = "You got invited to project " + unacceptedProjectMembershipCreatedEvent.getProjectId() + ".";
-
-        Notification notification = new Notification(unacceptedProjectMembershipCreatedEvent.getInviteeId(), message);
-        notificationRepository.save(notification);
+        if (processedEvents.isProcessed(unacceptedProjectMembershipCreatedEvent, EVENT_CONSUMER)) {
+            return;
+        }
+        Notification notification = new Notification(
+                unacceptedProjectMembershipCreatedEvent.getInviteeId(),
+                NotificationType.PROJECT_INVITATION,
+                unacceptedProjectMembershipCreatedEvent.getProjectId(),
+                null
+        );
+        this.addNotification(new PendingNotification(notification, List.of(unacceptedProjectMembershipCreatedEvent)));
     }
 
     @EventListener
     @Async
     public void handleTicketAssignedEvent(TicketAssignedEvent ticketAssignedEvent) {
-        String message =
-                "You got assigned to ticket " + ticketAssignedEvent.getTicketId() +
-                " of project " + ticketAssignedEvent.getProjectId() + ".";
-
-        Notification notification = new Notification(ticketAssignedEvent.getAssigneeId(), message);
-        notificationRepository.save(notification);
+        if (processedEvents.isProcessed(ticketAssignedEvent, EVENT_CONSUMER)) {
+            return;
+        }
+        this.coalesceAssignment(
+                ticketAssignedEvent,
+                ticketAssignedEvent.getAssigneeId(),
+                ticketAssignedEvent.getTicketId(),
+                ticketAssignedEvent.getProjectId(),
+                true
+        );
     }
 
     @EventListener
     @Async
     public void handleTicketUnassignedEvent(TicketUnassignedEvent ticketUnassignedEvent) {
-        String message =
-                "Your assignment to ticket " + ticketUnassignedEvent.getTicketId() +
-                " of project " + ticketUnassignedEvent.getProjectId() +
-                " has been revoked" + ".";
-
-        Notification notification = new Notification(ticketUnassignedEvent.getAssigneeId(), message);
-        notificationRepository.save(notification);
+        if (processedEvents.isProcessed(ticketUnassignedEvent, EVENT_CONSUMER)) {
+            return;
+        }
+        this.coalesceAssignment(
+                ticketUnassignedEvent,
+                ticketUnassignedEvent.getAssigneeId(),
+                ticketUnassignedEvent.getTicketId(),
+                ticketUnassignedEvent.getProjectId(),
+                false
+        );
     }
 
     @EventListener
     @Async
     public void handleUserCreatedEvent(UserCreatedEvent userCreatedEvent) {
-        userDataOfNotificationRepository.save(new UserDataOfNotification(userCreatedEvent.getUserId(), userCreatedEvent.getEmailAddress()));
-    }
-
-    @EventListener
-    @Async
-    public void handleUserPatchedEvent(UserPatchedEvent userPatchedEvent) {
-        UserDataOfNotification userDataOfNotification =
-                userDataOfNotificationRepository
-                        .findByUserId(userPatchedEvent.getUserId())
-                        .get(0);
-        userDataOfNotification.setUserEmail(userPatchedEvent.getEmailAddress());
-        userDataOfNotificationRepository.save(userDataOfNotification);
+        this.createUnreadCounterIfAbsent(userCreatedEvent.getUserId());
     }
 
     @EventListener
     @Async
     public void handleUserDeletedEvent(UserDeletedEvent userDeletedEvent) {
         this.deleteByRecipientId(userDeletedEvent.getUserId());
-        userDataOfNotificationRepository.deleteByUserId(userDeletedEvent.getUserId());
     }
 }
@@ -0,0 +1,218 @@
+package com.kett.TicketSystem.notification.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+// deletes in chunks, one transaction per chunk, so a run never locks large parts of the table
+@Component
+public class NotificationRetentionJob {
+    private static final DateTimeFormatter ARCHIVE_FILE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Logger logger = LoggerFactory.getLogger(NotificationRetentionJob.class);
+    private final NotificationDomainService notificationDomainService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper archiveMapper;
+    private final Duration maxAge;
+    private final int maxPerRecipient;
+    private final int chunkSize;
+    private final String archiveDirectory;
+    private final DistributionSummary purgedPerRun;
+
+    @Autowired
+    public NotificationRetentionJob(
+            NotificationDomainService notificationDomainService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${notification.retention.max-age:30d}") Duration maxAge,
+            @Value("${notification.retention.max-per-recipient:0}") int maxPerRecipient,
+            @Value("${notification.retention.chunk-size:500}") int chunkSize,
+            @Value("${notification.retention.archive-directory:}") String archiveDirectory
+    ) {
+        this.notificationDomainService = notificationDomainService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.archiveMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.maxAge = maxAge;
+        this.maxPerRecipient = maxPerRecipient;
+        this.chunkSize = chunkSize;
+        this.archiveDirectory = archiveDirectory;
+        this.purgedPerRun = DistributionSummary
+                .builder("notifications.retention.purged.run")
+                .description("notifications purged per retention run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${notification.retention.interval:3600000}",
+            fixedDelayString = "${notification.retention.interval:3600000}"
+    )
+    public void scheduledRun() {
+        try {
+            this.run();
+        } catch (IOException exception) {
+            logger.error("notification retention run failed: " + exception.getMessage());
+        }
+    }
+
+    public long run() throws IOException {
+        long numOfPurged;
+        try (NotificationArchive archive = openArchive()) {
+            numOfPurged = purgeByAge(archive) + purgeByRecipientLimit(archive);
+        }
+        purgedPerRun.record(numOfPurged);
+        logger.info("notification retention run purged " + numOfPurged + " notifications");
+        return numOfPurged;
+    }
+
+    private long purgeByAge(NotificationArchive archive) throws IOException {
+        if (maxAge.isZero() || maxAge.isNegative()) {
+            return 0;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+        long numOfPurged = 0;
+        List<Notification> chunk;
+        while (!(chunk = notificationDomainService.getReadNotificationsCreatedBefore(cutoff, chunkSize)).isEmpty()) {
+            numOfPurged += purge(chunk, archive, "age");
+        }
+        return numOfPurged;
+    }
+
+    private long purgeByRecipientLimit(NotificationArchive archive) throws IOException {
+        if (maxPerRecipient <= 0) {
+            return 0;
+        }
+
+        long numOfPurged = 0;
+        for (UUID recipientId : notificationDomainService.getRecipientIdsWithMoreNotificationsThan(maxPerRecipient)) {
+            Optional<Notification> oldestKept = notificationDomainService.getOldestKeptNotification(recipientId, maxPerRecipient);
+            if (oldestKept.isEmpty()) {
+                continue;
+            }
+
+            // keyset cursor, every chunk continues after the last purged notification
+            LocalDateTime beforeTime = oldestKept.get().getCreationTime();
+            UUID beforeId = oldestKept.get().getId();
+            List<Notification> chunk;
+            while (!(chunk = notificationDomainService.getNotificationsOlderThan(recipientId, beforeTime, beforeId, chunkSize)).isEmpty()) {
+                numOfPurged += purge(chunk, archive, "recipient-limit");
+                Notification lastPurged = chunk.get(chunk.size() - 1);
+                beforeTime = lastPurged.getCreationTime();
+                beforeId = lastPurged.getId();
+            }
+        }
+        return numOfPurged;
+    }
+
+    // deleted first and archived before the commit: a failed delete archives nothing, a failed archive keeps the rows.
+    // the chunk is on disk before the delete commits, a crash after it leaves an archive without the gzip trailer
+    // that still holds every committed chunk
+    private int purge(List<Notification> chunk, NotificationArchive archive, String reason) throws IOException {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                notificationDomainService.deleteNotifications(chunk);
+                try {
+                    archive.write(chunk);
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+        Counter
+                .builder("notifications.retention.purged")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment(chunk.size());
+        return chunk.size();
+    }
+
+    private NotificationArchive openArchive() {
+        if (archiveDirectory == null || archiveDirectory.isBlank()) {
+            return new NotificationArchive(null);
+        }
+        return new NotificationArchive(Paths.get(archiveDirectory));
+    }
+
+    // the file is only created once there is something to archive, runs without purges leave no empty archives
+    private class NotificationArchive implements Closeable {
+        private final Path directory;
+        private FileChannel channel;
+        private Writer writer;
+
+        private NotificationArchive(Path directory) {
+            this.directory = directory;
+        }
+
+        private void write(List<Notification> notifications) throws IOException {
+            if (directory == null || notifications.isEmpty()) {
+                return;
+            }
+            if (writer == null) {
+                Files.createDirectories(directory);
+                Path archiveFile = directory.resolve("notifications-" + LocalDateTime.now().format(ARCHIVE_FILE_TIME_FORMAT) + "-" + UUID.randomUUID().toString().substring(0, 8) + ".jsonl.gz");
+                channel = FileChannel.open(archiveFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                // sync flush: a flush pushes everything deflated so far into the file, not just into the deflater
+                writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(Channels.newOutputStream(channel), true), StandardCharsets.UTF_8));
+            }
+            for (Notification notification : notifications) {
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("id", notification.getId());
+                line.put("creationTime", notification.getCreationTime());
+                line.put("recipientId", notification.getRecipientId());
+                line.put("isRead", notification.getIsRead());
+                line.put("type", notification.getType());
+                line.put("projectId", notification.getProjectId());
+                line.put("ticketId", notification.getTicketId());
+                if (notification.getType() == null) {
+                    line.put("content", notification.getContent());
+                }
+                writer.write(archiveMapper.writeValueAsString(line));
+                writer.write('\n');
+            }
+            writer.flush();
+            channel.force(false);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+}
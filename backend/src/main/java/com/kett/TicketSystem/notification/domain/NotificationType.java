@@ -0,0 +1,7 @@
+package com.kett.TicketSystem.notification.domain;
+
+public enum NotificationType {
+    PROJECT_INVITATION,
+    TICKET_ASSIGNED,
+    TICKET_UNASSIGNED
+}
@@ -0,0 +1,24 @@
+package com.kett.TicketSystem.notification.domain;
+
+import lombok.*;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.util.UUID;
+
+@Entity
+@Getter
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class UnreadNotificationCounter {
+    @Id
+    @Column(length = 16)
+    private UUID recipientId;
+
+    private Long unreadCount;
+
+    public UnreadNotificationCounter(@NonNull UUID recipientId) {
+        this(recipientId, 0L);
+    }
+}
@@ -0,0 +1,18 @@
+package com.kett.TicketSystem.notification.domain.events;
+
+import com.kett.TicketSystem.common.domainprimitives.DomainEvent;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+public class NotificationCreatedEvent extends DomainEvent {
+    private final UUID notificationId;
+    private final UUID recipientId;
+
+    public NotificationCreatedEvent(UUID notificationId, UUID recipientId) {
+        super();
+        this.notificationId = notificationId;
+        this.recipientId = recipientId;
+    }
+}
@@ -1,16 +1,66 @@
 package com.kett.TicketSystem.notification.repository;
 
 import com.kett.TicketSystem.notification.domain.Notification;
+import com.kett.TicketSystem.notification.domain.NotificationType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, UUID> {
+    // keyset pagination, newest first
+    @Query("select n from Notification n where n.recipientId = :recipientId " +
+            "and (:unreadOnly = false or n.isRead = false) " +
+            "and (:type is null or n.type = :type) " +
+            "and (n.creationTime < :beforeTime or (n.creationTime = :beforeTime and n.id < :beforeId)) " +
+            "order by n.creationTime desc, n.id desc")
+    List<Notification> findInboxPage(
+            @Param("recipientId") UUID recipientId,
+            @Param("unreadOnly") boolean unreadOnly,
+            @Param("type") NotificationType type,
+            @Param("beforeTime") LocalDateTime beforeTime,
+            @Param("beforeId") UUID beforeId,
+            Pageable pageable
+    );
+
+    @Query("select n from Notification n where n.recipientId = :recipientId " +
+            "and (:unreadOnly = false or n.isRead = false) " +
+            "and (:type is null or n.type = :type) " +
+            "order by n.creationTime desc, n.id desc")
+    List<Notification> findFirstInboxPage(
+            @Param("recipientId") UUID recipientId,
+            @Param("unreadOnly") boolean unreadOnly,
+            @Param("type") NotificationType type,
+            Pageable pageable
+    );
+
     List<Notification> findByRecipientId(UUID recipientId);
     List<Notification> findByRecipientIdAndIsReadFalse(UUID recipientId);
+    // keyset after the given notification, oldest first. notifications can share a creation time, the id breaks ties
+    @Query("select n from Notification n where n.recipientId = :recipientId " +
+            "and (n.creationTime > :afterTime or (n.creationTime = :afterTime and n.id > :afterId)) " +
+            "order by n.creationTime asc, n.id asc")
+    List<Notification> findByRecipientIdAfter(
+            @Param("recipientId") UUID recipientId,
+            @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") UUID afterId
+    );
+    Long countByRecipientIdAndIsReadFalse(UUID recipientId);
+
+    // retention
+    List<Notification> findByIsReadTrueAndCreationTimeBeforeOrderByCreationTimeAsc(LocalDateTime creationTime, Pageable pageable);
+
+    @Query("select n.recipientId from Notification n group by n.recipientId having count(n) > :maxNotifications")
+    List<UUID> findRecipientIdsWithMoreNotificationsThan(@Param("maxNotifications") long maxNotifications);
+
+    List<Notification> findByRecipientIdOrderByCreationTimeDescIdDesc(UUID recipientId, Pageable pageable);
+
     Long removeById(UUID id);
     void deleteByRecipientId(UUID recipientId);
 }
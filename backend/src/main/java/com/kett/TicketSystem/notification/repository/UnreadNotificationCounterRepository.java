@@ -0,0 +1,26 @@
+package com.kett.TicketSystem.notification.repository;
+
+import com.kett.TicketSystem.notification.domain.UnreadNotificationCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UnreadNotificationCounterRepository extends JpaRepository<UnreadNotificationCounter, UUID> {
+
+    // selected as a value, a counter entity managed by the caller would not see the updates below
+    @Query("select c.unreadCount from UnreadNotificationCounter c where c.recipientId = :recipientId")
+    Optional<Long> findUnreadCountByRecipientId(@Param("recipientId") UUID recipientId);
+
+    // atomic in the database, concurrent async listeners must not lose updates
+    @Modifying(flushAutomatically = true)
+    @Query("update UnreadNotificationCounter c set c.unreadCount = c.unreadCount + :delta where c.recipientId = :recipientId")
+    int addToUnreadCount(@Param("recipientId") UUID recipientId, @Param("delta") long delta);
+
+    void deleteByRecipientId(UUID recipientId);
+}
@@ -33,6 +33,13 @@ public class PhaseApplicationService {
         return dtoMapper.mapPhaseToPhaseResponseDto(phase);
     }
 
+    @PreAuthorize("hasAnyAuthority(" +
+            "'ROLE_PROJECT_ADMIN_'.concat(@phaseDomainService.getProjectIdByPhaseId(#id)), " +
+            "'ROLE_PROJECT_MEMBER_'.concat(@phaseDomainService.getProjectIdByPhaseId(#id)))")
+    public Long getPhaseVersionById(UUID id) {
+        return phaseDomainService.getPhaseById(id).getVersion();
+    }
+
     @PreAuthorize("hasAnyAuthority(" +
             "'ROLE_PROJECT_ADMIN_'.concat(#projectId), " +
             "'ROLE_PROJECT_MEMBER_'.concat(#projectId))")
@@ -41,6 +48,13 @@ public class PhaseApplicationService {
         return dtoMapper.mapPhaseListToPhaseResponseDtoList(phases);
     }
 
+    @PreAuthorize("hasAnyAuthority(" +
+            "'ROLE_PROJECT_ADMIN_'.concat(#projectId), " +
+            "'ROLE_PROJECT_MEMBER_'.concat(#projectId))")
+    public Long getPhasesVersionByProjectId(UUID projectId) {
+        return phaseDomainService.getPhasesVersionByProjectId(projectId);
+    }
+
     @PreAuthorize("hasAuthority('ROLE_PROJECT_ADMIN_'.concat(#phasePostDto.projectId))")
     public PhaseResponseDto addPhase(PhasePostDto phasePostDto) {
         Phase phase = phaseDomainService.createPhase(
@@ -56,8 +70,8 @@ public class PhaseApplicationService {
     }
 
     @PreAuthorize("hasAuthority('ROLE_PROJECT_ADMIN_'.concat(@phaseDomainService.getProjectIdByPhaseId(#id)))")
-    public void patchPhasePosition(UUID id, PhasePutPositionDto phasePutPositionDto) {
-        phaseDomainService.patchPhasePosition(id, phasePutPositionDto.getPreviousPhase());
+    public void patchPhasePosition(UUID id, Long expectedVersion, PhasePutPositionDto phasePutPositionDto) {
+        phaseDomainService.patchPhasePosition(id, expectedVersion, phasePutPositionDto.getPreviousPhase());
     }
 
     @PreAuthorize("hasAuthority('ROLE_PROJECT_ADMIN_'.concat(@phaseDomainService.getProjectIdByPhaseId(#id)))")
@@ -5,11 +5,13 @@ import com.kett.TicketSystem.phase.application.dto.PhasePutNameDto;
 import com.kett.TicketSystem.phase.application.dto.PhasePutPositionDto;
 import com.kett.TicketSystem.phase.application.dto.PhasePostDto;
 import com.kett.TicketSystem.phase.application.dto.PhaseResponseDto;
+import com.kett.TicketSystem.common.versioning.EntityTags;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -29,18 +31,27 @@ public class PhaseController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PhaseResponseDto> getPhaseById(@PathVariable UUID id) {
+    public ResponseEntity<PhaseResponseDto> getPhaseById(@PathVariable UUID id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(String.valueOf(phaseApplicationService.getPhaseVersionById(id)))) {
+            return null;
+        }
         PhaseResponseDto phaseResponseDto = phaseApplicationService.getPhaseById(id);
         return new ResponseEntity<>(phaseResponseDto, HttpStatus.OK);
     }
 
     @GetMapping
     public ResponseEntity<List<PhaseResponseDto>> getPhasesByQuery(
-            @RequestParam(name = "project-id", required = true) UUID projectId
+            @RequestParam(name = "project-id", required = true) UUID projectId,
+            WebRequest webRequest
     ) {
         if (projectId == null) { // TODO: null check not needed?
             throw new NoParametersException("cannot query if no projectId is specified");
         }
+
+        // the list is tagged with the aggregate version of all phases of the project
+        if (webRequest.checkNotModified(String.valueOf(phaseApplicationService.getPhasesVersionByProjectId(projectId)))) {
+            return null;
+        }
         List<PhaseResponseDto> phaseResponseDtos = phaseApplicationService.getPhasesByProjectId(projectId);
 
         return new ResponseEntity<>(phaseResponseDtos, HttpStatus.OK);
@@ -67,8 +78,12 @@ public class PhaseController {
     }
 
     @PutMapping("/{id}/position")
-    public ResponseEntity<?> patchPhasePosition(@PathVariable UUID id, @RequestBody PhasePutPositionDto phasePutPositionDto) {
-        phaseApplicationService.patchPhasePosition(id, phasePutPositionDto);
+    public ResponseEntity<?> patchPhasePosition(
+            @PathVariable UUID id,
+            @RequestHeader(name = "If-Match", required = false) String ifMatch,
+            @RequestBody PhasePutPositionDto phasePutPositionDto
+    ) {
+        phaseApplicationService.patchPhasePosition(id, EntityTags.toExpectedVersion(ifMatch), phasePutPositionDto);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
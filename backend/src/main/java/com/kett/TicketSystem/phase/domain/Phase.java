@@ -3,11 +3,15 @@ package com.kett.TicketSystem.phase.domain;
 import com.kett.TicketSystem.phase.domain.exceptions.PhaseException;
 import com.kett.TicketSystem.common.exceptions.UnrelatedPhaseException;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "phase")
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Phase {
@@ -18,6 +22,10 @@ public class Phase {
     @Column(length = 16)
     private UUID id;
 
+    @Version
+    @Getter
+    private Long version;
+
     @Getter
     @Column(length = 16)
     private UUID projectId;
@@ -77,18 +85,6 @@ public class Phase {
         this.ticketCount = ticketCount;
     }
 
-    public void increaseTicketCount() throws PhaseException {
-        this.setTicketCount(
-                this.getTicketCount() + 1
-        );
-    }
-
-    public void decreaseTicketCount() throws PhaseException {
-        this.setTicketCount(
-                this.getTicketCount() - 1
-        );
-    }
-
     public Boolean isFirst() {
         return previousPhase == null;
     }
@@ -1,10 +1,18 @@
 package com.kett.TicketSystem.phase.domain;
 
+import com.kett.TicketSystem.common.cache.ReplicaCache;
+import com.kett.TicketSystem.common.cache.ReplicaCacheFactory;
+import com.kett.TicketSystem.common.eventprocessing.ReplicaInserts;
 import com.kett.TicketSystem.common.exceptions.NoProjectFoundException;
+import com.kett.TicketSystem.common.exceptions.VersionConflictException;
+import com.kett.TicketSystem.common.locking.ProjectLocks;
+import com.kett.TicketSystem.common.versioning.OptimisticLockingTemplate;
 import com.kett.TicketSystem.phase.domain.consumedData.ProjectDataOfPhase;
 import com.kett.TicketSystem.phase.domain.events.PhaseCreatedEvent;
 import com.kett.TicketSystem.phase.domain.events.PhaseDeletedEvent;
 import com.kett.TicketSystem.phase.domain.events.PhasePositionUpdatedEvent;
+import com.kett.TicketSystem.phase.domain.events.PhasesCreatedEvent;
+import com.kett.TicketSystem.phase.domain.events.ProjectPhasesDeletedEvent;
 import com.kett.TicketSystem.phase.domain.exceptions.LastPhaseException;
 import com.kett.TicketSystem.phase.repository.ProjectDataOfPhaseRepository;
 import com.kett.TicketSystem.project.domain.events.DefaultProjectCreatedEvent;
@@ -19,17 +27,29 @@ import com.kett.TicketSystem.phase.domain.exceptions.PhaseIsNotEmptyException;
 import com.kett.TicketSystem.ticket.domain.events.TicketCreatedEvent;
 import com.kett.TicketSystem.ticket.domain.events.TicketDeletedEvent;
 import com.kett.TicketSystem.ticket.domain.events.TicketPhaseUpdatedEvent;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @Transactional
@@ -37,23 +57,52 @@ public class PhaseDomainService {
     private final PhaseRepository phaseRepository;
     private final ApplicationEventPublisher eventPublisher;
     private final ProjectDataOfPhaseRepository projectDataOfPhaseRepository;
+    private final ReplicaCache<UUID, Boolean> existingProjectIds;
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticLockingTemplate optimisticLockingTemplate;
+    private final ProjectLocks projectLocks;
+    private final ReplicaInserts replicaInserts;
+    private final EntityManager entityManager;
+    private final int deletionChunkSize;
+    private final PhaseTemplate projectTemplate;
+    private final PhaseTemplate defaultProjectTemplate;
 
     @Autowired
     public PhaseDomainService(
             PhaseRepository phaseRepository,
             ApplicationEventPublisher eventPublisher,
-            ProjectDataOfPhaseRepository projectDataOfPhaseRepository
+            ProjectDataOfPhaseRepository projectDataOfPhaseRepository,
+            ReplicaCacheFactory replicaCacheFactory,
+            PlatformTransactionManager transactionManager,
+            OptimisticLockingTemplate optimisticLockingTemplate,
+            ProjectLocks projectLocks,
+            ReplicaInserts replicaInserts,
+            EntityManager entityManager,
+            @Value("${project.deletion.chunk-size:500}") int deletionChunkSize,
+            @Value("${phase.template.project:BACKLOG}") List<String> projectPhaseNames,
+            @Value("${phase.template.default-project:BACKLOG,DOING,REVIEW,DONE}") List<String> defaultProjectPhaseNames
     ) {
         this.phaseRepository = phaseRepository;
         this.eventPublisher = eventPublisher;
         this.projectDataOfPhaseRepository = projectDataOfPhaseRepository;
+        this.existingProjectIds = replicaCacheFactory.create("ProjectDataOfPhase.projectId");
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.optimisticLockingTemplate = optimisticLockingTemplate;
+        this.projectLocks = projectLocks;
+        this.replicaInserts = replicaInserts;
+        this.entityManager = entityManager;
+        this.deletionChunkSize = deletionChunkSize;
+        this.projectTemplate = new PhaseTemplate(projectPhaseNames);
+        this.defaultProjectTemplate = new PhaseTemplate(defaultProjectPhaseNames);
     }
 
 
     // create
 
     public Phase createPhase(Phase phase, UUID previousPhaseId) throws NoPhaseFoundException, UnrelatedPhaseException  {
+        this.lockChainOfProject(phase.getProjectId());
         Phase initializedPhase = addPhase(phase, previousPhaseId);
+        this.increasePhasesVersion(initializedPhase.getProjectId());
         eventPublisher.publishEvent(
                 new PhaseCreatedEvent(
                         initializedPhase.getId(),
@@ -64,8 +113,65 @@ public class PhaseDomainService {
         return initializedPhase;
     }
 
+    // inserts the whole template at once instead of prepending phase by phase, only for projects without phases
+    public List<Phase> createPhasesFromTemplate(UUID projectId, PhaseTemplate phaseTemplate) throws NoProjectFoundException {
+        if (!this.projectDataExists(projectId)) {
+            throw new NoProjectFoundException("could not find project with id: " + projectId);
+        }
+        this.lockChainOfProject(projectId);
+        if (this.getFirstPhaseByProjectId(projectId).isPresent()) {
+            return List.of();
+        }
+
+        List<Phase> phases = phaseRepository.saveAll(phaseTemplate.createUnlinkedPhases(projectId));
+        for (int i = 0; i < phases.size(); i++) {
+            phases.get(i).setPreviousPhase(i > 0 ? phases.get(i - 1) : null);
+            phases.get(i).setNextPhase(i < phases.size() - 1 ? phases.get(i + 1) : null);
+        }
+        List<Phase> initializedPhases = phaseRepository.saveAll(phases);
+        this.increasePhasesVersion(projectId);
+
+        eventPublisher.publishEvent(
+                new PhasesCreatedEvent(
+                        projectId,
+                        initializedPhases.stream().map(Phase::getId).toList()
+                )
+        );
+        return initializedPhases;
+    }
+
+    // every change to a phase changes the aggregate version the phase list of its project is tagged with
+    private void increasePhasesVersion(UUID projectId) {
+        projectDataOfPhaseRepository.incrementPhasesVersionByProjectId(projectId);
+    }
+
+    // the chain is rewired by several independent saves, so its writers have to take turns per project
+    private void lockChainOfProject(UUID projectId) {
+        projectLocks.lockForTransaction(projectId);
+        // neighbours are read from the database instead of the second-level cache, which may predate the lock
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.REFRESH);
+    }
+
+    // the phase may have been loaded (e.g. by an authorization check) before the lock was taken
+    private Phase getPhaseOfLockedChainById(UUID id) throws NoPhaseFoundException {
+        Phase phase = this.getPhaseById(id);
+        this.lockChainOfProject(phase.getProjectId());
+        try {
+            entityManager.refresh(phase);
+        } catch (EntityNotFoundException entityNotFoundException) {
+            throw new NoPhaseFoundException("could not find phase with id: " + id);
+        }
+        return phase;
+    }
+
+    private Boolean projectDataExists(UUID projectId) {
+        return existingProjectIds
+                .get(projectId, id -> projectDataOfPhaseRepository.existsByProjectId(id) ? Optional.of(true) : Optional.empty())
+                .isPresent();
+    }
+
     private Phase addPhase(Phase phase, UUID previousPhaseId) throws NoPhaseFoundException, UnrelatedPhaseException {
-        if (!projectDataOfPhaseRepository.existsByProjectId(phase.getProjectId())) {
+        if (!this.projectDataExists(phase.getProjectId())) {
             throw new NoProjectFoundException("could not find project with id: " + phase.getProjectId());
         }
 
@@ -157,6 +263,20 @@ public class PhaseDomainService {
         return this.getPhaseById(phaseId).getProjectId();
     }
 
+    // ordered by id, so all projects can be walked through page by page
+    public List<UUID> getProjectIdsAfter(UUID projectId, int limit) {
+        PageRequest pageRequest = PageRequest.of(0, limit);
+        return projectId == null
+                ? projectDataOfPhaseRepository.findProjectIds(pageRequest)
+                : projectDataOfPhaseRepository.findProjectIdsAfter(projectId, pageRequest);
+    }
+
+    public Long getPhasesVersionByProjectId(UUID projectId) throws NoProjectFoundException {
+        return projectDataOfPhaseRepository
+                .findPhasesVersionByProjectId(projectId)
+                .orElseThrow(() -> new NoProjectFoundException("could not find project with id: " + projectId));
+    }
+
 
     // update
 
@@ -164,16 +284,27 @@ public class PhaseDomainService {
         Phase phase = this.getPhaseById(id);
         phase.setName(name);
         phaseRepository.save(phase);
+        this.increasePhasesVersion(phase.getProjectId());
     }
 
-    public void patchPhasePosition(UUID id, UUID previousPhaseId) throws PhaseException, NoPhaseFoundException {
-        Phase patchedPhase = this.getPhaseById(id);
+    public void patchPhasePosition(UUID id, Long expectedVersion, UUID previousPhaseId) throws PhaseException, NoPhaseFoundException, VersionConflictException {
+        Phase patchedPhase = this.getPhaseOfLockedChainById(id);
+        optimisticLockingTemplate.checkExpectedVersion(expectedVersion, patchedPhase.getVersion(), "phase with id: " + id);
         Phase oldNextPhase = patchedPhase.getNextPhase();
         Phase oldPreviousPhase = patchedPhase.getPreviousPhase();
 
         this.removePhaseFromCurrentPosition(patchedPhase);
         this.addPhase(patchedPhase, previousPhaseId);
 
+        // up to five phases of the chain are changed, a concurrent change to any of them is a conflict
+        optimisticLockingTemplate.flushOrThrowConflict(
+                phaseRepository::flush,
+                () -> phaseRepository.findVersionById(id),
+                () -> new NoPhaseFoundException("could not find phase with id: " + id),
+                "phase with id: " + id + " or one of its neighbours"
+        );
+        this.increasePhasesVersion(patchedPhase.getProjectId());
+
         // up to three positions updated -> up to three events published
         List<PhasePositionUpdatedEvent> events = new ArrayList<>();
         events.add(new PhasePositionUpdatedEvent(patchedPhase.getId(), previousPhaseId, patchedPhase.getProjectId()));
@@ -187,10 +318,36 @@ public class PhaseDomainService {
     }
 
 
+    // the phases are locked before the tickets are counted: a concurrent ticket change has either not
+    // been counted and not touched the phase yet, or the lock waits until it is committed.
+    // returns the drift (actual minus recorded count) of every repaired phase
+    public Map<UUID, Integer> reconcileTicketCounts(UUID projectId, Function<UUID, Map<UUID, Long>> countTicketsByPhaseId) {
+        List<Phase> phases = phaseRepository.findForUpdateByProjectId(projectId);
+        Map<UUID, Long> actualTicketCounts = countTicketsByPhaseId.apply(projectId);
+
+        Map<UUID, Integer> drifts = new HashMap<>();
+        for (Phase phase : phases) {
+            int actualTicketCount = actualTicketCounts.getOrDefault(phase.getId(), 0L).intValue();
+            if (actualTicketCount != phase.getTicketCount()) {
+                drifts.put(phase.getId(), actualTicketCount - phase.getTicketCount());
+            }
+        }
+
+        // repaired in the database, which also bumps the version of every repaired phase and of the phase list
+        if (!drifts.isEmpty()) {
+            drifts.keySet().forEach(phaseId ->
+                    phaseRepository.updateTicketCountById(phaseId, actualTicketCounts.getOrDefault(phaseId, 0L).intValue())
+            );
+            this.increasePhasesVersion(projectId);
+        }
+        return drifts;
+    }
+
+
     // delete
 
     public void deleteById(UUID id) throws NoPhaseFoundException, LastPhaseException {
-        Phase phase = this.getPhaseById(id);
+        Phase phase = this.getPhaseOfLockedChainById(id);
         if (phase.isFirst() && phase.isLast()) {
             throw new LastPhaseException(
                     "The phase with id: " + phase.getId() +
@@ -209,6 +366,7 @@ public class PhaseDomainService {
 
         this.removePhaseFromCurrentPosition(phase);
         phaseRepository.removeById(id);
+        this.increasePhasesVersion(phase.getProjectId());
         eventPublisher.publishEvent(new PhaseDeletedEvent(phase.getId(), phase.getProjectId()));
         if (nextPhaseId != null) {
             eventPublisher.publishEvent(
@@ -239,11 +397,35 @@ public class PhaseDomainService {
         phaseRepository.save(phase);
     }
 
-    public void deletePhasesByProjectId(UUID projectId) {
-        List<Phase> deletedPhases = phaseRepository.deleteByProjectId(projectId); // bypasses last phase check
-        deletedPhases.forEach( phase ->
-                eventPublisher.publishEvent(new PhaseDeletedEvent(phase.getId(), phase.getProjectId()))
+    // bypasses last phase check, one transaction per chunk
+    private void deletePhasesByProjectId(UUID projectId) {
+        transactionTemplate.executeWithoutResult(status -> phaseRepository.unlinkByProjectId(projectId));
+
+        List<Phase> deletedPhases;
+        do {
+            deletedPhases = transactionTemplate.execute(status -> this.deletePhaseChunkByProjectId(projectId));
+            deletedPhases.forEach(phase ->
+                    eventPublisher.publishEvent(new PhaseDeletedEvent(phase.getId(), phase.getProjectId()))
+            );
+            eventPublisher.publishEvent(
+                    new ProjectPhasesDeletedEvent(projectId, deletedPhases.size(), deletedPhases.isEmpty())
+            );
+        } while (!deletedPhases.isEmpty());
+    }
+
+    private List<Phase> deletePhaseChunkByProjectId(UUID projectId) {
+        List<Phase> chunk = phaseRepository.findByProjectId(projectId, PageRequest.of(0, deletionChunkSize));
+        phaseRepository.deleteAll(chunk);
+        return chunk;
+    }
+
+    private void addProjectDataIfAbsent(UUID projectId) {
+        replicaInserts.insertIfAbsent(
+                () -> projectDataOfPhaseRepository.existsByProjectId(projectId),
+                () -> projectDataOfPhaseRepository.saveAndFlush(new ProjectDataOfPhase(projectId)),
+                "project data of project " + projectId
         );
+        existingProjectIds.put(projectId, true);
     }
 
 
@@ -252,34 +434,26 @@ public class PhaseDomainService {
     @EventListener
     @Async
     public void handleDefaultProjectCreated(DefaultProjectCreatedEvent defaultProjectCreatedEvent) {
-        projectDataOfPhaseRepository.save(new ProjectDataOfPhase(defaultProjectCreatedEvent.getProjectId()));
-
-        Phase backlog = new Phase(defaultProjectCreatedEvent.getProjectId(), "BACKLOG", null, null);
-        Phase doing = new Phase(defaultProjectCreatedEvent.getProjectId(), "DOING", null, null);
-        Phase review = new Phase(defaultProjectCreatedEvent.getProjectId(), "REVIEW", null, null);
-        Phase done = new Phase(defaultProjectCreatedEvent.getProjectId(), "DONE", null, null);
-
-        this.createPhase(done, null);
-        this.createPhase(review, null);
-        this.createPhase(doing, null);
-        this.createPhase(backlog, null);
+        this.addProjectDataIfAbsent(defaultProjectCreatedEvent.getProjectId());
+        this.createPhasesFromTemplate(defaultProjectCreatedEvent.getProjectId(), defaultProjectTemplate);
     }
 
     @EventListener
     @Async
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void handleProjectDeletedEvent(ProjectDeletedEvent projectDeletedEvent) {
-        projectDataOfPhaseRepository.deleteByProjectId(projectDeletedEvent.getProjectId());
+        transactionTemplate.executeWithoutResult(status ->
+                projectDataOfPhaseRepository.deleteByProjectId(projectDeletedEvent.getProjectId())
+        );
+        existingProjectIds.evict(projectDeletedEvent.getProjectId());
         this.deletePhasesByProjectId(projectDeletedEvent.getProjectId());
     }
 
     @EventListener
     @Async
     public void handleProjectCreatedEvent(ProjectCreatedEvent projectCreatedEvent) {
-        projectDataOfPhaseRepository.save(new ProjectDataOfPhase(projectCreatedEvent.getProjectId()));
-        this.createPhase(
-                new Phase(projectCreatedEvent.getProjectId(), "BACKLOG", null, null),
-                null
-        );
+        this.addProjectDataIfAbsent(projectCreatedEvent.getProjectId());
+        this.createPhasesFromTemplate(projectCreatedEvent.getProjectId(), projectTemplate);
     }
 
     @EventListener
@@ -290,8 +464,8 @@ public class PhaseDomainService {
                     new ImpossibleException("The project with id: " + ticketCreatedEvent.getProjectId() + " has no phases.")
                 );
 
-        firstPhaseOfProject.increaseTicketCount();
-        phaseRepository.save(firstPhaseOfProject);
+        this.addToTicketCount(firstPhaseOfProject, 1);
+        this.increasePhasesVersion(firstPhaseOfProject.getProjectId());
     }
 
     @EventListener
@@ -309,17 +483,31 @@ public class PhaseDomainService {
             );
         }
 
-        oldPhase.decreaseTicketCount();
-        newPhase.increaseTicketCount();
-
-        phaseRepository.save(oldPhase);
-        phaseRepository.save(newPhase);
+        // always in the same order, so two tickets moved in opposite directions do not deadlock on the rows
+        if (oldPhase.getId().compareTo(newPhase.getId()) < 0) {
+            this.addToTicketCount(oldPhase, -1);
+            this.addToTicketCount(newPhase, 1);
+        } else {
+            this.addToTicketCount(newPhase, 1);
+            this.addToTicketCount(oldPhase, -1);
+        }
+        this.increasePhasesVersion(newPhase.getProjectId());
     }
 
     @EventListener
     public void handleTicketDeletedEvent(TicketDeletedEvent ticketDeletedEvent) {
         Phase phase = this.getPhaseById(ticketDeletedEvent.getPhaseId());
-        phase.decreaseTicketCount();
-        phaseRepository.save(phase);
+        this.addToTicketCount(phase, -1);
+        this.increasePhasesVersion(phase.getProjectId());
+    }
+
+    // the ticket listeners run in the transaction of the ticket change: adjusting the count in the database instead of
+    // saving the loaded phase keeps concurrent ticket changes of one phase from failing on its version.
+    // the phase is refreshed afterwards, so later reads in the same transaction see the new count and version
+    private void addToTicketCount(Phase phase, int delta) throws PhaseException {
+        if (phaseRepository.addToTicketCountById(phase.getId(), delta) == 0) {
+            throw new PhaseException("ticketCount of phase with id: " + phase.getId() + " cannot be negative");
+        }
+        entityManager.refresh(phase);
     }
 }
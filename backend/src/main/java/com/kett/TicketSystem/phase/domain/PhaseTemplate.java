@@ -0,0 +1,30 @@
+package com.kett.TicketSystem.phase.domain;
+
+import com.kett.TicketSystem.phase.domain.exceptions.PhaseException;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+// ordered phase names a new project starts with, from first to last
+public class PhaseTemplate {
+    @Getter
+    private final List<String> phaseNames;
+
+    public PhaseTemplate(List<String> phaseNames) {
+        if (phaseNames == null || phaseNames.isEmpty()) {
+            throw new PhaseException("a phase template needs at least one phase");
+        }
+        if (phaseNames.stream().anyMatch(phaseName -> phaseName == null || phaseName.isBlank())) {
+            throw new PhaseException("the phase names of a template must not be blank");
+        }
+        this.phaseNames = phaseNames.stream().map(String::trim).toList();
+    }
+
+    public List<Phase> createUnlinkedPhases(UUID projectId) {
+        return phaseNames
+                .stream()
+                .map(phaseName -> new Phase(projectId, phaseName, null, null))
+                .toList();
+    }
+}
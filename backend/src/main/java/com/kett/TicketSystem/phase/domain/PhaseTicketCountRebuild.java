@@ -0,0 +1,135 @@
+package com.kett.TicketSystem.phase.domain;
+
+import com.kett.TicketSystem.common.eventlog.EventLogRecord;
+import com.kett.TicketSystem.common.eventlog.ReplicaRebuild;
+import com.kett.TicketSystem.phase.repository.PhaseRepository;
+import com.kett.TicketSystem.phase.repository.ProjectDataOfPhaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// counts the tickets per phase while replaying, the counts are written once all partitions are done.
+// only projects whose creation is in the log are counted, the log may have been enabled after the others
+// were created and would undercount them; their phases keep the counts they have
+@Component
+public class PhaseTicketCountRebuild implements ReplicaRebuild {
+    // concurrent maps do not take null values
+    private static final UUID NO_PREVIOUS_PHASE = new UUID(0, 0);
+
+    private final PhaseRepository phaseRepository;
+    private final ProjectDataOfPhaseRepository projectDataOfPhaseRepository;
+
+    // projectId -> phaseId -> previousPhaseId of the projects created within the log,
+    // only touched by the thread replaying the partition of the project
+    private final Map<UUID, Map<UUID, UUID>> phaseChains = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> ticketCounts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PhaseTicketCountRebuild(PhaseRepository phaseRepository, ProjectDataOfPhaseRepository projectDataOfPhaseRepository) {
+        this.phaseRepository = phaseRepository;
+        this.projectDataOfPhaseRepository = projectDataOfPhaseRepository;
+    }
+
+    @Override
+    public String getName() {
+        return "phase";
+    }
+
+    @Override
+    public Set<String> getConsumedEvents() {
+        return Set.of(
+                "ProjectCreatedEvent",
+                "DefaultProjectCreatedEvent",
+                "ProjectDeletedEvent",
+                "PhaseCreatedEvent",
+                "PhasesCreatedEvent",
+                "PhasePositionUpdatedEvent",
+                "PhaseDeletedEvent",
+                "TicketCreatedEvent",
+                "TicketPhaseUpdatedEvent",
+                "TicketDeletedEvent"
+        );
+    }
+
+    @Override
+    public void reset() {
+        phaseChains.clear();
+        ticketCounts.clear();
+    }
+
+    @Override
+    public void apply(EventLogRecord eventLogRecord) {
+        UUID projectId = eventLogRecord.getUuid("projectId");
+        String type = eventLogRecord.getType();
+        if (type.equals("ProjectCreatedEvent") || type.equals("DefaultProjectCreatedEvent")) {
+            phaseChains.put(projectId, new ConcurrentHashMap<>());
+            return;
+        }
+        Map<UUID, UUID> phaseChain = phaseChains.get(projectId);
+        if (phaseChain == null) {
+            return;
+        }
+        switch (type) {
+            case "ProjectDeletedEvent" -> {
+                phaseChain.keySet().forEach(ticketCounts::remove);
+                phaseChains.remove(projectId);
+            }
+            case "PhaseCreatedEvent", "PhasePositionUpdatedEvent" -> phaseChain.put(
+                    eventLogRecord.getUuid("phaseId"),
+                    this.toChainValue(eventLogRecord.getUuid("previousPhaseId"))
+            );
+            case "PhasesCreatedEvent" -> {
+                UUID previousPhaseId = null;
+                for (UUID phaseId : eventLogRecord.getUuids("phaseIds")) {
+                    phaseChain.put(phaseId, this.toChainValue(previousPhaseId));
+                    previousPhaseId = phaseId;
+                }
+            }
+            case "PhaseDeletedEvent" -> {
+                phaseChain.remove(eventLogRecord.getUuid("phaseId"));
+                ticketCounts.remove(eventLogRecord.getUuid("phaseId"));
+            }
+            case "TicketCreatedEvent" -> {
+                // events logged before the phase was part of the event are put into the first phase, like the ticket was
+                UUID phaseId = eventLogRecord.getUuid("phaseId");
+                if (phaseId == null) {
+                    phaseId = phaseChain.entrySet().stream()
+                            .filter(phase -> phase.getValue().equals(NO_PREVIOUS_PHASE))
+                            .map(Map.Entry::getKey)
+                            .findFirst()
+                            .orElse(null);
+                }
+                if (phaseId != null) {
+                    ticketCounts.merge(phaseId, 1, Integer::sum);
+                }
+            }
+            case "TicketPhaseUpdatedEvent" -> {
+                ticketCounts.merge(eventLogRecord.getUuid("oldPhaseId"), -1, Integer::sum);
+                ticketCounts.merge(eventLogRecord.getUuid("newPhaseId"), 1, Integer::sum);
+            }
+            case "TicketDeletedEvent" -> ticketCounts.merge(eventLogRecord.getUuid("phaseId"), -1, Integer::sum);
+            default -> {
+            }
+        }
+    }
+
+    private UUID toChainValue(UUID previousPhaseId) {
+        return previousPhaseId == null ? NO_PREVIOUS_PHASE : previousPhaseId;
+    }
+
+    // every remaining phase of a counted project gets its count, phases without tickets are set to zero
+    @Override
+    public void complete() {
+        phaseChains.forEach((projectId, phaseChain) -> {
+            phaseChain.keySet().forEach(phaseId ->
+                    phaseRepository.updateTicketCountById(phaseId, Math.max(0, ticketCounts.getOrDefault(phaseId, 0)))
+            );
+            projectDataOfPhaseRepository.incrementPhasesVersionByProjectId(projectId);
+        });
+        this.reset();
+    }
+}
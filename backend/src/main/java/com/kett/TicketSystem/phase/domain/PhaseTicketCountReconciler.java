@@ -0,0 +1,93 @@
+package com.kett.TicketSystem.phase.domain;
+
+import com.kett.TicketSystem.ticket.domain.TicketDomainService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Phase.ticketCount is only adjusted by events, a lost or doubled event makes it drift from the ticket rows.
+// every run reconciles the next few projects, one transaction per project, and continues where the last run stopped
+@Component
+public class PhaseTicketCountReconciler {
+    private final Logger logger = LoggerFactory.getLogger(PhaseTicketCountReconciler.class);
+    private final PhaseDomainService phaseDomainService;
+    private final TicketDomainService ticketDomainService;
+    private final int projectsPerRun;
+    private final Counter reconciledProjects;
+    private final Counter repairedPhases;
+    private final DistributionSummary drift;
+
+    private UUID lastProjectId;
+
+    @Autowired
+    public PhaseTicketCountReconciler(
+            PhaseDomainService phaseDomainService,
+            TicketDomainService ticketDomainService,
+            MeterRegistry meterRegistry,
+            @Value("${phase.reconciliation.projects-per-run:50}") int projectsPerRun
+    ) {
+        this.phaseDomainService = phaseDomainService;
+        this.ticketDomainService = ticketDomainService;
+        this.projectsPerRun = projectsPerRun;
+        this.reconciledProjects = Counter
+                .builder("phase.ticket-count.reconciled.projects")
+                .description("Number of projects whose phase ticket counts were reconciled")
+                .register(meterRegistry);
+        this.repairedPhases = Counter
+                .builder("phase.ticket-count.repaired")
+                .description("Number of phases whose ticket count drifted and was repaired")
+                .register(meterRegistry);
+        this.drift = DistributionSummary
+                .builder("phase.ticket-count.drift")
+                .description("Absolute difference between recorded and actual ticket count of a repaired phase")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${phase.reconciliation.interval:60000}",
+            fixedDelayString = "${phase.reconciliation.interval:60000}"
+    )
+    public void scheduledRun() {
+        try {
+            this.run();
+        } catch (RuntimeException exception) {
+            logger.error("phase ticket count reconciliation failed: " + exception.getMessage());
+        }
+    }
+
+    // returns the number of repaired phases
+    public synchronized int run() {
+        List<UUID> projectIds = phaseDomainService.getProjectIdsAfter(lastProjectId, projectsPerRun);
+        if (projectIds.isEmpty()) {
+            lastProjectId = null;   // all projects done, the next run starts over
+            return 0;
+        }
+
+        int numOfRepaired = 0;
+        for (UUID projectId : projectIds) {
+            Map<UUID, Integer> drifts = phaseDomainService.reconcileTicketCounts(
+                    projectId,
+                    ticketDomainService::getTicketCountsByPhaseIdOfProject
+            );
+            reconciledProjects.increment();
+            if (!drifts.isEmpty()) {
+                logger.warn("repaired drifted ticket counts of phases in project " + projectId + ": " + drifts);
+                drifts.values().forEach(phaseDrift -> drift.record(Math.abs(phaseDrift)));
+                repairedPhases.increment(drifts.size());
+                numOfRepaired += drifts.size();
+            }
+            lastProjectId = projectId;
+        }
+        return numOfRepaired;
+    }
+}
@@ -6,6 +6,9 @@ import javax.persistence.*;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "uk_project_data_of_phase_project", columnList = "projectId", unique = true)
+})
 @Getter
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -19,6 +22,9 @@ public class ProjectDataOfPhase {
     @Column(length = 16)
     UUID projectId;
 
+    // aggregate version of the phases of the project, only changed by the repository
+    Long phasesVersion = 0L;
+
     public ProjectDataOfPhase(@NonNull UUID projectId) {
         this.projectId = projectId;
     }
@@ -0,0 +1,20 @@
+package com.kett.TicketSystem.phase.domain.events;
+
+import com.kett.TicketSystem.common.domainprimitives.DomainEvent;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+// published once for a whole phase template; phaseIds are ordered from the first to the last phase
+@Getter
+public class PhasesCreatedEvent extends DomainEvent {
+    private final UUID projectId;
+    private final List<UUID> phaseIds;
+
+    public PhasesCreatedEvent(UUID projectId, List<UUID> phaseIds) {
+        super();
+        this.projectId = projectId;
+        this.phaseIds = List.copyOf(phaseIds);
+    }
+}
@@ -0,0 +1,20 @@
+package com.kett.TicketSystem.phase.domain.events;
+
+import com.kett.TicketSystem.common.domainprimitives.DomainEvent;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+public class ProjectPhasesDeletedEvent extends DomainEvent {
+    private final UUID projectId;
+    private final Integer numOfDeletedPhases;
+    private final Boolean isFinished;
+
+    public ProjectPhasesDeletedEvent(UUID projectId, Integer numOfDeletedPhases, Boolean isFinished) {
+        super();
+        this.projectId = projectId;
+        this.numOfDeletedPhases = numOfDeletedPhases;
+        this.isFinished = isFinished;
+    }
+}
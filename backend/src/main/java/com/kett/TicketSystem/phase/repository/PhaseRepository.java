@@ -1,9 +1,17 @@
 package com.kett.TicketSystem.phase.repository;
 
 import com.kett.TicketSystem.phase.domain.Phase;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -11,8 +19,37 @@ import java.util.UUID;
 @Repository
 public interface PhaseRepository extends JpaRepository<Phase, UUID> {
     List<Phase> findByProjectId(UUID projectId);
+    List<Phase> findByProjectId(UUID projectId, Pageable pageable);
+
+    // ticket changes adjust the count in their own transaction, so the reconciliation waits for them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Phase> findForUpdateByProjectId(UUID projectId);
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "phase-chain")
+    })
     Optional<Phase> findByProjectIdAndPreviousPhaseIsNull(UUID projectId);
 
+    // the phases of a project reference each other, so they are unlinked before deleting them in chunks
+    @Modifying
+    @Query("update Phase p set p.previousPhase = null, p.nextPhase = null where p.projectId = :projectId")
+    Integer unlinkByProjectId(@Param("projectId") UUID projectId);
+
+    // ticket changes adjust the count in the database, so concurrent ones in one phase do not overwrite each other.
+    // the count never goes below zero, a phase without a matching row is left unchanged
+    @Modifying
+    @Query("update Phase p set p.ticketCount = p.ticketCount + :delta, p.version = coalesce(p.version, 0) + 1 " +
+            "where p.id = :id and p.ticketCount + :delta >= 0")
+    Integer addToTicketCountById(@Param("id") UUID id, @Param("delta") Integer delta);
+
+    // used by the rebuild and the reconciliation, the count is replaced instead of adjusted. the version tags the
+    // phase, so it changes with the count; the ticket listeners adjust the count in the database and are not affected
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Phase p set p.ticketCount = :ticketCount, p.version = coalesce(p.version, 0) + 1 where p.id = :id")
+    Integer updateTicketCountById(@Param("id") UUID id, @Param("ticketCount") Integer ticketCount);
+
+    @Query("select p.version from Phase p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
     Long removeById(UUID id);
-    List<Phase> deleteByProjectId(UUID projectId);
 }
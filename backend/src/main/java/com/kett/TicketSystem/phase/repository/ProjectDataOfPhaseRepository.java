@@ -1,15 +1,39 @@
 package com.kett.TicketSystem.phase.repository;
 
 import com.kett.TicketSystem.phase.domain.consumedData.ProjectDataOfPhase;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ProjectDataOfPhaseRepository extends JpaRepository<ProjectDataOfPhase, UUID> {
-    ProjectDataOfPhase findByProjectId(UUID projectId);
+    Optional<ProjectDataOfPhase> findByProjectId(UUID projectId);
     Integer deleteByProjectId(UUID projectId);
 
     Boolean existsByProjectId(UUID projectId);
+
+    @Query("select p.projectId from ProjectDataOfPhase p order by p.projectId")
+    List<UUID> findProjectIds(Pageable pageable);
+
+    @Query("select p.projectId from ProjectDataOfPhase p where p.projectId > :projectId order by p.projectId")
+    List<UUID> findProjectIdsAfter(@Param("projectId") UUID projectId, Pageable pageable);
+
+    @Query("select coalesce(p.phasesVersion, 0) from ProjectDataOfPhase p where p.projectId = :projectId")
+    Optional<Long> findPhasesVersionByProjectId(@Param("projectId") UUID projectId);
+
+    // atomic in the database, so concurrent changes to the phases of a project never share a version
+    @Modifying
+    @Query("update ProjectDataOfPhase p set p.phasesVersion = coalesce(p.phasesVersion, 0) + 1 where p.projectId = :projectId")
+    Integer incrementPhasesVersionByProjectId(@Param("projectId") UUID projectId);
+
+    @Modifying
+    @Query("update ProjectDataOfPhase p set p.phasesVersion = coalesce(p.phasesVersion, 0) + 1")
+    Integer incrementAllPhasesVersions();
 }
@@ -2,10 +2,12 @@ package com.kett.TicketSystem.project.application;
 
 import com.kett.TicketSystem.common.DtoMapper;
 import com.kett.TicketSystem.common.domainprimitives.EmailAddress;
+import com.kett.TicketSystem.project.application.dto.ProjectDeletionResponseDto;
 import com.kett.TicketSystem.project.application.dto.ProjectPatchDto;
 import com.kett.TicketSystem.project.application.dto.ProjectPostDto;
 import com.kett.TicketSystem.project.application.dto.ProjectResponseDto;
 import com.kett.TicketSystem.project.domain.Project;
+import com.kett.TicketSystem.project.domain.ProjectDeletion;
 import com.kett.TicketSystem.project.domain.ProjectDomainService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -35,6 +37,13 @@ public class ProjectApplicationService {
         return dtoMapper.mapProjectToProjectResponseDto(project);
     }
 
+    @PreAuthorize("hasAnyAuthority(" +
+            "'ROLE_PROJECT_ADMIN_'.concat(#id), " +
+            "'ROLE_PROJECT_MEMBER_'.concat(#id))")
+    public Long fetchProjectVersionById(UUID id) {
+        return projectDomainService.getProjectById(id).getVersion();
+    }
+
     public ProjectResponseDto addProject(ProjectPostDto projectPostDto, EmailAddress emailAddress) {
         Project project = projectDomainService.addProject(
                 dtoMapper.mapProjectPostDtoToProject(projectPostDto),
@@ -44,8 +53,16 @@ public class ProjectApplicationService {
     }
 
     @PreAuthorize("hasAuthority('ROLE_PROJECT_ADMIN_'.concat(#id))")
-    public void deleteProjectById(UUID id) {
-        projectDomainService.deleteProjectById(id);
+    public ProjectDeletionResponseDto deleteProjectById(UUID id, EmailAddress emailAddress) {
+        ProjectDeletion projectDeletion = projectDomainService.deleteProjectById(id, emailAddress);
+        return dtoMapper.mapProjectDeletionToProjectDeletionResponseDto(projectDeletion);
+    }
+
+    // the memberships of the project are purged during the deletion, so only the requester is authorized
+    @PreAuthorize("hasAuthority('ROLE_USER_'.concat(@projectDomainService.getDeletionRequesterId(#id)))")
+    public ProjectDeletionResponseDto fetchProjectDeletionById(UUID id) {
+        ProjectDeletion projectDeletion = projectDomainService.getProjectDeletionByProjectId(id);
+        return dtoMapper.mapProjectDeletionToProjectDeletionResponseDto(projectDeletion);
     }
 
     @PreAuthorize("hasAuthority('ROLE_PROJECT_ADMIN_'.concat(#id))")
@@ -8,6 +8,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -27,14 +28,24 @@ public class ProjectController {
 
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProjectResponseDto> getProjectById(@PathVariable UUID id) {
+    public ResponseEntity<ProjectResponseDto> getProjectById(@PathVariable UUID id, WebRequest webRequest) {
+        // an unchanged project is answered with 304 before it is mapped and serialized
+        if (webRequest.checkNotModified(String.valueOf(projectApplicationService.fetchProjectVersionById(id)))) {
+            return null;
+        }
         ProjectResponseDto projectResponseDto = projectApplicationService.fetchProjectById(id);
         return new ResponseEntity<>(projectResponseDto, HttpStatus.OK);
     }
 
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<ProjectDeletionResponseDto> getProjectDeletionById(@PathVariable UUID id) {
+        ProjectDeletionResponseDto projectDeletionResponseDto = projectApplicationService.fetchProjectDeletionById(id);
+        return new ResponseEntity<>(projectDeletionResponseDto, HttpStatus.OK);
+    }
+
     @PostMapping
     public ResponseEntity<ProjectResponseDto> postProject(@RequestBody ProjectPostDto projectPostDto) {
-        EmailAddress userEmail = EmailAddress.fromString(SecurityContextHolder.getContext().getAuthentication().getName());
+        EmailAddress userEmail = EmailAddress.fromTrustedString(SecurityContextHolder.getContext().getAuthentication().getName());
         ProjectResponseDto projectResponseDto = projectApplicationService.addProject(projectPostDto, userEmail);
         URI returnURI = ServletUriComponentsBuilder
                 .fromCurrentRequest()
@@ -54,8 +65,18 @@ public class ProjectController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteProject(@PathVariable UUID id) {
-        projectApplicationService.deleteProjectById(id);
-        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    public ResponseEntity<ProjectDeletionResponseDto> deleteProject(@PathVariable UUID id) {
+        EmailAddress userEmail = EmailAddress.fromTrustedString(SecurityContextHolder.getContext().getAuthentication().getName());
+        ProjectDeletionResponseDto projectDeletionResponseDto = projectApplicationService.deleteProjectById(id, userEmail);
+        URI statusURI = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .path("/deletion")
+                .build()
+                .toUri();
+
+        return ResponseEntity
+                .accepted()
+                .location(statusURI)
+                .body(projectDeletionResponseDto);
     }
 }
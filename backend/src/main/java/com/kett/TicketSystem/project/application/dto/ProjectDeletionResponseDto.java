@@ -0,0 +1,21 @@
+package com.kett.TicketSystem.project.application.dto;
+
+import com.kett.TicketSystem.project.domain.ProjectDeletionState;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProjectDeletionResponseDto {
+    private UUID projectId;
+    private ProjectDeletionState state;
+    private LocalDateTime creationTime;
+    private LocalDateTime finishTime;
+    private Long numOfDeletedMemberships;
+    private Long numOfDeletedPhases;
+    private Long numOfDeletedTickets;
+}
@@ -0,0 +1,48 @@
+package com.kett.TicketSystem.project.domain;
+
+import com.kett.TicketSystem.project.domain.exceptions.ProjectException;
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// one row per user, so a default project is never provisioned twice; projectId stays null until it is provisioned
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_default_project_provisioning_project_creation", columnList = "projectId, creationTime")
+})
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DefaultProjectProvisioning {
+    @Id
+    @Getter
+    @Column(length = 16)
+    private UUID userId;
+
+    @Getter
+    private LocalDateTime creationTime;
+
+    @Getter
+    @Column(length = 16)
+    private UUID projectId;
+
+    public DefaultProjectProvisioning(UUID userId) {
+        if (userId == null) {
+            throw new ProjectException("userId must not be null");
+        }
+        this.userId = userId;
+        this.creationTime = LocalDateTime.now();
+    }
+
+    public Boolean isProvisioned() {
+        return this.projectId != null;
+    }
+
+    public void setProjectId(UUID projectId) {
+        if (projectId == null) {
+            throw new ProjectException("projectId must not be null");
+        }
+        this.projectId = projectId;
+    }
+}
@@ -0,0 +1,50 @@
+package com.kett.TicketSystem.project.domain;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// provisions the default projects requested at signup in batches, off the registration path
+@Component
+public class DefaultProjectProvisioningJob {
+    private final Logger logger = LoggerFactory.getLogger(DefaultProjectProvisioningJob.class);
+    private final ProjectDomainService projectDomainService;
+    private final int batchSize;
+    private final Counter provisionedProjects;
+
+    @Autowired
+    public DefaultProjectProvisioningJob(
+            ProjectDomainService projectDomainService,
+            MeterRegistry meterRegistry,
+            @Value("${project.default-provisioning.batch-size:100}") int batchSize
+    ) {
+        this.projectDomainService = projectDomainService;
+        this.batchSize = batchSize;
+        this.provisionedProjects = Counter
+                .builder("projects.default.provisioned")
+                .description("default projects provisioned for new users")
+                .register(meterRegistry);
+    }
+
+    // one batch per run, so a signup spike is worked off gradually instead of starving other work
+    @Scheduled(
+            initialDelayString = "${project.default-provisioning.interval:1000}",
+            fixedDelayString = "${project.default-provisioning.interval:1000}"
+    )
+    public void run() {
+        try {
+            int numOfProvisioned = projectDomainService.provisionDefaultProjects(batchSize);
+            provisionedProjects.increment(numOfProvisioned);
+            if (numOfProvisioned > 0) {
+                logger.debug("provisioned " + numOfProvisioned + " default projects");
+            }
+        } catch (RuntimeException exception) {
+            logger.error("default project provisioning failed: " + exception.getMessage());
+        }
+    }
+}
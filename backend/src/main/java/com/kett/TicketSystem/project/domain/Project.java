@@ -2,12 +2,16 @@ package com.kett.TicketSystem.project.domain;
 
 import com.kett.TicketSystem.project.domain.exceptions.ProjectException;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "project")
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Project {
@@ -18,6 +22,10 @@ public class Project {
     @Column(length = 16)
     private UUID id;
 
+    @Version
+    @Getter
+    private Long version;
+
     @Getter
     private String name;
 
@@ -30,6 +38,9 @@ public class Project {
     @Setter(AccessLevel.PROTECTED)
     private LocalDateTime creationTime;
 
+    @Getter
+    private Boolean isDeleting = false;
+
     public void setName(String name) {
         if (name == null || name.isEmpty()) {
             throw new ProjectException("name must not be null or empty");
@@ -38,6 +49,14 @@ public class Project {
         this.name = name;
     }
 
+    public Boolean isBeingDeleted() {
+        return Boolean.TRUE.equals(this.isDeleting);
+    }
+
+    public void markAsDeleting() {
+        this.isDeleting = true;
+    }
+
     public Project(String name, String description) {
         this.setName(name);
         this.description = description;
@@ -0,0 +1,94 @@
+package com.kett.TicketSystem.project.domain;
+
+import com.kett.TicketSystem.project.domain.exceptions.ProjectException;
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// tracks the purge of a project; each module reports its progress until all of them are finished
+@Entity
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ProjectDeletion {
+    @Id
+    @Getter
+    @Column(length = 16)
+    private UUID projectId;
+
+    @Getter
+    @Column(length = 16)
+    private UUID requesterId;
+
+    @Getter
+    private LocalDateTime creationTime;
+
+    @Getter
+    private LocalDateTime finishTime;
+
+    // a purge without any progress for a while was interrupted and is resumed
+    @Getter
+    private LocalDateTime lastActivityTime;
+
+    @Getter
+    private Long numOfDeletedMemberships = 0L;
+
+    @Getter
+    private Long numOfDeletedPhases = 0L;
+
+    @Getter
+    private Long numOfDeletedTickets = 0L;
+
+    @Getter
+    private Boolean membershipsDeleted = false;
+
+    @Getter
+    private Boolean phasesDeleted = false;
+
+    @Getter
+    private Boolean ticketsDeleted = false;
+
+    public ProjectDeletion(UUID projectId, UUID requesterId) {
+        if (projectId == null) {
+            throw new ProjectException("projectId must not be null");
+        }
+        this.projectId = projectId;
+        this.requesterId = requesterId;
+        this.creationTime = LocalDateTime.now();
+        this.lastActivityTime = this.creationTime;
+    }
+
+    public ProjectDeletionState getState() {
+        return this.isFinished() ? ProjectDeletionState.FINISHED : ProjectDeletionState.IN_PROGRESS;
+    }
+
+    public Boolean isFinished() {
+        return this.membershipsDeleted && this.phasesDeleted && this.ticketsDeleted;
+    }
+
+    public void recordDeletedMemberships(long numOfDeleted, boolean isFinished) {
+        this.numOfDeletedMemberships += numOfDeleted;
+        this.membershipsDeleted = this.membershipsDeleted || isFinished;
+        this.updateFinishTime();
+    }
+
+    public void recordDeletedPhases(long numOfDeleted, boolean isFinished) {
+        this.numOfDeletedPhases += numOfDeleted;
+        this.phasesDeleted = this.phasesDeleted || isFinished;
+        this.updateFinishTime();
+    }
+
+    public void recordDeletedTickets(long numOfDeleted, boolean isFinished) {
+        this.numOfDeletedTickets += numOfDeleted;
+        this.ticketsDeleted = this.ticketsDeleted || isFinished;
+        this.updateFinishTime();
+    }
+
+    private void updateFinishTime() {
+        this.lastActivityTime = LocalDateTime.now();
+        if (this.finishTime == null && this.isFinished()) {
+            this.finishTime = this.lastActivityTime;
+        }
+    }
+}
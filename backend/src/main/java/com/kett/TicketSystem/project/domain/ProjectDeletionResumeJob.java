@@ -0,0 +1,51 @@
+package com.kett.TicketSystem.project.domain;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// nothing else picks up a purge that stopped halfway, the project would stay marked as deleting forever
+@Component
+public class ProjectDeletionResumeJob {
+    private final Logger logger = LoggerFactory.getLogger(ProjectDeletionResumeJob.class);
+    private final ProjectDomainService projectDomainService;
+    private final Duration stallTimeout;
+    private final int batchSize;
+    private final Counter resumedDeletions;
+
+    @Autowired
+    public ProjectDeletionResumeJob(
+            ProjectDomainService projectDomainService,
+            MeterRegistry meterRegistry,
+            @Value("${project.deletion.resume.stall-timeout:10m}") Duration stallTimeout,
+            @Value("${project.deletion.resume.batch-size:100}") int batchSize
+    ) {
+        this.projectDomainService = projectDomainService;
+        this.stallTimeout = stallTimeout;
+        this.batchSize = batchSize;
+        this.resumedDeletions = Counter
+                .builder("projects.deletion.resumed")
+                .description("project purges published again after they stalled")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${project.deletion.resume.interval:60000}")
+    public void run() {
+        try {
+            int numOfResumed = projectDomainService.resumeStalledProjectDeletions(stallTimeout, batchSize);
+            resumedDeletions.increment(numOfResumed);
+            if (numOfResumed > 0) {
+                logger.info("resumed " + numOfResumed + " stalled project deletions");
+            }
+        } catch (RuntimeException exception) {
+            logger.error("resuming project deletions failed: " + exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.kett.TicketSystem.project.domain;
+
+public enum ProjectDeletionState {
+    IN_PROGRESS,
+    FINISHED
+}
@@ -1,41 +1,74 @@
 package com.kett.TicketSystem.project.domain;
 
 import com.kett.TicketSystem.common.domainprimitives.EmailAddress;
+import com.kett.TicketSystem.common.eventprocessing.ProcessedEvents;
 import com.kett.TicketSystem.common.exceptions.ImpossibleException;
 import com.kett.TicketSystem.common.exceptions.NoProjectFoundException;
+import com.kett.TicketSystem.common.userdirectory.UserDirectory;
 import com.kett.TicketSystem.membership.domain.events.LastProjectMemberDeletedEvent;
-import com.kett.TicketSystem.project.domain.consumedData.UserDataOfProject;
+import com.kett.TicketSystem.membership.domain.events.ProjectMembershipsDeletedEvent;
+import com.kett.TicketSystem.phase.domain.events.ProjectPhasesDeletedEvent;
 import com.kett.TicketSystem.project.domain.events.DefaultProjectCreatedEvent;
 import com.kett.TicketSystem.project.domain.events.ProjectCreatedEvent;
 import com.kett.TicketSystem.project.domain.events.ProjectDeletedEvent;
 import com.kett.TicketSystem.project.domain.exceptions.*;
+import com.kett.TicketSystem.project.repository.DefaultProjectProvisioningRepository;
+import com.kett.TicketSystem.project.repository.ProjectDeletionRepository;
 import com.kett.TicketSystem.project.repository.ProjectRepository;
-import com.kett.TicketSystem.project.repository.UserDataOfProjectRepository;
+import com.kett.TicketSystem.ticket.domain.events.ProjectTicketsDeletedEvent;
 import com.kett.TicketSystem.user.domain.events.UserCreatedEvent;
 import com.kett.TicketSystem.user.domain.events.UserDeletedEvent;
-import com.kett.TicketSystem.user.domain.events.UserPatchedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
 public class ProjectDomainService {
+    private static final String EVENT_CONSUMER = "project";
+
     private final ProjectRepository projectRepository;
-    private final UserDataOfProjectRepository userDataOfProjectRepository;
+    private final ProjectDeletionRepository projectDeletionRepository;
+    private final DefaultProjectProvisioningRepository defaultProjectProvisioningRepository;
+    private final UserDirectory userDirectory;
     private final ApplicationEventPublisher eventPublisher;
+    private final ProcessedEvents processedEvents;
+    private final TransactionTemplate requiresNewTransactionTemplate;
 
     @Autowired
-    public ProjectDomainService(ProjectRepository projectRepository, UserDataOfProjectRepository userDataOfProjectRepository, ApplicationEventPublisher eventPublisher) {
+    public ProjectDomainService(
+            ProjectRepository projectRepository,
+            ProjectDeletionRepository projectDeletionRepository,
+            DefaultProjectProvisioningRepository defaultProjectProvisioningRepository,
+            UserDirectory userDirectory,
+            ApplicationEventPublisher eventPublisher,
+            ProcessedEvents processedEvents,
+            PlatformTransactionManager transactionManager
+    ) {
         this.projectRepository = projectRepository;
-        this.userDataOfProjectRepository = userDataOfProjectRepository;
+        this.projectDeletionRepository = projectDeletionRepository;
+        this.defaultProjectProvisioningRepository = defaultProjectProvisioningRepository;
+        this.userDirectory = userDirectory;
         this.eventPublisher = eventPublisher;
+        this.processedEvents = processedEvents;
+        this.requiresNewTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     // create
@@ -47,12 +80,38 @@ public class ProjectDomainService {
         return initializedProject;
     }
 
-    private UUID getUserIdByUserEmailAddress(EmailAddress emailAddress) {
-        List<UserDataOfProject> userData = userDataOfProjectRepository.findByUserEmailEquals(emailAddress);
-        if (userData.isEmpty()) {
-            throw new ImpossibleException("no user data found for user: " + emailAddress.toString());
+    // deduplicated per user, the project itself is created later by provisionDefaultProjects
+    public Boolean requestDefaultProject(UUID userId) {
+        if (defaultProjectProvisioningRepository.existsById(userId)) {
+            return false;
+        }
+        defaultProjectProvisioningRepository.save(new DefaultProjectProvisioning(userId));
+        return true;
+    }
+
+    public Integer provisionDefaultProjects(int batchSize) {
+        List<DefaultProjectProvisioning> provisionings =
+                defaultProjectProvisioningRepository.findPendingForUpdate(PageRequest.of(0, batchSize));
+
+        for (DefaultProjectProvisioning provisioning : provisionings) {
+            Project defaultProject = projectRepository.save(new Project(
+                    "Example Project",
+                    "This project was created automatically. Use it to get accustomed to everything."
+            ));
+            provisioning.setProjectId(defaultProject.getId());
         }
-        return userData.get(0).getUserId();
+        defaultProjectProvisioningRepository.saveAll(provisionings);
+
+        provisionings.forEach(provisioning ->
+                eventPublisher.publishEvent(new DefaultProjectCreatedEvent(provisioning.getProjectId(), provisioning.getUserId()))
+        );
+        return provisionings.size();
+    }
+
+    private UUID getUserIdByUserEmailAddress(EmailAddress emailAddress) {
+        return userDirectory
+                .findUserIdByEmail(emailAddress)
+                .orElseThrow(() -> new ImpossibleException("no user data found for user: " + emailAddress.toString()));
     }
 
 
@@ -61,9 +120,20 @@ public class ProjectDomainService {
     public Project getProjectById(UUID id) throws NoProjectFoundException {
         return projectRepository
                 .findById(id)
+                .filter(project -> !project.isBeingDeleted())
                 .orElseThrow(() -> new NoProjectFoundException("could not find project with id: " + id));
     }
 
+    public ProjectDeletion getProjectDeletionByProjectId(UUID projectId) throws NoProjectFoundException {
+        return projectDeletionRepository
+                .findByProjectId(projectId)
+                .orElseThrow(() -> new NoProjectFoundException("could not find deletion of project with id: " + projectId));
+    }
+
+    public UUID getDeletionRequesterId(UUID projectId) throws NoProjectFoundException {
+        return this.getProjectDeletionByProjectId(projectId).getRequesterId();
+    }
+
 
     // update
 
@@ -81,55 +151,135 @@ public class ProjectDomainService {
 
     // delete
 
-    public void deleteProjectById(UUID id) throws NoProjectFoundException {
-        Long numOfDeletedProjects = projectRepository.removeById(id);
+    public ProjectDeletion deleteProjectById(UUID id, EmailAddress requesterEmail) throws NoProjectFoundException {
+        return this.deleteProjectById(id, getUserIdByUserEmailAddress(requesterEmail));
+    }
+
+    // only marks the project; the modules purge their data in chunks and the project row is removed once all are finished.
+    // mark and deletion commit together, the purge only starts once they did: a rolled back deletion purges nothing
+    public ProjectDeletion deleteProjectById(UUID id, UUID requesterId) throws NoProjectFoundException {
+        Project project = projectRepository
+                .findForUpdateById(id)
+                .filter(existingProject -> !existingProject.isBeingDeleted())
+                .orElseThrow(() -> new NoProjectFoundException("could not delete because there was no project with id: " + id));
+        project.markAsDeleting();
+        projectRepository.save(project);
+
+        ProjectDeletion projectDeletion = projectDeletionRepository.save(new ProjectDeletion(id, requesterId));
+        this.publishAfterCommit(new ProjectDeletedEvent(id));
+        return projectDeletion;
+    }
+
+    private void publishAfterCommit(Object event) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventPublisher.publishEvent(event);
+            }
+        });
+    }
+
+    // Purges interrupted by a restart or a failed chunk are published again, the modules continue with what is
+    // left and report their progress as before. The claim is committed first, so no other instance resumes it too.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int resumeStalledProjectDeletions(Duration stallTimeout, int batchSize) {
+        LocalDateTime stalledBefore = LocalDateTime.now().minus(stallTimeout);
+        List<UUID> stalledProjectIds = projectDeletionRepository.findStalledProjectIds(stalledBefore, PageRequest.of(0, batchSize));
 
-        if (numOfDeletedProjects == 0) {
-            throw new NoProjectFoundException("could not delete because there was no project with id: " + id);
-        } else if (numOfDeletedProjects > 1) {
-            throw new ImpossibleException(
-                    "!!! This should not happen. " +
-                    "Multiple projects were deleted when deleting project with id: " + id
+        int numOfResumed = 0;
+        for (UUID projectId : stalledProjectIds) {
+            Integer numOfClaimed = requiresNewTransactionTemplate.execute(status ->
+                    projectDeletionRepository.claimStalled(projectId, stalledBefore, LocalDateTime.now())
             );
-        } else {
-            eventPublisher.publishEvent(new ProjectDeletedEvent(id));
+            if (numOfClaimed != null && numOfClaimed == 1) {
+                eventPublisher.publishEvent(new ProjectDeletedEvent(projectId));
+                numOfResumed++;
+            }
+        }
+        return numOfResumed;
+    }
+
+    private void recordDeletionProgress(UUID projectId, Consumer<ProjectDeletion> progress) {
+        Optional<ProjectDeletion> existingProjectDeletion = projectDeletionRepository.findForUpdateByProjectId(projectId);
+        if (existingProjectDeletion.isEmpty()) {
+            return; // the purge was not requested through this module
+        }
+
+        ProjectDeletion projectDeletion = existingProjectDeletion.get();
+        Boolean wasFinished = projectDeletion.isFinished();
+        progress.accept(projectDeletion);
+        projectDeletionRepository.save(projectDeletion);
+
+        if (!wasFinished && projectDeletion.isFinished()) {
+            Long numOfDeletedProjects = projectRepository.removeById(projectId);
+            if (numOfDeletedProjects > 1) {
+                throw new ImpossibleException(
+                        "!!! This should not happen. " +
+                        "Multiple projects were deleted when deleting project with id: " + projectId
+                );
+            }
         }
     }
 
 
     // event listeners
 
+    // runs in the signup transaction, so a request exists exactly for the users that were committed
     @EventListener
-    @Async
     public void handleUserCreated(UserCreatedEvent userCreatedEvent) {
-        userDataOfProjectRepository.save(new UserDataOfProject(userCreatedEvent.getUserId(), userCreatedEvent.getEmailAddress()));
-        Project defaultProject = new Project(
-                "Example Project",
-                "This project was created automatically. Use it to get accustomed to everything."
-        );
-        Project initializedProject = projectRepository.save(defaultProject);
-        eventPublisher.publishEvent(new DefaultProjectCreatedEvent(initializedProject.getId(), userCreatedEvent.getUserId()));
+        this.requestDefaultProject(userCreatedEvent.getUserId());
+    }
+
+    @EventListener
+    public void handleUserDeletedEvent(UserDeletedEvent userDeletedEvent) {
+        defaultProjectProvisioningRepository.deleteByUserId(userDeletedEvent.getUserId());
     }
 
     @EventListener
     public void handleLastProjectMemberDeletedEvent(LastProjectMemberDeletedEvent lastProjectMemberDeletedEvent) {
-        this.deleteProjectById(lastProjectMemberDeletedEvent.getProjectId());
+        this.deleteProjectById(lastProjectMemberDeletedEvent.getProjectId(), lastProjectMemberDeletedEvent.getUserId());
     }
 
+    // progress is counted up, a redelivered event would count the same chunk twice
     @EventListener
-    @Async
-    public void handleUserPatchedEvent(UserPatchedEvent userPatchedEvent) {
-        UserDataOfProject userDataOfProject =
-                userDataOfProjectRepository
-                        .findByUserId(userPatchedEvent.getUserId())
-                        .get(0);
-        userDataOfProject.setUserEmail(userPatchedEvent.getEmailAddress());
-        userDataOfProjectRepository.save(userDataOfProject);
+    public void handleProjectMembershipsDeletedEvent(ProjectMembershipsDeletedEvent projectMembershipsDeletedEvent) {
+        if (!processedEvents.markAsProcessed(projectMembershipsDeletedEvent, EVENT_CONSUMER)) {
+            return;
+        }
+        this.recordDeletionProgress(
+                projectMembershipsDeletedEvent.getProjectId(),
+                projectDeletion -> projectDeletion.recordDeletedMemberships(
+                        projectMembershipsDeletedEvent.getNumOfDeletedMemberships(),
+                        projectMembershipsDeletedEvent.getIsFinished()
+                )
+        );
     }
 
     @EventListener
-    @Async
-    public void handleUserDeletedEvent(UserDeletedEvent userDeletedEvent) {
-        userDataOfProjectRepository.deleteByUserId(userDeletedEvent.getUserId());
+    public void handleProjectPhasesDeletedEvent(ProjectPhasesDeletedEvent projectPhasesDeletedEvent) {
+        if (!processedEvents.markAsProcessed(projectPhasesDeletedEvent, EVENT_CONSUMER)) {
+            return;
+        }
+        this.recordDeletionProgress(
+                projectPhasesDeletedEvent.getProjectId(),
+                projectDeletion -> projectDeletion.recordDeletedPhases(
+                        projectPhasesDeletedEvent.getNumOfDeletedPhases(),
+                        projectPhasesDeletedEvent.getIsFinished()
+                )
+        );
+    }
+
+    @EventListener
+    public void handleProjectTicketsDeletedEvent(ProjectTicketsDeletedEvent projectTicketsDeletedEvent) {
+        if (!processedEvents.markAsProcessed(projectTicketsDeletedEvent, EVENT_CONSUMER)) {
+            return;
+        }
+        this.recordDeletionProgress(
+                projectTicketsDeletedEvent.getProjectId(),
+                projectDeletion -> projectDeletion.recordDeletedTickets(
+                        projectTicketsDeletedEvent.getNumOfDeletedTickets(),
+                        projectTicketsDeletedEvent.getIsFinished()
+                )
+        );
     }
 }
@@ -0,0 +1,31 @@
+package com.kett.TicketSystem.project.repository;
+
+import com.kett.TicketSystem.project.domain.DefaultProjectProvisioning;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DefaultProjectProvisioningRepository extends JpaRepository<DefaultProjectProvisioning, UUID> {
+    // Claims a batch for the current transaction: rows locked by another instance are skipped instead of provisioned
+    // twice (a lock timeout of -2 is SKIP LOCKED, dialects without it wait for the lock). Requests are stored with the
+    // signup and removed with the user, so every pending request belongs to an existing user.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints({
+            @QueryHint(name = "javax.persistence.lock.timeout", value = "-2")
+    })
+    @Query("select p from DefaultProjectProvisioning p " +
+            "where p.projectId is null " +
+            "order by p.creationTime asc")
+    List<DefaultProjectProvisioning> findPendingForUpdate(Pageable pageable);
+
+    Integer deleteByUserId(UUID userId);
+}
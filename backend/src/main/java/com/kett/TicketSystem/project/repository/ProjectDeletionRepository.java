@@ -0,0 +1,42 @@
+package com.kett.TicketSystem.project.repository;
+
+import com.kett.TicketSystem.project.domain.ProjectDeletion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ProjectDeletionRepository extends JpaRepository<ProjectDeletion, UUID> {
+    Optional<ProjectDeletion> findByProjectId(UUID projectId);
+
+    // the modules report progress concurrently, so updates must not get lost
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ProjectDeletion> findForUpdateByProjectId(UUID projectId);
+
+    // rows written before the activity was tracked fall back to their creation time
+    @Query("select d.projectId from ProjectDeletion d " +
+            "where d.finishTime is null and coalesce(d.lastActivityTime, d.creationTime) <= :stalledBefore " +
+            "order by d.creationTime asc")
+    List<UUID> findStalledProjectIds(@Param("stalledBefore") LocalDateTime stalledBefore, Pageable pageable);
+
+    // several instances may find the same stalled purge, only the one whose update matches resumes it
+    @Modifying
+    @Query("update ProjectDeletion d set d.lastActivityTime = :resumeTime " +
+            "where d.projectId = :projectId and d.finishTime is null " +
+            "and coalesce(d.lastActivityTime, d.creationTime) <= :stalledBefore")
+    Integer claimStalled(
+            @Param("projectId") UUID projectId,
+            @Param("stalledBefore") LocalDateTime stalledBefore,
+            @Param("resumeTime") LocalDateTime resumeTime
+    );
+}
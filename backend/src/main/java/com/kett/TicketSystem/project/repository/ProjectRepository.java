@@ -2,11 +2,18 @@ package com.kett.TicketSystem.project.repository;
 
 import com.kett.TicketSystem.project.domain.Project;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, UUID> {
+    // a deletion waits for a concurrent one of the same project and then finds it already marked
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Project> findForUpdateById(UUID id);
+
     Long removeById(UUID id);
 }
@@ -0,0 +1,31 @@
+package com.kett.TicketSystem.ticket.application;
+
+import com.kett.TicketSystem.ticket.application.dto.ProjectStatisticsResponseDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+// the statistics of a project are counted by the ticket module, so they are served here
+@RestController
+@Transactional
+@CrossOrigin(origins = {"http://localhost:10000"}, allowCredentials = "true")
+@RequestMapping("/projects")
+public class ProjectStatisticsController {
+    private final TicketApplicationService ticketApplicationService;
+
+    @Autowired
+    public ProjectStatisticsController(TicketApplicationService ticketApplicationService) {
+        this.ticketApplicationService = ticketApplicationService;
+    }
+
+
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<ProjectStatisticsResponseDto> getProjectStatistics(@PathVariable UUID id) {
+        ProjectStatisticsResponseDto projectStatisticsResponseDto = ticketApplicationService.getProjectStatisticsByProjectId(id);
+        return new ResponseEntity<>(projectStatisticsResponseDto, HttpStatus.OK);
+    }
+}
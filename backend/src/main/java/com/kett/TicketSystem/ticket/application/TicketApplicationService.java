@@ -2,9 +2,11 @@ package com.kett.TicketSystem.ticket.application;
 
 import com.kett.TicketSystem.common.DtoMapper;
 import com.kett.TicketSystem.common.domainprimitives.EmailAddress;
+import com.kett.TicketSystem.ticket.application.dto.ProjectStatisticsResponseDto;
 import com.kett.TicketSystem.ticket.application.dto.TicketPatchDto;
 import com.kett.TicketSystem.ticket.application.dto.TicketPostDto;
 import com.kett.TicketSystem.ticket.application.dto.TicketResponseDto;
+import com.kett.TicketSystem.ticket.domain.ProjectStatistics;
 import com.kett.TicketSystem.ticket.domain.Ticket;
 import com.kett.TicketSystem.ticket.domain.TicketDomainService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,6 +38,13 @@ public class TicketApplicationService {
         return dtoMapper.mapTicketToTicketResponseDto(ticket);
     }
 
+    @PreAuthorize("hasAnyAuthority(" +
+            "'ROLE_PROJECT_ADMIN_'.concat(@ticketDomainService.getProjectIdByTicketId(#id)), " +
+            "'ROLE_PROJECT_MEMBER_'.concat(@ticketDomainService.getProjectIdByTicketId(#id)))")
+    public Long getTicketVersionById(UUID id) {
+        return ticketDomainService.getTicketById(id).getVersion();
+    }
+
     @PreAuthorize("hasAnyAuthority(" +
             "'ROLE_PROJECT_ADMIN_'.concat(@ticketDomainService.getProjectIdByPhaseIdOfTicket(#phaseId)), " +
             "'ROLE_PROJECT_MEMBER_'.concat(@ticketDomainService.getProjectIdByPhaseIdOfTicket(#phaseId)))")
@@ -44,6 +53,14 @@ public class TicketApplicationService {
         return dtoMapper.mapTicketListToTicketResponseDtoList(tickets);
     }
 
+    // the tickets of a phase are tagged with the aggregate version of all tickets of its project
+    @PreAuthorize("hasAnyAuthority(" +
+            "'ROLE_PROJECT_ADMIN_'.concat(@ticketDomainService.getProjectIdByPhaseIdOfTicket(#phaseId)), " +
+            "'ROLE_PROJECT_MEMBER_'.concat(@ticketDomainService.getProjectIdByPhaseIdOfTicket(#phaseId)))")
+    public Long getTicketsVersionByPhaseId(UUID phaseId) {
+        return ticketDomainService.getTicketsVersionByProjectId(ticketDomainService.getProjectIdByPhaseIdOfTicket(phaseId));
+    }
+
     @PreAuthorize("hasAuthority('ROLE_USER_'.concat(#assigneeId))")
     public List<TicketResponseDto> getTicketsByAssigneeId(UUID assigneeId) {
         List<Ticket> tickets = ticketDomainService.getTicketsByAssigneeId(assigneeId);
@@ -58,6 +75,21 @@ public class TicketApplicationService {
         return dtoMapper.mapTicketListToTicketResponseDtoList(tickets);
     }
 
+    @PreAuthorize("hasAnyAuthority(" +
+            "'ROLE_PROJECT_ADMIN_'.concat(#projectId), " +
+            "'ROLE_PROJECT_MEMBER_'.concat(#projectId))")
+    public Long getTicketsVersionByProjectId(UUID projectId) {
+        return ticketDomainService.getTicketsVersionByProjectId(projectId);
+    }
+
+    @PreAuthorize("hasAnyAuthority(" +
+            "'ROLE_PROJECT_ADMIN_'.concat(#projectId), " +
+            "'ROLE_PROJECT_MEMBER_'.concat(#projectId))")
+    public ProjectStatisticsResponseDto getProjectStatisticsByProjectId(UUID projectId) {
+        ProjectStatistics projectStatistics = ticketDomainService.getProjectStatistics(projectId);
+        return dtoMapper.mapProjectStatisticsToProjectStatisticsResponseDto(projectStatistics);
+    }
+
     @PreAuthorize("hasAnyAuthority(" +
             "'ROLE_PROJECT_ADMIN_'.concat(#ticketPostDto.projectId), " +
             "'ROLE_PROJECT_MEMBER_'.concat(#ticketPostDto.projectId))")
@@ -72,9 +104,10 @@ public class TicketApplicationService {
     @PreAuthorize("hasAnyAuthority(" +
             "'ROLE_PROJECT_ADMIN_'.concat(@ticketDomainService.getProjectIdByTicketId(#id)), " +
             "'ROLE_PROJECT_MEMBER_'.concat(@ticketDomainService.getProjectIdByTicketId(#id)))")
-    public void patchTicketById(UUID id, TicketPatchDto ticketPatchDto) {
+    public void patchTicketById(UUID id, Long expectedVersion, TicketPatchDto ticketPatchDto) {
         ticketDomainService.patchTicket(
                 id,
+                expectedVersion,
                 ticketPatchDto.getTitle(),
                 ticketPatchDto.getDescription(),
                 ticketPatchDto.getDueTime(),
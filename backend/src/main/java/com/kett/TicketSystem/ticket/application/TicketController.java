@@ -6,12 +6,14 @@ import com.kett.TicketSystem.common.exceptions.TooManyParametersException;
 import com.kett.TicketSystem.ticket.application.dto.TicketPatchDto;
 import com.kett.TicketSystem.ticket.application.dto.TicketPostDto;
 import com.kett.TicketSystem.ticket.application.dto.TicketResponseDto;
+import com.kett.TicketSystem.common.versioning.EntityTags;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -32,7 +34,10 @@ public class TicketController {
 
 
     @GetMapping("/{id}")
-    public ResponseEntity<TicketResponseDto> getTicketById(@PathVariable UUID id) {
+    public ResponseEntity<TicketResponseDto> getTicketById(@PathVariable UUID id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(String.valueOf(ticketApplicationService.getTicketVersionById(id)))) {
+            return null;
+        }
         TicketResponseDto ticketResponseDto = ticketApplicationService.getTicketById(id);
         return new ResponseEntity<>(ticketResponseDto, HttpStatus.OK);
     }
@@ -41,7 +46,8 @@ public class TicketController {
     public ResponseEntity<List<TicketResponseDto>> getTicketsByQuery(
             @RequestParam(name = "phase-id", required = false) UUID phaseId,
             @RequestParam(name = "assignee-id", required = false) UUID assigneeId,
-            @RequestParam(name = "project-id", required = false) UUID projectId
+            @RequestParam(name = "project-id", required = false) UUID projectId,
+            WebRequest webRequest
     ) {
 
         // TODO: use proper check for too many parameters with map
@@ -51,10 +57,17 @@ public class TicketController {
 
         List<TicketResponseDto> ticketResponseDtos;
         if (phaseId != null) {
+            if (webRequest.checkNotModified(String.valueOf(ticketApplicationService.getTicketsVersionByPhaseId(phaseId)))) {
+                return null;
+            }
             ticketResponseDtos = ticketApplicationService.getTicketsByPhaseId(phaseId);
         } else if (assigneeId != null) {
+            // spans several projects, so there is no aggregate version to tag it with
             ticketResponseDtos = ticketApplicationService.getTicketsByAssigneeId(assigneeId);
         } else if (projectId != null) {
+            if (webRequest.checkNotModified(String.valueOf(ticketApplicationService.getTicketsVersionByProjectId(projectId)))) {
+                return null;
+            }
             ticketResponseDtos = ticketApplicationService.getTicketsByProjectId(projectId);
         } else {
             throw new NoParametersException("cannot query if no parameters are specified");
@@ -65,7 +78,7 @@ public class TicketController {
 
     @PostMapping
     public ResponseEntity<TicketResponseDto> postTicket(@RequestBody TicketPostDto ticketPostDto) {
-        EmailAddress userEmail = EmailAddress.fromString(SecurityContextHolder.getContext().getAuthentication().getName());
+        EmailAddress userEmail = EmailAddress.fromTrustedString(SecurityContextHolder.getContext().getAuthentication().getName());
         TicketResponseDto ticketResponseDto = ticketApplicationService.addTicket(ticketPostDto, userEmail);
         URI returnURI = ServletUriComponentsBuilder
                 .fromCurrentRequest()
@@ -79,8 +92,12 @@ public class TicketController {
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<?> patchTicket(@PathVariable UUID id, @RequestBody TicketPatchDto ticketPatchDto) {
-        ticketApplicationService.patchTicketById(id, ticketPatchDto);
+    public ResponseEntity<?> patchTicket(
+            @PathVariable UUID id,
+            @RequestHeader(name = "If-Match", required = false) String ifMatch,
+            @RequestBody TicketPatchDto ticketPatchDto
+    ) {
+        ticketApplicationService.patchTicketById(id, EntityTags.toExpectedVersion(ifMatch), ticketPatchDto);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
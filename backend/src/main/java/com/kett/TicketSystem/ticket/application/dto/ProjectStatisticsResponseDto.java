@@ -0,0 +1,20 @@
+package com.kett.TicketSystem.ticket.application.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProjectStatisticsResponseDto {
+    private UUID projectId;
+    private Long ticketCount;
+    private Long overdueTicketCount;
+    private LocalDateTime overdueCountedAt;
+    private Map<UUID, Long> ticketCountByPhaseId;
+    private Map<UUID, Long> ticketCountByAssigneeId;
+}
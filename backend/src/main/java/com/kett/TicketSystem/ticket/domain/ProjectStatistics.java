@@ -0,0 +1,20 @@
+package com.kett.TicketSystem.ticket.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+// read from the counters kept on the consumed data, the overdue count is as of overdueCountedAt
+@Getter
+@AllArgsConstructor
+public class ProjectStatistics {
+    private final UUID projectId;
+    private final Long ticketCount;
+    private final Long overdueTicketCount;
+    private final LocalDateTime overdueCountedAt;
+    private final Map<UUID, Long> ticketCountByPhaseId;
+    private final Map<UUID, Long> ticketCountByAssigneeId;
+}
@@ -0,0 +1,78 @@
+package com.kett.TicketSystem.ticket.domain;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// the counters behind the project statistics follow the ticket events. every run recounts the next few projects
+// from the ticket rows, one transaction per project, which refreshes the overdue counts and repairs any drift
+@Component
+public class ProjectStatisticsRecomputeJob {
+    private final Logger logger = LoggerFactory.getLogger(ProjectStatisticsRecomputeJob.class);
+    private final TicketDomainService ticketDomainService;
+    private final int projectsPerRun;
+    private final Counter recomputedProjects;
+    private final Timer duration;
+
+    private UUID lastProjectId;
+
+    @Autowired
+    public ProjectStatisticsRecomputeJob(
+            TicketDomainService ticketDomainService,
+            MeterRegistry meterRegistry,
+            @Value("${ticket.statistics.recompute.projects-per-run:50}") int projectsPerRun
+    ) {
+        this.ticketDomainService = ticketDomainService;
+        this.projectsPerRun = projectsPerRun;
+        this.recomputedProjects = Counter
+                .builder("ticket.statistics.recomputed.projects")
+                .description("Number of projects whose ticket statistics were recounted")
+                .register(meterRegistry);
+        this.duration = Timer
+                .builder("ticket.statistics.recompute.duration")
+                .description("Time taken to recount the ticket statistics of one project")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${ticket.statistics.recompute.interval:60000}",
+            fixedDelayString = "${ticket.statistics.recompute.interval:60000}"
+    )
+    public void scheduledRun() {
+        try {
+            this.run();
+        } catch (RuntimeException exception) {
+            logger.error("recompute of project statistics failed: " + exception.getMessage());
+        }
+    }
+
+    // returns the number of recomputed projects
+    public synchronized int run() {
+        List<UUID> projectIds = ticketDomainService.getProjectIdsAfter(lastProjectId, projectsPerRun);
+        if (projectIds.isEmpty()) {
+            lastProjectId = null;   // all projects done, the next run starts over
+            return 0;
+        }
+
+        int numOfRecomputed = 0;
+        for (UUID projectId : projectIds) {
+            Boolean recomputed = duration.record(() -> ticketDomainService.recomputeStatistics(projectId, LocalDateTime.now()));
+            if (Boolean.TRUE.equals(recomputed)) {
+                recomputedProjects.increment();
+                numOfRecomputed++;
+            }
+            lastProjectId = projectId;
+        }
+        return numOfRecomputed;
+    }
+}
@@ -21,6 +21,10 @@ public class Ticket {
     @Column(length = 16)
     private UUID id;
 
+    @Version
+    @Getter
+    private Long version;
+
     @Getter
     private String title;
 
@@ -1,8 +1,14 @@
 package com.kett.TicketSystem.ticket.domain;
 
+import com.kett.TicketSystem.common.cache.ReplicaCache;
+import com.kett.TicketSystem.common.cache.ReplicaCacheFactory;
+import com.kett.TicketSystem.common.eventprocessing.ReplicaInserts;
 import com.kett.TicketSystem.common.domainprimitives.EmailAddress;
 import com.kett.TicketSystem.common.exceptions.ImpossibleException;
 import com.kett.TicketSystem.common.exceptions.NoProjectFoundException;
+import com.kett.TicketSystem.common.userdirectory.UserDirectory;
+import com.kett.TicketSystem.common.versioning.OptimisticLockingTemplate;
+import com.kett.TicketSystem.common.exceptions.VersionConflictException;
 import com.kett.TicketSystem.membership.domain.events.MembershipAcceptedEvent;
 import com.kett.TicketSystem.membership.domain.events.MembershipDeletedEvent;
 import com.kett.TicketSystem.common.exceptions.InvalidProjectMembersException;
@@ -10,6 +16,7 @@ import com.kett.TicketSystem.phase.domain.events.PhaseCreatedEvent;
 import com.kett.TicketSystem.phase.domain.events.PhaseDeletedEvent;
 import com.kett.TicketSystem.common.exceptions.UnrelatedPhaseException;
 import com.kett.TicketSystem.phase.domain.events.PhasePositionUpdatedEvent;
+import com.kett.TicketSystem.phase.domain.events.PhasesCreatedEvent;
 import com.kett.TicketSystem.project.domain.events.DefaultProjectCreatedEvent;
 import com.kett.TicketSystem.project.domain.events.ProjectCreatedEvent;
 import com.kett.TicketSystem.project.domain.events.ProjectDeletedEvent;
@@ -18,15 +25,17 @@ import com.kett.TicketSystem.ticket.domain.events.*;
 import com.kett.TicketSystem.ticket.domain.exceptions.NoTicketFoundException;
 import com.kett.TicketSystem.ticket.domain.exceptions.TicketException;
 import com.kett.TicketSystem.ticket.repository.*;
-import com.kett.TicketSystem.user.domain.events.UserCreatedEvent;
-import com.kett.TicketSystem.user.domain.events.UserDeletedEvent;
-import com.kett.TicketSystem.user.domain.events.UserPatchedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -39,7 +48,12 @@ public class TicketDomainService {
     private final ProjectDataOfTicketRepository projectDataOfTicketRepository;
     private final MembershipDataOfTicketRepository membershipDataOfTicketRepository;
     private final PhaseDataOfTicketRepository phaseDataOfTicketRepository;
-    private final UserDataOfTicketRepository userDataOfTicketRepository;
+    private final UserDirectory userDirectory;
+    private final ReplicaCache<UUID, Boolean> existingProjectIds;
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticLockingTemplate optimisticLockingTemplate;
+    private final ReplicaInserts replicaInserts;
+    private final int deletionChunkSize;
 
     @Autowired
     public TicketDomainService(
@@ -48,21 +62,31 @@ public class TicketDomainService {
             ProjectDataOfTicketRepository projectDataOfTicketRepository,
             MembershipDataOfTicketRepository membershipDataOfTicketRepository,
             PhaseDataOfTicketRepository phaseDataOfTicketRepository,
-            UserDataOfTicketRepository userDataOfTicketRepository
+            UserDirectory userDirectory,
+            ReplicaCacheFactory replicaCacheFactory,
+            PlatformTransactionManager transactionManager,
+            OptimisticLockingTemplate optimisticLockingTemplate,
+            ReplicaInserts replicaInserts,
+            @Value("${project.deletion.chunk-size:500}") int deletionChunkSize
     ) {
         this.ticketRepository = ticketRepository;
         this.eventPublisher = eventPublisher;
         this.projectDataOfTicketRepository = projectDataOfTicketRepository;
         this.membershipDataOfTicketRepository = membershipDataOfTicketRepository;
         this.phaseDataOfTicketRepository = phaseDataOfTicketRepository;
-        this.userDataOfTicketRepository = userDataOfTicketRepository;
+        this.userDirectory = userDirectory;
+        this.existingProjectIds = replicaCacheFactory.create("ProjectDataOfTicket.projectId");
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.optimisticLockingTemplate = optimisticLockingTemplate;
+        this.replicaInserts = replicaInserts;
+        this.deletionChunkSize = deletionChunkSize;
     }
 
 
     // create
 
     public Ticket addTicket(Ticket ticket, EmailAddress postingUserEmail) throws NoProjectFoundException, InvalidProjectMembersException {
-        if (!projectDataOfTicketRepository.existsByProjectId(ticket.getProjectId())) {
+        if (!this.projectDataExists(ticket.getProjectId())) {
             throw new NoProjectFoundException("could not find project with id: " + ticket.getProjectId());
         }
         if (!allAssigneesAreProjectMembers(ticket.getProjectId(), ticket.getAssigneeIds())) {
@@ -76,12 +100,17 @@ public class TicketDomainService {
         UUID firstPhaseOfProjectId =
                 phaseDataOfTicketRepository
                         .findByProjectIdAndPreviousPhaseIdIsNull(ticket.getProjectId())
-                        .get(0)
+                        .stream()
+                        .findFirst()
+                        .orElseThrow(() -> new ImpossibleException("no phase data found for project: " + ticket.getProjectId()))
                         .getPhaseId();
         ticket.setPhaseId(firstPhaseOfProjectId);
 
         Ticket initializedTicket = ticketRepository.save(ticket);
-        eventPublisher.publishEvent(new TicketCreatedEvent(initializedTicket.getId(), initializedTicket.getProjectId(), postingUserId));
+        this.increaseTicketsVersion(initializedTicket.getProjectId());
+        eventPublisher.publishEvent(
+                new TicketCreatedEvent(initializedTicket.getId(), initializedTicket.getProjectId(), postingUserId, firstPhaseOfProjectId)
+        );
         initializedTicket.getAssigneeIds().forEach(assigneeId -> {
             eventPublisher.publishEvent(new TicketAssignedEvent(initializedTicket.getId(), initializedTicket.getProjectId(), assigneeId));
         });
@@ -89,11 +118,20 @@ public class TicketDomainService {
     }
 
     private UUID getUserIdByUserEmailAddress(EmailAddress emailAddress) {
-        List<UserDataOfTicket> userData = userDataOfTicketRepository.findByUserEmailEquals(emailAddress);
-        if (userData.isEmpty()) {
-            throw new ImpossibleException("no user data found for user: " + emailAddress.toString());
-        }
-        return userData.get(0).getUserId();
+        return userDirectory
+                .findUserIdByEmail(emailAddress)
+                .orElseThrow(() -> new ImpossibleException("no user data found for user: " + emailAddress.toString()));
+    }
+
+    // every change to a ticket changes the aggregate version the ticket lists of its project are tagged with
+    private void increaseTicketsVersion(UUID projectId) {
+        projectDataOfTicketRepository.incrementTicketsVersionByProjectId(projectId);
+    }
+
+    private Boolean projectDataExists(UUID projectId) {
+        return existingProjectIds
+                .get(projectId, id -> projectDataOfTicketRepository.existsByProjectId(id) ? Optional.of(true) : Optional.empty())
+                .isPresent();
     }
 
     private Boolean allAssigneesAreProjectMembers(UUID projectId, List<UUID> assigneeIds) {
@@ -142,25 +180,111 @@ public class TicketDomainService {
     }
 
     public UUID getProjectIdByPhaseIdOfTicket(UUID phaseId) throws NoTicketFoundException {
-        List<PhaseDataOfTicket> phaseData = phaseDataOfTicketRepository.findByPhaseId(phaseId);
-        if (phaseData.isEmpty()) {
-            throw new TicketException("There is no data about a phase with phaseId: " + phaseId);
+        return phaseDataOfTicketRepository
+                .findByPhaseId(phaseId)
+                .map(PhaseDataOfTicket::getProjectId)
+                .orElseThrow(() -> new TicketException("There is no data about a phase with phaseId: " + phaseId));
+    }
+
+    public Long getTicketsVersionByProjectId(UUID projectId) throws NoProjectFoundException {
+        return projectDataOfTicketRepository
+                .findTicketsVersionByProjectId(projectId)
+                .orElseThrow(() -> new NoProjectFoundException("could not find project with id: " + projectId));
+    }
+
+    // phases without tickets are missing
+    public Map<UUID, Long> getTicketCountsByPhaseIdOfProject(UUID projectId) {
+        Map<UUID, Long> ticketCounts = new HashMap<>();
+        ticketRepository
+                .countByProjectIdGroupByPhaseId(projectId)
+                .forEach(phaseTicketCount -> ticketCounts.put(phaseTicketCount.getPhaseId(), phaseTicketCount.getTicketCount()));
+        return ticketCounts;
+    }
+
+
+    // served from the counters, so the cost depends on the number of phases and members but not on the number of tickets.
+    // the counters are selected as values, managed replica entities would not see the updates of the repository
+    public ProjectStatistics getProjectStatistics(UUID projectId) throws NoProjectFoundException {
+        ProjectTicketCounts projectTicketCounts = projectDataOfTicketRepository
+                .findTicketCountsByProjectId(projectId)
+                .orElseThrow(() -> new NoProjectFoundException("could not find project with id: " + projectId));
+
+        Map<UUID, Long> ticketCountByPhaseId = new HashMap<>();
+        phaseDataOfTicketRepository
+                .findTicketCountsByProjectId(projectId)
+                .forEach(phaseTicketCount -> ticketCountByPhaseId.put(phaseTicketCount.getPhaseId(), phaseTicketCount.getTicketCount()));
+        Map<UUID, Long> ticketCountByAssigneeId = new HashMap<>();
+        membershipDataOfTicketRepository
+                .findAssignedTicketCountsByProjectId(projectId)
+                .forEach(assigneeTicketCount -> ticketCountByAssigneeId.put(assigneeTicketCount.getAssigneeId(), assigneeTicketCount.getTicketCount()));
+
+        return new ProjectStatistics(
+                projectId,
+                projectTicketCounts.getTicketCount(),
+                projectTicketCounts.getOverdueTicketCount(),
+                projectTicketCounts.getOverdueCountedAt(),
+                ticketCountByPhaseId,
+                ticketCountByAssigneeId
+        );
+    }
+
+    public List<UUID> getProjectIdsAfter(UUID projectId, int limit) {
+        if (projectId == null) {
+            return projectDataOfTicketRepository.findProjectIds(PageRequest.of(0, limit));
         }
-        return phaseData.get(0).getProjectId();
+        return projectDataOfTicketRepository.findProjectIdsAfter(projectId, PageRequest.of(0, limit));
     }
 
 
     // update
 
+    // counts the tickets of the project from scratch. the overdue count depends on the clock and cannot follow events,
+    // the others are only repaired here in case they drifted. returns false if the project is gone
+    public boolean recomputeStatistics(UUID projectId, LocalDateTime now) {
+        if (projectDataOfTicketRepository.findForUpdateByProjectId(projectId).isEmpty()) {
+            return false;
+        }
+
+        projectDataOfTicketRepository.updateTicketCountsByProjectId(
+                projectId,
+                ticketRepository.countByProjectId(projectId),
+                ticketRepository.countByProjectIdAndDueTimeBefore(projectId, now),
+                now
+        );
+
+        Map<UUID, Long> ticketCountsByPhaseId = this.getTicketCountsByPhaseIdOfProject(projectId);
+        phaseDataOfTicketRepository
+                .findByProjectId(projectId)
+                .forEach(phaseData -> phaseDataOfTicketRepository.updateTicketCountByPhaseId(
+                        phaseData.getPhaseId(),
+                        ticketCountsByPhaseId.getOrDefault(phaseData.getPhaseId(), 0L)
+                ));
+
+        Map<UUID, Long> ticketCountsByAssigneeId = new HashMap<>();
+        ticketRepository
+                .countByProjectIdGroupByAssigneeId(projectId)
+                .forEach(assigneeTicketCount -> ticketCountsByAssigneeId.put(assigneeTicketCount.getAssigneeId(), assigneeTicketCount.getTicketCount()));
+        membershipDataOfTicketRepository
+                .findByProjectId(projectId)
+                .forEach(membershipData -> membershipDataOfTicketRepository.updateAssignedTicketCountByUserIdAndProjectId(
+                        membershipData.getUserId(),
+                        projectId,
+                        ticketCountsByAssigneeId.getOrDefault(membershipData.getUserId(), 0L)
+                ));
+        return true;
+    }
+
     public void patchTicket(
             UUID id,
+            Long expectedVersion,
             String title,
             String description,
             LocalDateTime dueTime,
             UUID phaseId,
             List<UUID> assigneeIds
-    ) throws NoTicketFoundException, InvalidProjectMembersException, UnrelatedPhaseException {
+    ) throws NoTicketFoundException, InvalidProjectMembersException, UnrelatedPhaseException, VersionConflictException {
         Ticket ticket = this.getTicketById(id);
+        optimisticLockingTemplate.checkExpectedVersion(expectedVersion, ticket.getVersion(), "ticket with id: " + id);
 
         if (title != null) {
             ticket.setTitle(title);
@@ -185,17 +309,27 @@ public class TicketDomainService {
             oldPhaseId = ticket.getPhaseId();
             ticket.setPhaseId(phaseId);
         }
+        List<UUID> oldAssigneeIds = new ArrayList<>(ticket.getAssigneeIds());
         if (assigneeIds != null) {
             if (!allAssigneesAreProjectMembers(ticket.getProjectId(), assigneeIds)) {
                 throw new InvalidProjectMembersException(
                         "not all assignees are part of the project with id: " + ticket.getProjectId()
                 );
             }
-            publishAssignmentEvents(ticket, assigneeIds, ticket.getAssigneeIds());
             ticket.setAssigneeIds(assigneeIds);
         }
 
-        ticketRepository.save(ticket);
+        // a concurrent edit is detected here, before anybody is told about the assignments
+        optimisticLockingTemplate.flushOrThrowConflict(
+                () -> ticketRepository.saveAndFlush(ticket),
+                () -> ticketRepository.findVersionById(id),
+                () -> new NoTicketFoundException("could not find ticket with id: " + id),
+                "ticket with id: " + id
+        );
+        this.increaseTicketsVersion(ticket.getProjectId());
+        if (assigneeIds != null) {
+            publishAssignmentEvents(ticket, assigneeIds, oldAssigneeIds);
+        }
         if (phaseId != null) {
             eventPublisher.publishEvent(new TicketPhaseUpdatedEvent(ticket.getId(), ticket.getProjectId(), oldPhaseId, phaseId));
         }
@@ -231,67 +365,165 @@ public class TicketDomainService {
     public void deleteTicketById(UUID id) throws NoTicketFoundException {
         Ticket ticket = this.getTicketById(id);
         ticketRepository.removeById(id);
+        this.increaseTicketsVersion(ticket.getProjectId());
 
-        eventPublisher.publishEvent(new TicketDeletedEvent(ticket.getId(), ticket.getProjectId(), ticket.getPhaseId()));
+        eventPublisher.publishEvent(
+                new TicketDeletedEvent(ticket.getId(), ticket.getProjectId(), ticket.getPhaseId(), ticket.getAssigneeIds())
+        );
     }
 
-    public void deleteTicketsByProjectId(UUID projectId) {
-        ticketRepository.deleteByProjectId(projectId);
+    // one transaction per chunk instead of one for the whole project
+    private void deleteTicketsByProjectId(UUID projectId) {
+        List<Ticket> deletedTickets;
+        do {
+            deletedTickets = transactionTemplate.execute(status -> this.deleteTicketChunkByProjectId(projectId));
+            eventPublisher.publishEvent(
+                    new ProjectTicketsDeletedEvent(projectId, deletedTickets.size(), deletedTickets.isEmpty())
+            );
+        } while (!deletedTickets.isEmpty());
+    }
+
+    private List<Ticket> deleteTicketChunkByProjectId(UUID projectId) {
+        List<Ticket> chunk = ticketRepository.findByProjectId(projectId, PageRequest.of(0, deletionChunkSize));
+        ticketRepository.deleteAll(chunk);
+        return chunk;
     }
 
 
     // event listeners
 
+    // the statistics counters are changed in the transaction of the ticket change
+
+    @EventListener
+    public void handleTicketCreatedEvent(TicketCreatedEvent ticketCreatedEvent) {
+        projectDataOfTicketRepository.addToTicketCountByProjectId(ticketCreatedEvent.getProjectId(), 1L);
+        if (ticketCreatedEvent.getPhaseId() != null) {
+            phaseDataOfTicketRepository.addToTicketCountByPhaseId(ticketCreatedEvent.getPhaseId(), 1L);
+        }
+    }
+
+    @EventListener
+    public void handleTicketPhaseUpdatedEvent(TicketPhaseUpdatedEvent ticketPhaseUpdatedEvent) {
+        if (Objects.equals(ticketPhaseUpdatedEvent.getOldPhaseId(), ticketPhaseUpdatedEvent.getNewPhaseId())) {
+            return;
+        }
+        phaseDataOfTicketRepository.addToTicketCountByPhaseId(ticketPhaseUpdatedEvent.getOldPhaseId(), -1L);
+        phaseDataOfTicketRepository.addToTicketCountByPhaseId(ticketPhaseUpdatedEvent.getNewPhaseId(), 1L);
+    }
+
+    @EventListener
+    public void handleTicketAssignedEvent(TicketAssignedEvent ticketAssignedEvent) {
+        membershipDataOfTicketRepository.addToAssignedTicketCountByUserIdAndProjectId(
+                ticketAssignedEvent.getAssigneeId(),
+                ticketAssignedEvent.getProjectId(),
+                1L
+        );
+    }
+
+    @EventListener
+    public void handleTicketUnassignedEvent(TicketUnassignedEvent ticketUnassignedEvent) {
+        membershipDataOfTicketRepository.addToAssignedTicketCountByUserIdAndProjectId(
+                ticketUnassignedEvent.getAssigneeId(),
+                ticketUnassignedEvent.getProjectId(),
+                -1L
+        );
+    }
+
+    @EventListener
+    public void handleTicketDeletedEvent(TicketDeletedEvent ticketDeletedEvent) {
+        projectDataOfTicketRepository.addToTicketCountByProjectId(ticketDeletedEvent.getProjectId(), -1L);
+        phaseDataOfTicketRepository.addToTicketCountByPhaseId(ticketDeletedEvent.getPhaseId(), -1L);
+        ticketDeletedEvent.getAssigneeIds().forEach(assigneeId ->
+                membershipDataOfTicketRepository.addToAssignedTicketCountByUserIdAndProjectId(
+                        assigneeId,
+                        ticketDeletedEvent.getProjectId(),
+                        -1L
+                )
+        );
+    }
+
+    // idempotent, so a concurrent edit of one of the tickets is resolved by running it again
     @EventListener
     @Async
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void handleMembershipDeletedEvent(MembershipDeletedEvent membershipDeletedEvent) {
-        List<Ticket> tickets =
-                ticketRepository
-                        .findByProjectId(membershipDeletedEvent.getProjectId())
-                        .stream()
-                        .filter(ticket -> ticket.isAssignee(membershipDeletedEvent.getUserId()))
-                        .toList();
-
-        tickets.forEach(ticket -> ticket.removeAssignee(membershipDeletedEvent.getUserId()));
-        ticketRepository.saveAll(tickets);
+        optimisticLockingTemplate.executeWithRetry(status -> {
+            List<Ticket> tickets =
+                    ticketRepository.findByProjectIdAndAssigneeIdsContaining(
+                            membershipDeletedEvent.getProjectId(),
+                            membershipDeletedEvent.getUserId()
+                    );
+
+            tickets.forEach(ticket -> ticket.removeAssignee(membershipDeletedEvent.getUserId()));
+            ticketRepository.saveAll(tickets);
+            if (!tickets.isEmpty()) {
+                this.increaseTicketsVersion(membershipDeletedEvent.getProjectId());
+            }
 
-        membershipDataOfTicketRepository.deleteByMembershipId(membershipDeletedEvent.getMembershipId());
+            membershipDataOfTicketRepository.deleteByMembershipId(membershipDeletedEvent.getMembershipId());
+        });
     }
 
     @EventListener
     @Async
     public void handleMembershipAcceptedEvent(MembershipAcceptedEvent membershipAcceptedEvent) {
-        membershipDataOfTicketRepository.save(
-                new MembershipDataOfTicket(
-                        membershipAcceptedEvent.getMembershipId(),
-                        membershipAcceptedEvent.getUserId(),
-                        membershipAcceptedEvent.getProjectId()
-                )
+        replicaInserts.insertIfAbsent(
+                () -> membershipDataOfTicketRepository.existsByMembershipId(membershipAcceptedEvent.getMembershipId()),
+                () -> membershipDataOfTicketRepository.saveAndFlush(
+                        new MembershipDataOfTicket(
+                                membershipAcceptedEvent.getMembershipId(),
+                                membershipAcceptedEvent.getUserId(),
+                                membershipAcceptedEvent.getProjectId()
+                        )
+                ),
+                "membership data of membership " + membershipAcceptedEvent.getMembershipId()
         );
     }
 
     @EventListener
     @Async
     public void handleProjectCreatedEvent(ProjectCreatedEvent projectCreatedEvent) {
-        projectDataOfTicketRepository.save(new ProjectDataOfTicket(projectCreatedEvent.getProjectId()));
+        this.addProjectDataIfAbsent(projectCreatedEvent.getProjectId());
     }
 
     @EventListener
     @Async
     public void handleDefaultProjectCreatedEvent(DefaultProjectCreatedEvent defaultProjectCreatedEvent) {
-        projectDataOfTicketRepository.save(new ProjectDataOfTicket(defaultProjectCreatedEvent.getProjectId()));
+        this.addProjectDataIfAbsent(defaultProjectCreatedEvent.getProjectId());
+    }
+
+    private void addProjectDataIfAbsent(UUID projectId) {
+        replicaInserts.insertIfAbsent(
+                () -> projectDataOfTicketRepository.existsByProjectId(projectId),
+                () -> projectDataOfTicketRepository.saveAndFlush(new ProjectDataOfTicket(projectId)),
+                "project data of project " + projectId
+        );
+        existingProjectIds.put(projectId, true);
     }
 
 
     @EventListener
     @Async
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void handleProjectDeletedEvent(ProjectDeletedEvent projectDeletedEvent) {
-        this.deleteTicketsByProjectId(projectDeletedEvent.getProjectId());
-        projectDataOfTicketRepository.deleteByProjectId(projectDeletedEvent.getProjectId());
+        UUID projectId = projectDeletedEvent.getProjectId();
+
+        // the replica goes first, so no tickets are added while purging
+        transactionTemplate.executeWithoutResult(status -> projectDataOfTicketRepository.deleteByProjectId(projectId));
+        existingProjectIds.evict(projectId);
+
+        this.deleteTicketsByProjectId(projectId);
+        transactionTemplate.executeWithoutResult(status -> {
+            membershipDataOfTicketRepository.deleteByProjectId(projectId);
+            phaseDataOfTicketRepository.deleteByProjectId(projectId);
+        });
     }
 
     @EventListener
     public void handlePhaseCreatedEvent(PhaseCreatedEvent phaseCreatedEvent) {
+        if (phaseDataOfTicketRepository.existsByPhaseId(phaseCreatedEvent.getPhaseId())) {
+            return;
+        }
         phaseDataOfTicketRepository.save(
                 new PhaseDataOfTicket(
                         phaseCreatedEvent.getPhaseId(),
@@ -301,10 +533,25 @@ public class TicketDomainService {
         );
     }
 
+    @EventListener
+    public void handlePhasesCreatedEvent(PhasesCreatedEvent phasesCreatedEvent) {
+        List<PhaseDataOfTicket> phaseData = new ArrayList<>();
+        UUID previousPhaseId = null;
+        for (UUID phaseId : phasesCreatedEvent.getPhaseIds()) {
+            if (!phaseDataOfTicketRepository.existsByPhaseId(phaseId)) {
+                phaseData.add(new PhaseDataOfTicket(phaseId, previousPhaseId, phasesCreatedEvent.getProjectId()));
+            }
+            previousPhaseId = phaseId;
+        }
+        phaseDataOfTicketRepository.saveAll(phaseData);
+    }
+
     @EventListener
     public void handlePhasePositionUpdatedEvent(PhasePositionUpdatedEvent phasePositionUpdatedEvent) {
-        List<PhaseDataOfTicket> foundPhaseData = phaseDataOfTicketRepository.findByPhaseId(phasePositionUpdatedEvent.getPhaseId());
-        PhaseDataOfTicket phaseDataOfTicket = foundPhaseData.get(0);
+        PhaseDataOfTicket phaseDataOfTicket =
+                phaseDataOfTicketRepository
+                        .findByPhaseId(phasePositionUpdatedEvent.getPhaseId())
+                        .orElseThrow(() -> new ImpossibleException("no phase data found for phase: " + phasePositionUpdatedEvent.getPhaseId()));
         phaseDataOfTicket.setPreviousPhaseId(phasePositionUpdatedEvent.getPreviousPhaseId());
         phaseDataOfTicketRepository.save(phaseDataOfTicket);
     }
@@ -314,24 +561,4 @@ public class TicketDomainService {
     public void handlePhaseDeletedEvent(PhaseDeletedEvent phaseDeletedEvent) {
         phaseDataOfTicketRepository.deleteByPhaseId(phaseDeletedEvent.getPhaseId());
     }
-
-    @EventListener
-    @Async
-    public void handleUserCreatedEvent(UserCreatedEvent userCreatedEvent) {
-        userDataOfTicketRepository.save(new UserDataOfTicket(userCreatedEvent.getUserId(), userCreatedEvent.getEmailAddress()));
-    }
-
-    @EventListener
-    @Async
-    public void handleUserPatchedEvent(UserPatchedEvent userPatchedEvent) {
-        UserDataOfTicket userDataOfTicket = userDataOfTicketRepository.findByUserId(userPatchedEvent.getUserId()).get(0);
-        userDataOfTicket.setUserEmail(userPatchedEvent.getEmailAddress());
-        userDataOfTicketRepository.save(userDataOfTicket);
-    }
-
-    @EventListener
-    @Async
-    public void handleUserDeletedEvent(UserDeletedEvent userDeletedEvent) {
-        userDataOfTicketRepository.deleteByUserId(userDeletedEvent.getUserId());
-    }
 }
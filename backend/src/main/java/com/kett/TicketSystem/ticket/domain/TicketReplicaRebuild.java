@@ -0,0 +1,161 @@
+package com.kett.TicketSystem.ticket.domain;
+
+import com.kett.TicketSystem.common.eventlog.EventLogRecord;
+import com.kett.TicketSystem.common.eventlog.ReplicaRebuild;
+import com.kett.TicketSystem.ticket.domain.consumedData.MembershipDataOfTicket;
+import com.kett.TicketSystem.ticket.domain.consumedData.PhaseDataOfTicket;
+import com.kett.TicketSystem.ticket.domain.consumedData.ProjectDataOfTicket;
+import com.kett.TicketSystem.ticket.repository.MembershipDataOfTicketRepository;
+import com.kett.TicketSystem.ticket.repository.PhaseDataOfTicketRepository;
+import com.kett.TicketSystem.ticket.repository.ProjectDataOfTicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// same writes as the event listeners of TicketDomainService, but from the records of the event log.
+// the log may have been enabled after some projects were created, only projects whose creation is in the log
+// are rebuilt; the replicas of all other projects are left as they are
+@Component
+public class TicketReplicaRebuild implements ReplicaRebuild {
+    private final Logger logger = LoggerFactory.getLogger(TicketReplicaRebuild.class);
+    private final ProjectDataOfTicketRepository projectDataOfTicketRepository;
+    private final PhaseDataOfTicketRepository phaseDataOfTicketRepository;
+    private final MembershipDataOfTicketRepository membershipDataOfTicketRepository;
+    private final TicketDomainService ticketDomainService;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<UUID> rebuiltProjectIds = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public TicketReplicaRebuild(
+            ProjectDataOfTicketRepository projectDataOfTicketRepository,
+            PhaseDataOfTicketRepository phaseDataOfTicketRepository,
+            MembershipDataOfTicketRepository membershipDataOfTicketRepository,
+            TicketDomainService ticketDomainService,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.projectDataOfTicketRepository = projectDataOfTicketRepository;
+        this.phaseDataOfTicketRepository = phaseDataOfTicketRepository;
+        this.membershipDataOfTicketRepository = membershipDataOfTicketRepository;
+        this.ticketDomainService = ticketDomainService;
+        // one transaction per recounted project, not one that locks every rebuilt project until the last is done
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public String getName() {
+        return "ticket";
+    }
+
+    @Override
+    public Set<String> getConsumedEvents() {
+        return Set.of(
+                "ProjectCreatedEvent",
+                "DefaultProjectCreatedEvent",
+                "ProjectDeletedEvent",
+                "PhaseCreatedEvent",
+                "PhasesCreatedEvent",
+                "PhasePositionUpdatedEvent",
+                "PhaseDeletedEvent",
+                "MembershipAcceptedEvent",
+                "MembershipDeletedEvent"
+        );
+    }
+
+    @Override
+    public void reset() {
+        rebuiltProjectIds.clear();
+    }
+
+    // the replica of a project is reset when its creation is replayed, the events of a project arrive in order
+    @Override
+    public void apply(EventLogRecord eventLogRecord) {
+        UUID projectId = eventLogRecord.getUuid("projectId");
+        String type = eventLogRecord.getType();
+        if (type.equals("ProjectCreatedEvent") || type.equals("DefaultProjectCreatedEvent")) {
+            this.resetProject(projectId);
+            return;
+        }
+        if (!rebuiltProjectIds.contains(projectId)) {
+            return;
+        }
+        switch (type) {
+            case "ProjectDeletedEvent" -> {
+                projectDataOfTicketRepository.deleteByProjectId(projectId);
+                phaseDataOfTicketRepository.deleteByProjectId(projectId);
+                membershipDataOfTicketRepository.deleteByProjectId(projectId);
+                rebuiltProjectIds.remove(projectId);
+            }
+            case "PhaseCreatedEvent" -> this.addPhaseData(
+                    eventLogRecord.getUuid("phaseId"),
+                    eventLogRecord.getUuid("previousPhaseId"),
+                    projectId
+            );
+            case "PhasesCreatedEvent" -> {
+                UUID previousPhaseId = null;
+                for (UUID phaseId : eventLogRecord.getUuids("phaseIds")) {
+                    this.addPhaseData(phaseId, previousPhaseId, projectId);
+                    previousPhaseId = phaseId;
+                }
+            }
+            case "PhasePositionUpdatedEvent" -> phaseDataOfTicketRepository
+                    .findByPhaseId(eventLogRecord.getUuid("phaseId"))
+                    .ifPresent(phaseDataOfTicket -> {
+                        phaseDataOfTicket.setPreviousPhaseId(eventLogRecord.getUuid("previousPhaseId"));
+                        phaseDataOfTicketRepository.save(phaseDataOfTicket);
+                    });
+            case "PhaseDeletedEvent" -> phaseDataOfTicketRepository.deleteByPhaseId(eventLogRecord.getUuid("phaseId"));
+            case "MembershipAcceptedEvent" -> {
+                UUID membershipId = eventLogRecord.getUuid("membershipId");
+                if (!membershipDataOfTicketRepository.existsByMembershipId(membershipId)) {
+                    membershipDataOfTicketRepository.save(
+                            new MembershipDataOfTicket(membershipId, eventLogRecord.getUuid("userId"), projectId)
+                    );
+                }
+            }
+            case "MembershipDeletedEvent" -> membershipDataOfTicketRepository.deleteByMembershipId(eventLogRecord.getUuid("membershipId"));
+            default -> {
+            }
+        }
+    }
+
+    // the project data is kept, its version tags the ticket lists of the project
+    private void resetProject(UUID projectId) {
+        if (!projectDataOfTicketRepository.existsByProjectId(projectId)) {
+            projectDataOfTicketRepository.save(new ProjectDataOfTicket(projectId));
+        }
+        phaseDataOfTicketRepository.deleteByProjectId(projectId);
+        membershipDataOfTicketRepository.deleteByProjectId(projectId);
+        rebuiltProjectIds.add(projectId);
+    }
+
+    private void addPhaseData(UUID phaseId, UUID previousPhaseId, UUID projectId) {
+        if (!phaseDataOfTicketRepository.existsByPhaseId(phaseId)) {
+            phaseDataOfTicketRepository.save(new PhaseDataOfTicket(phaseId, previousPhaseId, projectId));
+        }
+    }
+
+    // the rebuilt phase and membership data start without statistics, they are counted from the ticket rows.
+    // a failed recount is left to ProjectStatisticsRecomputeJob
+    @Override
+    public void complete() {
+        LocalDateTime now = LocalDateTime.now();
+        rebuiltProjectIds.forEach(projectId -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> ticketDomainService.recomputeStatistics(projectId, now));
+            } catch (RuntimeException exception) {
+                logger.error("recount of the statistics of rebuilt project " + projectId + " failed: " + exception.getMessage());
+            }
+        });
+        rebuiltProjectIds.clear();
+    }
+}
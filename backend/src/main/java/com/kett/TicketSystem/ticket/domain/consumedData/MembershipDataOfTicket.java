@@ -6,6 +6,11 @@ import javax.persistence.*;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "uk_membership_data_of_ticket_membership", columnList = "membershipId", unique = true),
+        @Index(name = "idx_membership_data_of_ticket_user_project", columnList = "userId, projectId"),
+        @Index(name = "idx_membership_data_of_ticket_project", columnList = "projectId")
+})
 @Getter
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -25,6 +30,10 @@ public class MembershipDataOfTicket {
     @Column(length = 16)
     UUID projectId;
 
+    // only changed by the repository
+    @Column(updatable = false)
+    Long assignedTicketCount = 0L;
+
     public MembershipDataOfTicket(@NonNull UUID membershipId, @NonNull UUID userId, @NonNull UUID projectId) {
         this.membershipId = membershipId;
         this.userId = userId;
@@ -7,6 +7,10 @@ import javax.persistence.*;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "uk_phase_data_of_ticket_phase", columnList = "phaseId", unique = true),
+        @Index(name = "idx_phase_data_of_ticket_project_previous", columnList = "projectId, previousPhaseId")
+})
 @Getter
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -27,6 +31,10 @@ public class PhaseDataOfTicket {
     @Column(length = 16)
     UUID projectId;
 
+    // only changed by the repository, saving the replica must not overwrite concurrent increments
+    @Column(updatable = false)
+    Long ticketCount = 0L;
+
     public PhaseDataOfTicket(@NonNull UUID phaseId, UUID previousPhaseId, @NonNull UUID projectId) {
         this.phaseId = phaseId;
         this.previousPhaseId = previousPhaseId;
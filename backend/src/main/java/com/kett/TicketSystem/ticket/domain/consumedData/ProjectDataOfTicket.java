@@ -3,9 +3,13 @@ package com.kett.TicketSystem.ticket.domain.consumedData;
 import lombok.*;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "uk_project_data_of_ticket_project", columnList = "projectId", unique = true)
+})
 @Getter
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -19,6 +23,20 @@ public class ProjectDataOfTicket {
     @Column(length = 16)
     UUID projectId;
 
+    // aggregate version of the tickets of the project, only changed by the repository
+    Long ticketsVersion = 0L;
+
+    // statistics of the tickets of the project, only changed by the repository.
+    // the overdue count is recomputed periodically and is only valid as of overdueCountedAt
+    @Column(updatable = false)
+    Long ticketCount = 0L;
+
+    @Column(updatable = false)
+    Long overdueTicketCount = 0L;
+
+    @Column(updatable = false)
+    LocalDateTime overdueCountedAt;
+
     public ProjectDataOfTicket(@NonNull UUID projectId) {
         this.projectId = projectId;
     }
@@ -0,0 +1,20 @@
+package com.kett.TicketSystem.ticket.domain.events;
+
+import com.kett.TicketSystem.common.domainprimitives.DomainEvent;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+public class ProjectTicketsDeletedEvent extends DomainEvent {
+    private final UUID projectId;
+    private final Integer numOfDeletedTickets;
+    private final Boolean isFinished;
+
+    public ProjectTicketsDeletedEvent(UUID projectId, Integer numOfDeletedTickets, Boolean isFinished) {
+        super();
+        this.projectId = projectId;
+        this.numOfDeletedTickets = numOfDeletedTickets;
+        this.isFinished = isFinished;
+    }
+}
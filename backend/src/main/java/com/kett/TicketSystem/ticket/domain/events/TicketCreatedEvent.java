@@ -10,11 +10,17 @@ public class TicketCreatedEvent extends DomainEvent {
     private final UUID ticketId;
     private final UUID projectId;
     private final UUID userId;
+    private final UUID phaseId;
 
     public TicketCreatedEvent(UUID ticketId, UUID projectId, UUID userId) {
+        this(ticketId, projectId, userId, null);
+    }
+
+    public TicketCreatedEvent(UUID ticketId, UUID projectId, UUID userId, UUID phaseId) {
         super();
         this.ticketId = ticketId;
         this.projectId = projectId;
         this.userId = userId;
+        this.phaseId = phaseId;
     }
 }
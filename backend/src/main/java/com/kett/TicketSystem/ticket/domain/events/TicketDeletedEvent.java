@@ -3,6 +3,7 @@ package com.kett.TicketSystem.ticket.domain.events;
 import com.kett.TicketSystem.common.domainprimitives.DomainEvent;
 import lombok.Getter;
 
+import java.util.List;
 import java.util.UUID;
 
 @Getter
@@ -10,11 +11,17 @@ public class TicketDeletedEvent extends DomainEvent {
     private final UUID ticketId;
     private final UUID projectId;
     private final UUID phaseId;
+    private final List<UUID> assigneeIds;
 
     public TicketDeletedEvent(UUID ticketId, UUID projectId, UUID phaseId) {
+        this(ticketId, projectId, phaseId, List.of());
+    }
+
+    public TicketDeletedEvent(UUID ticketId, UUID projectId, UUID phaseId, List<UUID> assigneeIds) {
         super();
         this.ticketId = ticketId;
         this.projectId = projectId;
         this.phaseId = phaseId;
+        this.assigneeIds = List.copyOf(assigneeIds);
     }
 }
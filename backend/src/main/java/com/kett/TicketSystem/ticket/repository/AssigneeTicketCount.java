@@ -0,0 +1,8 @@
+package com.kett.TicketSystem.ticket.repository;
+
+import java.util.UUID;
+
+public interface AssigneeTicketCount {
+    UUID getAssigneeId();
+    Long getTicketCount();
+}
@@ -2,14 +2,19 @@ package com.kett.TicketSystem.ticket.repository;
 
 import com.kett.TicketSystem.ticket.domain.consumedData.MembershipDataOfTicket;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface MembershipDataOfTicketRepository extends JpaRepository<MembershipDataOfTicket, UUID> {
-    MembershipDataOfTicket findByMembershipId(UUID membershipId);
+    Optional<MembershipDataOfTicket> findByMembershipId(UUID membershipId);
+    Boolean existsByMembershipId(UUID membershipId);
     Integer deleteByMembershipId(UUID membershipId);
     Integer deleteByUserId(UUID userId);
     List<MembershipDataOfTicket> findByProjectId(UUID projectId);
@@ -18,4 +23,27 @@ public interface MembershipDataOfTicketRepository extends JpaRepository<Membersh
     Boolean existsByUserId(UUID membershipId);
     boolean existsByUserIdAndProjectId(UUID assigneeId, UUID projectId);
     Boolean existsByMembershipIdAndProjectId(UUID membershipId, UUID projectId);
+
+    @Query("select m.userId as assigneeId, coalesce(m.assignedTicketCount, 0) as ticketCount " +
+            "from MembershipDataOfTicket m where m.projectId = :projectId")
+    List<AssigneeTicketCount> findAssignedTicketCountsByProjectId(@Param("projectId") UUID projectId);
+
+    @Modifying
+    @Query("update MembershipDataOfTicket m " +
+            "set m.assignedTicketCount = coalesce(m.assignedTicketCount, 0) + :delta " +
+            "where m.userId = :userId and m.projectId = :projectId")
+    Integer addToAssignedTicketCountByUserIdAndProjectId(
+            @Param("userId") UUID userId,
+            @Param("projectId") UUID projectId,
+            @Param("delta") Long delta
+    );
+
+    @Modifying
+    @Query("update MembershipDataOfTicket m set m.assignedTicketCount = :assignedTicketCount " +
+            "where m.userId = :userId and m.projectId = :projectId")
+    Integer updateAssignedTicketCountByUserIdAndProjectId(
+            @Param("userId") UUID userId,
+            @Param("projectId") UUID projectId,
+            @Param("assignedTicketCount") Long assignedTicketCount
+    );
 }
@@ -2,14 +2,18 @@ package com.kett.TicketSystem.ticket.repository;
 
 import com.kett.TicketSystem.ticket.domain.consumedData.PhaseDataOfTicket;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PhaseDataOfTicketRepository extends JpaRepository<PhaseDataOfTicket, UUID> {
-    List<PhaseDataOfTicket> findByPhaseId(UUID phaseId);
+    Optional<PhaseDataOfTicket> findByPhaseId(UUID phaseId);
     Integer deleteByPhaseId(UUID projectId);
     List<PhaseDataOfTicket> findByProjectId(UUID projectId);
     List<PhaseDataOfTicket> findByProjectIdAndPreviousPhaseIdIsNull(UUID projectId);
@@ -17,4 +21,15 @@ public interface PhaseDataOfTicketRepository extends JpaRepository<PhaseDataOfTi
 
     Boolean existsByPhaseId(UUID phaseId);
     Boolean existsByPhaseIdAndProjectId(UUID phaseId, UUID projectId);
+
+    @Query("select p.phaseId as phaseId, coalesce(p.ticketCount, 0) as ticketCount from PhaseDataOfTicket p where p.projectId = :projectId")
+    List<PhaseTicketCount> findTicketCountsByProjectId(@Param("projectId") UUID projectId);
+
+    @Modifying
+    @Query("update PhaseDataOfTicket p set p.ticketCount = coalesce(p.ticketCount, 0) + :delta where p.phaseId = :phaseId")
+    Integer addToTicketCountByPhaseId(@Param("phaseId") UUID phaseId, @Param("delta") Long delta);
+
+    @Modifying
+    @Query("update PhaseDataOfTicket p set p.ticketCount = :ticketCount where p.phaseId = :phaseId")
+    Integer updateTicketCountByPhaseId(@Param("phaseId") UUID phaseId, @Param("ticketCount") Long ticketCount);
 }
@@ -1,15 +1,62 @@
 package com.kett.TicketSystem.ticket.repository;
 
 import com.kett.TicketSystem.ticket.domain.consumedData.ProjectDataOfTicket;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ProjectDataOfTicketRepository extends JpaRepository<ProjectDataOfTicket, UUID> {
-    ProjectDataOfTicket findByProjectId(UUID projectId);
+    Optional<ProjectDataOfTicket> findByProjectId(UUID projectId);
     Integer deleteByProjectId(UUID projectId);
 
     Boolean existsByProjectId(UUID projectId);
+
+    // every change to the tickets of a project increments its tickets version, so holding this lock keeps them out
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from ProjectDataOfTicket p where p.projectId = :projectId")
+    Optional<ProjectDataOfTicket> findForUpdateByProjectId(@Param("projectId") UUID projectId);
+
+    @Query("select p.projectId from ProjectDataOfTicket p order by p.projectId")
+    List<UUID> findProjectIds(Pageable pageable);
+
+    @Query("select p.projectId from ProjectDataOfTicket p where p.projectId > :projectId order by p.projectId")
+    List<UUID> findProjectIdsAfter(@Param("projectId") UUID projectId, Pageable pageable);
+
+    @Query("select coalesce(p.ticketsVersion, 0) from ProjectDataOfTicket p where p.projectId = :projectId")
+    Optional<Long> findTicketsVersionByProjectId(@Param("projectId") UUID projectId);
+
+    @Query("select coalesce(p.ticketCount, 0) as ticketCount, coalesce(p.overdueTicketCount, 0) as overdueTicketCount, " +
+            "p.overdueCountedAt as overdueCountedAt from ProjectDataOfTicket p where p.projectId = :projectId")
+    Optional<ProjectTicketCounts> findTicketCountsByProjectId(@Param("projectId") UUID projectId);
+
+    // atomic in the database, so concurrent changes to the tickets of a project never share a version
+    @Modifying
+    @Query("update ProjectDataOfTicket p set p.ticketsVersion = coalesce(p.ticketsVersion, 0) + 1 where p.projectId = :projectId")
+    Integer incrementTicketsVersionByProjectId(@Param("projectId") UUID projectId);
+
+    @Modifying
+    @Query("update ProjectDataOfTicket p set p.ticketCount = coalesce(p.ticketCount, 0) + :delta where p.projectId = :projectId")
+    Integer addToTicketCountByProjectId(@Param("projectId") UUID projectId, @Param("delta") Long delta);
+
+    @Modifying
+    @Query("update ProjectDataOfTicket p " +
+            "set p.ticketCount = :ticketCount, p.overdueTicketCount = :overdueTicketCount, p.overdueCountedAt = :countedAt " +
+            "where p.projectId = :projectId")
+    Integer updateTicketCountsByProjectId(
+            @Param("projectId") UUID projectId,
+            @Param("ticketCount") Long ticketCount,
+            @Param("overdueTicketCount") Long overdueTicketCount,
+            @Param("countedAt") LocalDateTime countedAt
+    );
 }
@@ -0,0 +1,9 @@
+package com.kett.TicketSystem.ticket.repository;
+
+import java.time.LocalDateTime;
+
+public interface ProjectTicketCounts {
+    Long getTicketCount();
+    Long getOverdueTicketCount();
+    LocalDateTime getOverdueCountedAt();
+}
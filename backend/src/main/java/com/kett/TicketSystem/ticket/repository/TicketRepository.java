@@ -1,22 +1,39 @@
 package com.kett.TicketSystem.ticket.repository;
 
 import com.kett.TicketSystem.ticket.domain.Ticket;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, UUID> {
     List<Ticket> findByPhaseId(UUID phaseId);
     List<Ticket> findByProjectId(UUID projectId);
+    List<Ticket> findByProjectId(UUID projectId, Pageable pageable);
+    List<Ticket> findByProjectIdAndAssigneeIdsContaining(UUID projectId, UUID assigneeId);
     List<Ticket> findByAssigneeIdsContaining(UUID assigneeId);
     List<Ticket> findByPhaseIdInAndAssigneeIdsContaining(List<UUID> phaseIds, UUID assigneeId);
 
     Boolean existsByPhaseIdEquals(UUID phaseId);
 
-    void deleteByProjectId(UUID projectId);
+    Long countByProjectId(UUID projectId);
+    Long countByProjectIdAndDueTimeBefore(UUID projectId, LocalDateTime dueTime);
+
+    @Query("select t.phaseId as phaseId, count(t) as ticketCount from Ticket t where t.projectId = :projectId group by t.phaseId")
+    List<PhaseTicketCount> countByProjectIdGroupByPhaseId(@Param("projectId") UUID projectId);
+
+    @Query("select a as assigneeId, count(t) as ticketCount from Ticket t join t.assigneeIds a where t.projectId = :projectId group by a")
+    List<AssigneeTicketCount> countByProjectIdGroupByAssigneeId(@Param("projectId") UUID projectId);
+
+    @Query("select t.version from Ticket t where t.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
 
     Long removeById(UUID id);
 }
@@ -88,7 +88,11 @@ public class UserDomainService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String email) throws NoUserFoundException, UsernameNotFoundException {
-        User user = this.getUserByEMailAddress(EmailAddress.fromString(email));
+        return this.loadUserByEmailAddress(EmailAddress.fromString(email));
+    }
+
+    public UserDetails loadUserByEmailAddress(EmailAddress email) throws NoUserFoundException {
+        User user = this.getUserByEMailAddress(email);
         List<GrantedAuthority> grantedAuthorities = this.getAllUserAuthoritiesByUserId(user.getId());
 
         return new org.springframework.security.core.userdetails.User(
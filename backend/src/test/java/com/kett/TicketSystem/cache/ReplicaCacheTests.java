@@ -0,0 +1,110 @@
+package com.kett.TicketSystem.cache;
+
+import com.kett.TicketSystem.common.cache.ReplicaCache;
+import com.kett.TicketSystem.common.cache.ReplicaCacheFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaCacheTests {
+    private MeterRegistry meterRegistry;
+    private ReplicaCache<UUID, UUID> replicaCache;
+    private AtomicInteger numOfLoads;
+
+    private UUID key0;
+    private UUID key1;
+    private UUID value0;
+
+    @BeforeEach
+    public void buildUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        replicaCache = new ReplicaCacheFactory(meterRegistry, 2).create("test");
+        numOfLoads = new AtomicInteger();
+
+        key0 = UUID.randomUUID();
+        key1 = UUID.randomUUID();
+        value0 = UUID.randomUUID();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        meterRegistry = null;
+        replicaCache = null;
+        numOfLoads = null;
+
+        key0 = null;
+        key1 = null;
+        value0 = null;
+    }
+
+    @Test
+    public void readThroughTest() {
+        assertEquals(Optional.of(value0), replicaCache.get(key0, this::load));
+        assertEquals(Optional.of(value0), replicaCache.get(key0, this::load));
+
+        assertEquals(1, numOfLoads.get());
+        assertEquals(1.0, meterRegistry.get("replica.cache.requests").tag("cache", "test").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("replica.cache.requests").tag("cache", "test").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    public void missingValuesAreNotCachedTest() {
+        assertTrue(replicaCache.get(key1, this::loadNothing).isEmpty());
+        replicaCache.put(key1, value0);
+        assertEquals(Optional.of(value0), replicaCache.get(key1, this::loadNothing));
+    }
+
+    @Test
+    public void evictTest() {
+        replicaCache.put(key0, value0);
+        replicaCache.put(key1, value0);
+
+        replicaCache.evict(key0);
+        assertTrue(replicaCache.get(key0, this::loadNothing).isEmpty());
+
+        replicaCache.evictIf(value -> value.equals(value0));
+        assertTrue(replicaCache.get(key1, this::loadNothing).isEmpty());
+    }
+
+    @Test
+    public void evictDuringLoadTest() {
+        // the loader still sees the row, the deletion commits and evicts before the loaded value is put
+        Optional<UUID> loadedValue = replicaCache.get(key0, key -> {
+            Optional<UUID> value = this.load(key);
+            replicaCache.evict(key);
+            return value;
+        });
+        assertEquals(Optional.of(value0), loadedValue);
+
+        assertTrue(replicaCache.get(key0, this::loadNothing).isEmpty());
+        assertEquals(Optional.of(value0), replicaCache.get(key0, this::load));
+        assertEquals(Optional.of(value0), replicaCache.get(key0, this::loadNothing));
+    }
+
+    @Test
+    public void boundedSizeTest() {
+        replicaCache.put(key0, value0);
+        replicaCache.put(key1, value0);
+        replicaCache.put(UUID.randomUUID(), value0);
+
+        assertEquals(1.0, meterRegistry.get("replica.cache.size").tag("cache", "test").gauge().value());
+        assertEquals(2.0, meterRegistry.get("replica.cache.evictions").tag("cache", "test").counter().count());
+    }
+
+    private Optional<UUID> load(UUID key) {
+        numOfLoads.incrementAndGet();
+        return Optional.of(value0);
+    }
+
+    private Optional<UUID> loadNothing(UUID key) {
+        return Optional.empty();
+    }
+}
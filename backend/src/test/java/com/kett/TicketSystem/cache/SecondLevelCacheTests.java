@@ -0,0 +1,72 @@
+package com.kett.TicketSystem.cache;
+
+import com.kett.TicketSystem.project.domain.Project;
+import com.kett.TicketSystem.project.repository.ProjectRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles({ "test" })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class SecondLevelCacheTests {
+    private final ProjectRepository projectRepository;
+    private final Statistics statistics;
+
+    private UUID projectId;
+
+    @Autowired
+    public SecondLevelCacheTests(
+            ProjectRepository projectRepository,
+            EntityManagerFactory entityManagerFactory
+    ) {
+        this.projectRepository = projectRepository;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    public void buildUp() {
+        projectId = projectRepository.save(new Project("Cached", "read on nearly every request")).getId();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        projectRepository.deleteAll();
+        projectId = null;
+    }
+
+    @Test
+    public void repeatedReadsHitCacheTest() {
+        for (int i = 0; i < 3; i++) {
+            Project project = projectRepository.findById(projectId).orElseThrow();
+            assertEquals("Cached", project.getName());
+        }
+
+        CacheRegionStatistics projectRegion = statistics.getDomainDataRegionStatistics("project");
+        assertEquals(3, projectRegion.getHitCount());
+        assertEquals(0, projectRegion.getMissCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void updateIsVisibleThroughCacheTest() {
+        Project project = projectRepository.findById(projectId).orElseThrow();
+        project.setName("Renamed");
+        projectRepository.save(project);
+
+        assertEquals("Renamed", projectRepository.findById(projectId).orElseThrow().getName());
+    }
+}
@@ -140,4 +140,29 @@ public class EmailAddressTests {
         assertEquals(validDomain2, EmailAddress.fromString(validAddress2).getDomain());
         assertEquals(validDomain3, EmailAddress.fromString(validAddress3).getDomain());
     }
+
+    @Test
+    public void checkRepeatedValidation() {
+        EmailAddress first = EmailAddress.fromString(validAddress0);
+        EmailAddress second = EmailAddress.fromString(validAddress0);
+        assertEquals(first, second);
+        assertNotSame(first, second);
+
+        assertThrows(EmailAddressException.class, () -> EmailAddress.fromString(invalidAddress2));
+        assertThrows(EmailAddressException.class, () -> EmailAddress.fromString(invalidAddress2));
+    }
+
+    @Test
+    public void checkTrustedEmailAddress() {
+        assertEquals(EmailAddress.fromString(validAddress0), EmailAddress.fromTrustedString(validAddress0));
+        assertEquals(EmailAddress.fromString(validAddress1), EmailAddress.fromTrustedString(validAddress1));
+        assertEquals(EmailAddress.fromString(validAddress2), EmailAddress.fromTrustedString(validAddress2));
+        assertEquals(EmailAddress.fromString(validAddress3), EmailAddress.fromTrustedString(validAddress3));
+
+        assertEquals(validLocalPart0, EmailAddress.fromTrustedString(validAddress0).getLocalPart());
+        assertEquals(validDomain0, EmailAddress.fromTrustedString(validAddress0).getDomain());
+
+        assertThrows(EmailAddressException.class, () -> EmailAddress.fromTrustedString(invalidAddress0));
+        assertThrows(EmailAddressException.class, () -> EmailAddress.fromTrustedString(invalidAddress1));
+    }
 }
@@ -0,0 +1,208 @@
+package com.kett.TicketSystem.eventlog;
+
+import com.kett.TicketSystem.common.eventlog.EventLog;
+import com.kett.TicketSystem.common.eventlog.EventReplay;
+import com.kett.TicketSystem.common.eventlog.ReplicaRebuild;
+import com.kett.TicketSystem.membership.domain.events.MembershipAcceptedEvent;
+import com.kett.TicketSystem.membership.domain.events.MembershipDeletedEvent;
+import com.kett.TicketSystem.phase.domain.Phase;
+import com.kett.TicketSystem.phase.domain.events.PhaseDeletedEvent;
+import com.kett.TicketSystem.phase.domain.events.PhasesCreatedEvent;
+import com.kett.TicketSystem.phase.repository.PhaseRepository;
+import com.kett.TicketSystem.project.domain.events.ProjectCreatedEvent;
+import com.kett.TicketSystem.ticket.domain.consumedData.MembershipDataOfTicket;
+import com.kett.TicketSystem.ticket.domain.consumedData.PhaseDataOfTicket;
+import com.kett.TicketSystem.ticket.domain.events.TicketCreatedEvent;
+import com.kett.TicketSystem.ticket.repository.MembershipDataOfTicketRepository;
+import com.kett.TicketSystem.ticket.repository.PhaseDataOfTicketRepository;
+import com.kett.TicketSystem.ticket.repository.ProjectDataOfTicketRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles({ "test" })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class EventReplayTests {
+    private final List<ReplicaRebuild> replicaRebuilds;
+    private final PlatformTransactionManager transactionManager;
+    private final ProjectDataOfTicketRepository projectDataOfTicketRepository;
+    private final PhaseDataOfTicketRepository phaseDataOfTicketRepository;
+    private final MembershipDataOfTicketRepository membershipDataOfTicketRepository;
+    private final PhaseRepository phaseRepository;
+
+    @TempDir
+    Path directory;
+
+    private MeterRegistry meterRegistry;
+    private EventLog eventLog;
+    private EventReplay eventReplay;
+    private UUID projectId;
+    private UUID phaseId0;
+    private UUID phaseId1;
+    private UUID membershipId;
+
+    @Autowired
+    public EventReplayTests(
+            List<ReplicaRebuild> replicaRebuilds,
+            PlatformTransactionManager transactionManager,
+            ProjectDataOfTicketRepository projectDataOfTicketRepository,
+            PhaseDataOfTicketRepository phaseDataOfTicketRepository,
+            MembershipDataOfTicketRepository membershipDataOfTicketRepository,
+            PhaseRepository phaseRepository
+    ) {
+        this.replicaRebuilds = replicaRebuilds;
+        this.transactionManager = transactionManager;
+        this.projectDataOfTicketRepository = projectDataOfTicketRepository;
+        this.phaseDataOfTicketRepository = phaseDataOfTicketRepository;
+        this.membershipDataOfTicketRepository = membershipDataOfTicketRepository;
+        this.phaseRepository = phaseRepository;
+    }
+
+    @BeforeEach
+    public void buildUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        eventLog = new EventLog(meterRegistry, directory.toString(), 4, 256, List.of());
+        eventReplay = new EventReplay(eventLog, replicaRebuilds, transactionManager, meterRegistry, 2, 2);
+        projectId = UUID.randomUUID();
+        phaseId0 = UUID.randomUUID();
+        phaseId1 = UUID.randomUUID();
+        membershipId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        eventLog.close();
+        meterRegistry = null;
+        eventLog = null;
+        eventReplay = null;
+        projectId = null;
+        phaseId0 = null;
+        phaseId1 = null;
+        membershipId = null;
+    }
+
+    private void appendProjectHistory() {
+        UUID userId = UUID.randomUUID();
+        eventLog.handleDomainEvent(new ProjectCreatedEvent(projectId, userId));
+        eventLog.handleDomainEvent(new PhasesCreatedEvent(projectId, List.of(phaseId0, phaseId1)));
+        eventLog.handleDomainEvent(new MembershipAcceptedEvent(membershipId, projectId, userId));
+        eventLog.handleDomainEvent(new MembershipAcceptedEvent(UUID.randomUUID(), projectId, UUID.randomUUID()));
+        eventLog.handleDomainEvent(new PhaseDeletedEvent(phaseId0, projectId));
+        eventLog.handleDomainEvent(new MembershipDeletedEvent(membershipId, projectId, userId));
+    }
+
+    @Test
+    public void rebuildTicketReplicasTest() throws IOException {
+        appendProjectHistory();
+
+        long numOfReplayed = eventReplay.rebuild("ticket");
+
+        assertEquals(6, numOfReplayed);
+        assertTrue(projectDataOfTicketRepository.existsByProjectId(projectId));
+        assertFalse(phaseDataOfTicketRepository.existsByPhaseId(phaseId0));
+        assertTrue(phaseDataOfTicketRepository.existsByPhaseId(phaseId1));
+        assertFalse(membershipDataOfTicketRepository.existsByMembershipId(membershipId));
+        assertEquals(1, membershipDataOfTicketRepository.findByProjectId(projectId).size());
+        assertEquals(6, meterRegistry.get("event.log.replayed").tag("replica", "ticket").counter().count());
+    }
+
+    @Test
+    public void rebuildIsRepeatableTest() throws IOException {
+        appendProjectHistory();
+
+        eventReplay.rebuild("ticket");
+        eventReplay.rebuild("ticket");
+
+        assertEquals(1, phaseDataOfTicketRepository.findByProjectId(projectId).size());
+        assertEquals(1, membershipDataOfTicketRepository.findByProjectId(projectId).size());
+    }
+
+    @Test
+    public void rebuildKeepsProjectsCreatedBeforeTheLogTest() throws IOException {
+        UUID earlierProjectId = UUID.randomUUID();
+        UUID earlierPhaseId = UUID.randomUUID();
+        phaseDataOfTicketRepository.save(new PhaseDataOfTicket(earlierPhaseId, null, earlierProjectId));
+        membershipDataOfTicketRepository.save(new MembershipDataOfTicket(UUID.randomUUID(), UUID.randomUUID(), earlierProjectId));
+        appendProjectHistory();
+        // the log was enabled after the creation of the earlier project
+        eventLog.handleDomainEvent(new MembershipAcceptedEvent(UUID.randomUUID(), earlierProjectId, UUID.randomUUID()));
+
+        eventReplay.rebuild("ticket");
+
+        assertTrue(phaseDataOfTicketRepository.existsByPhaseId(earlierPhaseId));
+        assertEquals(1, membershipDataOfTicketRepository.findByProjectId(earlierProjectId).size());
+        assertEquals(1, membershipDataOfTicketRepository.findByProjectId(projectId).size());
+    }
+
+    @Test
+    public void rebuildPhaseTicketCountsTest() throws IOException {
+        Phase phase0 = phaseRepository.save(new Phase(projectId, "phase0", null, null));
+        Phase phase1 = phaseRepository.save(new Phase(projectId, "phase1", null, null));
+        Phase earlierPhase = new Phase(UUID.randomUUID(), "earlier", null, null);
+        earlierPhase.setTicketCount(5);
+        earlierPhase = phaseRepository.save(earlierPhase);
+
+        UUID userId = UUID.randomUUID();
+        eventLog.handleDomainEvent(new ProjectCreatedEvent(projectId, userId));
+        eventLog.handleDomainEvent(new PhasesCreatedEvent(projectId, List.of(phase0.getId(), phase1.getId())));
+        eventLog.handleDomainEvent(new TicketCreatedEvent(UUID.randomUUID(), projectId, userId, phase1.getId()));
+        eventLog.handleDomainEvent(new TicketCreatedEvent(UUID.randomUUID(), projectId, userId, phase1.getId()));
+        // logged before the event carried the phase, the ticket went to the first phase
+        eventLog.handleDomainEvent(new TicketCreatedEvent(UUID.randomUUID(), projectId, userId));
+        // the earlier project was created before the log was enabled, its count is not touched
+        eventLog.handleDomainEvent(new TicketCreatedEvent(UUID.randomUUID(), earlierPhase.getProjectId(), userId, earlierPhase.getId()));
+
+        eventReplay.rebuild("phase");
+
+        assertEquals(1, phaseRepository.findById(phase0.getId()).orElseThrow().getTicketCount());
+        assertEquals(2, phaseRepository.findById(phase1.getId()).orElseThrow().getTicketCount());
+        assertEquals(5, phaseRepository.findById(earlierPhase.getId()).orElseThrow().getTicketCount());
+    }
+
+    @Test
+    public void segmentsRollOverTest() throws IOException {
+        appendProjectHistory();
+
+        // all events of the project are in one partition, a segment holds only about one event
+        try (Stream<Path> files = Files.walk(directory)) {
+            assertTrue(files.filter(Files::isRegularFile).count() > 1);
+        }
+    }
+
+    @Test
+    public void tornLineIsSkippedTest() throws IOException {
+        appendProjectHistory();
+        eventLog.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            Path segment = files.filter(Files::isRegularFile).findFirst().orElseThrow();
+            Files.writeString(segment, "{\"type\":\"PhaseDeletedEv", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        }
+
+        assertEquals(6, eventReplay.rebuild("ticket"));
+    }
+
+    @Test
+    public void rebuildUnknownReplicaTest() {
+        assertThrows(IllegalArgumentException.class, () -> eventReplay.rebuild("unknown"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.kett.TicketSystem.eventprocessing;
+
+import com.kett.TicketSystem.common.eventprocessing.ProcessedEventRepository;
+import com.kett.TicketSystem.common.eventprocessing.ProcessedEvents;
+import com.kett.TicketSystem.phase.domain.events.ProjectPhasesDeletedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles({ "test" })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@Transactional
+public class ProcessedEventsTests {
+    private final ProcessedEvents processedEvents;
+    private final ProcessedEventRepository processedEventRepository;
+
+    private ProjectPhasesDeletedEvent event;
+
+    @Autowired
+    public ProcessedEventsTests(ProcessedEvents processedEvents, ProcessedEventRepository processedEventRepository) {
+        this.processedEvents = processedEvents;
+        this.processedEventRepository = processedEventRepository;
+    }
+
+    @BeforeEach
+    public void buildUp() {
+        event = new ProjectPhasesDeletedEvent(UUID.randomUUID(), 4, true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        event = null;
+    }
+
+    @Test
+    public void markAsProcessedOncePerConsumerTest() {
+        assertTrue(processedEvents.markAsProcessed(event, "project"));
+        assertFalse(processedEvents.markAsProcessed(event, "project"));
+        assertTrue(processedEvents.markAsProcessed(event, "notification"));
+        assertEquals(2, processedEventRepository.count());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void markAsProcessedWithoutTransactionTest() {
+        assertThrows(IllegalTransactionStateException.class, () -> processedEvents.markAsProcessed(event, "project"));
+    }
+
+    @Test
+    public void compactKeepsRecentEntriesTest() {
+        processedEvents.markAsProcessed(event, "project");
+        processedEvents.compact();
+        assertFalse(processedEvents.markAsProcessed(event, "project"));
+    }
+}
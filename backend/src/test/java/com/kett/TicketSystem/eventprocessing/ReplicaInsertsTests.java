@@ -0,0 +1,76 @@
+package com.kett.TicketSystem.eventprocessing;
+
+import com.kett.TicketSystem.common.eventprocessing.ReplicaInserts;
+import com.kett.TicketSystem.ticket.domain.consumedData.ProjectDataOfTicket;
+import com.kett.TicketSystem.ticket.repository.ProjectDataOfTicketRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles({ "test" })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ReplicaInsertsTests {
+    private final ReplicaInserts replicaInserts;
+    private final ProjectDataOfTicketRepository projectDataOfTicketRepository;
+
+    private UUID projectId;
+
+    @Autowired
+    public ReplicaInsertsTests(ReplicaInserts replicaInserts, ProjectDataOfTicketRepository projectDataOfTicketRepository) {
+        this.replicaInserts = replicaInserts;
+        this.projectDataOfTicketRepository = projectDataOfTicketRepository;
+    }
+
+    @BeforeEach
+    public void buildUp() {
+        projectId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        projectId = null;
+        projectDataOfTicketRepository.deleteAll();
+    }
+
+    @Test
+    public void insertIfAbsentTest() {
+        replicaInserts.insertIfAbsent(
+                () -> projectDataOfTicketRepository.existsByProjectId(projectId),
+                () -> projectDataOfTicketRepository.saveAndFlush(new ProjectDataOfTicket(projectId)),
+                "project data of project " + projectId
+        );
+        replicaInserts.insertIfAbsent(
+                () -> projectDataOfTicketRepository.existsByProjectId(projectId),
+                () -> projectDataOfTicketRepository.saveAndFlush(new ProjectDataOfTicket(projectId)),
+                "project data of project " + projectId
+        );
+
+        assertEquals(1, projectDataOfTicketRepository.count());
+    }
+
+    @Test
+    public void lostRaceIsIgnoredTest() {
+        projectDataOfTicketRepository.saveAndFlush(new ProjectDataOfTicket(projectId));
+
+        // a concurrent delivery that checked before the first insert was committed
+        assertDoesNotThrow(() ->
+                replicaInserts.insertIfAbsent(
+                        () -> false,
+                        () -> projectDataOfTicketRepository.saveAndFlush(new ProjectDataOfTicket(projectId)),
+                        "project data of project " + projectId
+                )
+        );
+
+        assertEquals(1, projectDataOfTicketRepository.count());
+        assertTrue(projectDataOfTicketRepository.findByProjectId(projectId).isPresent());
+    }
+}
@@ -0,0 +1,113 @@
+package com.kett.TicketSystem.locking;
+
+import com.kett.TicketSystem.common.locking.ProjectLocks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProjectLocksTests {
+    private static final int NUM_OF_STRIPES = 4;
+
+    private MeterRegistry meterRegistry;
+    private ProjectLocks projectLocks;
+    private UUID projectId;
+
+    @BeforeEach
+    public void buildUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // h2 is no postgres, so only the in-jvm stripes are used
+        projectLocks = new ProjectLocks(new DriverManagerDataSource("jdbc:h2:mem:projectLocks"), null, meterRegistry, NUM_OF_STRIPES);
+        projectId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            completeTransaction();
+        }
+        meterRegistry = null;
+        projectLocks = null;
+        projectId = null;
+    }
+
+    @Test
+    public void lockWithoutTransactionTest() {
+        assertThrows(IllegalStateException.class, () -> projectLocks.lockForTransaction(projectId));
+    }
+
+    @Test
+    public void sameProjectWaitsForCompletionTest() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        projectLocks.lockForTransaction(projectId);
+
+        AtomicBoolean acquired = new AtomicBoolean(false);
+        CompletableFuture<Void> otherWriter = lockInOtherTransaction(projectId, acquired);
+
+        Thread.sleep(100);
+        assertFalse(acquired.get());
+
+        completeTransaction();
+        await().atMost(Duration.ofSeconds(5)).untilTrue(acquired);
+        otherWriter.get();
+        assertEquals(2, meterRegistry.get("project.lock.wait").timer().count());
+    }
+
+    @Test
+    public void otherProjectProceedsTest() throws Exception {
+        UUID otherProjectId = UUID.randomUUID();
+        while (Math.floorMod(otherProjectId.hashCode(), NUM_OF_STRIPES) == Math.floorMod(projectId.hashCode(), NUM_OF_STRIPES)) {
+            otherProjectId = UUID.randomUUID();
+        }
+
+        TransactionSynchronizationManager.initSynchronization();
+        projectLocks.lockForTransaction(projectId);
+
+        AtomicBoolean acquired = new AtomicBoolean(false);
+        lockInOtherTransaction(otherProjectId, acquired).get();
+        assertTrue(acquired.get());
+    }
+
+    @Test
+    public void reentrantLockTest() {
+        TransactionSynchronizationManager.initSynchronization();
+        projectLocks.lockForTransaction(projectId);
+        projectLocks.lockForTransaction(projectId);
+        completeTransaction();
+
+        AtomicBoolean acquired = new AtomicBoolean(false);
+        lockInOtherTransaction(projectId, acquired).join();
+        assertTrue(acquired.get());
+    }
+
+    private CompletableFuture<Void> lockInOtherTransaction(UUID id, AtomicBoolean acquired) {
+        return CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                projectLocks.lockForTransaction(id);
+                acquired.set(true);
+            } finally {
+                completeTransaction();
+            }
+        });
+    }
+
+    private static void completeTransaction() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED)
+        );
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
@@ -0,0 +1,46 @@
+package com.kett.TicketSystem.logging;
+
+import com.kett.TicketSystem.common.logging.MdcTaskDecorator;
+import com.kett.TicketSystem.project.domain.events.ProjectDeletedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TracePropagationTests {
+
+    @AfterEach
+    public void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    public void domainEventCapturesTransactionIdTest() {
+        MDC.put("transactionId", "tid-0");
+        ProjectDeletedEvent event0 = new ProjectDeletedEvent(UUID.randomUUID());
+        MDC.remove("transactionId");
+        ProjectDeletedEvent event1 = new ProjectDeletedEvent(UUID.randomUUID());
+
+        assertEquals("tid-0", event0.getTransactionId());
+        assertNull(event1.getTransactionId());
+    }
+
+    @Test
+    public void mdcTaskDecoratorPropagatesContextTest() throws InterruptedException {
+        MDC.put("transactionId", "tid-1");
+        AtomicReference<String> seenTransactionId = new AtomicReference<>();
+        Runnable decorated = new MdcTaskDecorator().decorate(() -> seenTransactionId.set(MDC.get("transactionId")));
+        MDC.clear();
+
+        Thread thread = new Thread(decorated);
+        thread.start();
+        thread.join();
+
+        assertEquals("tid-1", seenTransactionId.get());
+        assertNull(MDC.get("transactionId"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.kett.TicketSystem.metrics;
+
+import com.kett.TicketSystem.ticket.domain.events.TicketAssignedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles({ "test" })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class EventMetricsTests {
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public EventMetricsTests(ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Test
+    public void publishedEventsAreCountedTest() {
+        eventPublisher.publishEvent(new TicketAssignedEvent(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()));
+        eventPublisher.publishEvent(new TicketAssignedEvent(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()));
+
+        double count = meterRegistry
+                .get("domain.events.published")
+                .tag("event", "TicketAssignedEvent")
+                .counter()
+                .count();
+        assertEquals(2.0, count);
+    }
+
+    @Test
+    public void asyncListenersAreTimedTest() {
+        eventPublisher.publishEvent(new TicketAssignedEvent(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()));
+
+        await().until(() ->
+                meterRegistry
+                        .find("domain.events.listener")
+                        .tag("listener", "NotificationDomainService.handleTicketAssignedEvent")
+                        .timer() != null
+        );
+        assertEquals(1, meterRegistry
+                .get("domain.events.listener")
+                .tag("listener", "NotificationDomainService.handleTicketAssignedEvent")
+                .timer()
+                .count()
+        );
+        assertTrue(meterRegistry.get("domain.events.async.queue").timer().count() >= 1);
+    }
+}
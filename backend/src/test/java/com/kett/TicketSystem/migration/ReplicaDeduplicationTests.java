@@ -0,0 +1,102 @@
+package com.kett.TicketSystem.migration;
+
+import com.kett.TicketSystem.common.migration.ReplicaDeduplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles({ "test" })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ReplicaDeduplicationTests {
+    private final ReplicaDeduplication replicaDeduplication;
+    private final JdbcTemplate jdbcTemplate;
+
+    private UUID projectId0;
+    private UUID projectId1;
+
+    @Autowired
+    public ReplicaDeduplicationTests(ReplicaDeduplication replicaDeduplication, JdbcTemplate jdbcTemplate) {
+        this.replicaDeduplication = replicaDeduplication;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @BeforeEach
+    public void buildUp() {
+        projectId0 = UUID.randomUUID();
+        projectId1 = UUID.randomUUID();
+
+        // a schema from before the unique index
+        jdbcTemplate.execute("alter table project_data_of_membership drop constraint uk_project_data_of_membership_project");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        projectId0 = null;
+        projectId1 = null;
+
+        jdbcTemplate.update("delete from project_data_of_membership");
+    }
+
+    @Test
+    public void deduplicateBeforeIndexingTest() {
+        this.insertProjectDataOfMembership(projectId0);
+        this.insertProjectDataOfMembership(projectId0);
+        this.insertProjectDataOfMembership(projectId0);
+        this.insertProjectDataOfMembership(projectId1);
+
+        replicaDeduplication.run();
+
+        assertEquals(1, this.countProjectDataOfMembership(projectId0));
+        assertEquals(1, this.countProjectDataOfMembership(projectId1));
+        assertDoesNotThrow(() ->
+                jdbcTemplate.execute("alter table project_data_of_membership add constraint uk_project_data_of_membership_project unique (project_id)")
+        );
+    }
+
+    @Test
+    public void nothingToDeduplicateTest() {
+        this.insertProjectDataOfMembership(projectId0);
+        this.insertProjectDataOfMembership(projectId1);
+
+        replicaDeduplication.run();
+
+        assertEquals(1, this.countProjectDataOfMembership(projectId0));
+        assertEquals(1, this.countProjectDataOfMembership(projectId1));
+    }
+
+    private void insertProjectDataOfMembership(UUID projectId) {
+        jdbcTemplate.update(
+                "insert into project_data_of_membership (id, project_id) values (?, ?)",
+                toBytes(UUID.randomUUID()),
+                toBytes(projectId)
+        );
+    }
+
+    private Integer countProjectDataOfMembership(UUID projectId) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from project_data_of_membership where project_id = ?",
+                Integer.class,
+                toBytes(projectId)
+        );
+    }
+
+    // binary layout of uuid columns
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer
+                .allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,74 @@
+package com.kett.TicketSystem.migration;
+
+import com.kett.TicketSystem.common.migration.VersionBackfill;
+import com.kett.TicketSystem.project.domain.Project;
+import com.kett.TicketSystem.project.domain.ProjectDomainService;
+import com.kett.TicketSystem.project.repository.ProjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles({ "test" })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class VersionBackfillTests {
+    private final VersionBackfill versionBackfill;
+    private final ProjectDomainService projectDomainService;
+    private final ProjectRepository projectRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private UUID projectId;
+
+    @Autowired
+    public VersionBackfillTests(
+            VersionBackfill versionBackfill,
+            ProjectDomainService projectDomainService,
+            ProjectRepository projectRepository,
+            JdbcTemplate jdbcTemplate,
+            EntityManagerFactory entityManagerFactory
+    ) {
+        this.versionBackfill = versionBackfill;
+        this.projectDomainService = projectDomainService;
+        this.projectRepository = projectRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @BeforeEach
+    public void buildUp() {
+        projectId = projectRepository.save(new Project("Mozzarella", "A project from before versioning")).getId();
+
+        // a row as it is after the schema update added the version column
+        jdbcTemplate.update("update project set version = null");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        projectId = null;
+        projectRepository.deleteAll();
+    }
+
+    @Test
+    public void backfillVersionTest() {
+        versionBackfill.run();
+
+        assertEquals(0L, jdbcTemplate.queryForObject("select version from project", Long.class));
+        assertEquals(0L, projectRepository.findById(projectId).orElseThrow().getVersion());
+
+        projectDomainService.patchProjectById(projectId, "Burrata", null);
+        assertEquals(1L, projectRepository.findById(projectId).orElseThrow().getVersion());
+        assertEquals("Burrata", projectRepository.findById(projectId).orElseThrow().getName());
+    }
+}
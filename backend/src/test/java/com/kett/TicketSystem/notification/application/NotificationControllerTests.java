@@ -6,6 +6,7 @@ import com.kett.TicketSystem.membership.domain.events.UnacceptedProjectMembershi
 import com.kett.TicketSystem.notification.application.dto.NotificationPatchDto;
 import com.kett.TicketSystem.notification.domain.Notification;
 import com.kett.TicketSystem.notification.domain.NotificationDomainService;
+import com.kett.TicketSystem.notification.domain.NotificationType;
 import com.kett.TicketSystem.notification.domain.exceptions.NoNotificationFoundException;
 import com.kett.TicketSystem.notification.repository.NotificationRepository;
 import com.kett.TicketSystem.ticket.domain.events.TicketAssignedEvent;
@@ -19,20 +20,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import javax.servlet.http.Cookie;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
 
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -46,7 +54,10 @@ public class NotificationControllerTests {
     private final ApplicationEventPublisher eventPublisher;
     private final NotificationDomainService notificationDomainService;
     private final NotificationRepository notificationRepository;
+    private final NotificationStreamService notificationStreamService;
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
     private final RestRequestHelper restMinion;
 
     private UUID userId0;
@@ -72,13 +83,19 @@ public class NotificationControllerTests {
             ApplicationEventPublisher eventPublisher,
             NotificationDomainService notificationDomainService,
             NotificationRepository notificationRepository,
-            UserRepository userRepository) {
+            NotificationStreamService notificationStreamService,
+            UserRepository userRepository,
+            JdbcTemplate jdbcTemplate,
+            EntityManager entityManager) {
         this.mockMvc = mockMvc;
         this.objectMapper = objectMapper;
         this.eventPublisher = eventPublisher;
         this.notificationDomainService = notificationDomainService;
         this.notificationRepository = notificationRepository;
+        this.notificationStreamService = notificationStreamService;
         this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
         this.restMinion = new RestRequestHelper(mockMvc, objectMapper);
     }
 
@@ -192,6 +209,33 @@ public class NotificationControllerTests {
                         .andReturn();
     }
 
+    @Test
+    public void getLegacyNotificationByIdTest() throws Exception {
+        UUID notificationId = notificationRepository
+                .saveAndFlush(new Notification(userId0, NotificationType.PROJECT_INVITATION, projectId, null))
+                .getId();
+
+        // a row as written before notifications were typed: no type, only the stored text
+        String legacyContent = "You got invited to project " + projectId + ".";
+        jdbcTemplate.update("update notification set type = null, project_id = null, content = ?", legacyContent);
+        entityManager.clear();
+
+        mockMvc.perform(
+                        get("/notifications/" + notificationId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", jwt0))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(notificationId.toString()))
+                .andExpect(jsonPath("$.type").doesNotExist())
+                .andExpect(jsonPath("$.content").value(legacyContent));
+        mockMvc.perform(
+                        get("/notifications")
+                                .queryParam("recipientId", userId0.toString())
+                                .header("Authorization", jwt0))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].content").value(legacyContent));
+    }
+
     @Test
     public void getNotificationByWrongIdTest() throws Exception {
         MvcResult getByIdResult =
@@ -379,4 +423,168 @@ public class NotificationControllerTests {
         assertEquals(false, notification.getIsRead());
         assertTrue(notification.getContent().contains(ticketId.toString()));
     }
+
+    @Test
+    public void streamNotificationsTest() throws Exception {
+
+        MvcResult streamResult =
+                mockMvc.perform(
+                                get("/notifications/stream")
+                                        .header("Authorization", jwt0))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+        assertEquals(1, notificationStreamService.getNumberOfSubscribers(userId0));
+
+        eventPublisher.publishEvent(new TicketAssignedEvent(ticketId, projectId, userId0));
+        eventPublisher.publishEvent(new TicketAssignedEvent(ticketId, projectId, userId1));
+
+        await().until(() -> streamResult.getResponse().getContentAsString().contains("event:notification"));
+        String streamContent = streamResult.getResponse().getContentAsString();
+        assertTrue(streamContent.contains(ticketId.toString()));
+        assertTrue(streamContent.contains(userId0.toString()));
+        assertFalse(streamContent.contains(userId1.toString()));
+    }
+
+    @Test
+    public void resumeNotificationStreamTest() throws Exception {
+        // created right after another, so they may share a creation time. the oldest in keyset order was received
+        for (int i = 0; i < 3; i++) {
+            notificationRepository.save(new Notification(userId0, NotificationType.PROJECT_INVITATION, projectId, null));
+        }
+        List<Notification> notifications = notificationRepository.findByRecipientIdOrderByCreationTimeDescIdDesc(userId0, PageRequest.of(0, 3));
+        Notification receivedNotification = notifications.get(2);
+
+        MvcResult streamResult =
+                mockMvc.perform(
+                                get("/notifications/stream")
+                                        .header("Authorization", jwt0)
+                                        .header("Last-Event-ID", receivedNotification.getId().toString()))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        String streamContent = streamResult.getResponse().getContentAsString();
+        assertTrue(streamContent.contains("id:" + notifications.get(0).getId()));
+        assertTrue(streamContent.contains("id:" + notifications.get(1).getId()));
+        assertFalse(streamContent.contains("id:" + receivedNotification.getId()));
+    }
+
+    @Test
+    public void getInboxPagesTest() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            notificationRepository.save(new Notification(userId0, NotificationType.TICKET_ASSIGNED, projectId, ticketId));
+        }
+        notificationRepository.save(new Notification(userId1, NotificationType.TICKET_ASSIGNED, projectId, ticketId));
+
+        List<String> receivedIds = new ArrayList<>();
+        String cursor = null;
+        int numOfPages = 0;
+        do {
+            MvcResult getResult =
+                    mockMvc.perform(
+                                    get("/notifications/inbox")
+                                            .queryParam("limit", "2")
+                                            .queryParam("cursor", cursor)
+                                            .header("Authorization", jwt0))
+                            .andExpect(status().isOk())
+                            .andReturn();
+            String getResponse = getResult.getResponse().getContentAsString();
+            List<String> pageIds = JsonPath.parse(getResponse).read("$.notifications[*].id");
+            List<String> pageRecipientIds = JsonPath.parse(getResponse).read("$.notifications[*].recipientId");
+            pageRecipientIds.forEach(recipientId -> assertEquals(userId0.toString(), recipientId));
+            receivedIds.addAll(pageIds);
+            cursor = JsonPath.parse(getResponse).read("$.nextCursor");
+            numOfPages++;
+        } while (cursor != null);
+
+        assertEquals(3, numOfPages);
+        assertEquals(5, receivedIds.size());
+        assertEquals(5, new HashSet<>(receivedIds).size());
+    }
+
+    @Test
+    public void getInboxByTypeTest() throws Exception {
+        notificationRepository.save(new Notification(userId0, NotificationType.PROJECT_INVITATION, projectId, null));
+        notificationRepository.save(new Notification(userId0, NotificationType.TICKET_ASSIGNED, projectId, ticketId));
+        notificationRepository.save(new Notification(userId0, NotificationType.TICKET_UNASSIGNED, projectId, ticketId));
+
+        MvcResult getResult =
+                mockMvc.perform(
+                                get("/notifications/inbox")
+                                        .queryParam("type", NotificationType.TICKET_ASSIGNED.toString())
+                                        .header("Authorization", jwt0))
+                        .andExpect(status().isOk())
+                        .andReturn();
+        String getResponse = getResult.getResponse().getContentAsString();
+        List<String> types = JsonPath.parse(getResponse).read("$.notifications[*].type");
+        List<String> ticketIds = JsonPath.parse(getResponse).read("$.notifications[*].ticketId");
+        assertEquals(List.of(NotificationType.TICKET_ASSIGNED.toString()), types);
+        assertEquals(List.of(ticketId.toString()), ticketIds);
+    }
+
+    @Test
+    public void getInboxWithInvalidCursorTest() throws Exception {
+        mockMvc.perform(
+                        get("/notifications/inbox")
+                                .queryParam("cursor", "not-a-cursor")
+                                .header("Authorization", jwt0))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(
+                        get("/notifications/inbox")
+                                .queryParam("limit", "0")
+                                .header("Authorization", jwt0))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getUnreadCountTest() throws Exception {
+        eventPublisher.publishEvent(new UnacceptedProjectMembershipCreatedEvent(membershipId, userId0, projectId));
+        eventPublisher.publishEvent(new TicketAssignedEvent(ticketId, projectId, userId0));
+        eventPublisher.publishEvent(new TicketUnassignedEvent(ticketId, projectId, userId0));
+        await().until(() -> notificationDomainService.getUnreadCountByRecipientId(userId0) == 3L);
+
+        mockMvc.perform(
+                        get("/notifications/unread-count")
+                                .header("Authorization", jwt0))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recipientId").value(userId0.toString()))
+                .andExpect(jsonPath("$.unreadCount").value(3));
+
+        UUID notificationId = notificationDomainService.getNotificationsByRecipientId(userId0).get(0).getId();
+        mockMvc.perform(
+                        patch("/notifications/" + notificationId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new NotificationPatchDto(true)))
+                                .header("Authorization", jwt0))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(
+                        get("/notifications/unread-count")
+                                .header("Authorization", jwt0))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.unreadCount").value(2));
+    }
+
+    @Test
+    public void consumeManyTicketAssignedEventsTest() throws Exception {
+        int numOfEvents = 120; // more than one write buffer batch
+        for (int i = 0; i < numOfEvents; i++) {
+            eventPublisher.publishEvent(new TicketAssignedEvent(UUID.randomUUID(), projectId, userId0));
+        }
+
+        await().until(() -> notificationRepository.findByRecipientId(userId0).size() == numOfEvents);
+        await().until(() -> notificationDomainService.getUnreadCountByRecipientId(userId0) == numOfEvents);
+    }
+
+    @Test
+    public void unreadCountOfRecipientWithoutCounterTest() throws Exception {
+        // no user was created for the recipient, so the first notifications race to create its counter
+        UUID recipientId = UUID.randomUUID();
+        int numOfEvents = 20;
+        for (int i = 0; i < numOfEvents; i++) {
+            eventPublisher.publishEvent(new TicketAssignedEvent(UUID.randomUUID(), projectId, recipientId));
+        }
+
+        await().until(() -> notificationRepository.findByRecipientId(recipientId).size() == numOfEvents);
+        await().until(() -> notificationDomainService.getUnreadCountByRecipientId(recipientId) == numOfEvents);
+    }
 }
@@ -0,0 +1,132 @@
+package com.kett.TicketSystem.notification.domain;
+
+import com.kett.TicketSystem.notification.repository.NotificationRepository;
+import com.kett.TicketSystem.ticket.domain.events.TicketAssignedEvent;
+import com.kett.TicketSystem.ticket.domain.events.TicketUnassignedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = { "notification.coalescing.window=300" })
+@ActiveProfiles({ "test" })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class NotificationCoalescingTests {
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationRepository notificationRepository;
+    private final NotificationDomainService notificationDomainService;
+
+    private UUID recipientId;
+    private UUID ticketId0;
+    private UUID ticketId1;
+    private UUID projectId;
+
+    @Autowired
+    public NotificationCoalescingTests(
+            ApplicationEventPublisher eventPublisher,
+            NotificationRepository notificationRepository,
+            NotificationDomainService notificationDomainService
+    ) {
+        this.eventPublisher = eventPublisher;
+        this.notificationRepository = notificationRepository;
+        this.notificationDomainService = notificationDomainService;
+    }
+
+    @BeforeEach
+    public void buildUp() {
+        recipientId = UUID.randomUUID();
+        ticketId0 = UUID.randomUUID();
+        ticketId1 = UUID.randomUUID();
+        projectId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        recipientId = null;
+        ticketId0 = null;
+        ticketId1 = null;
+        projectId = null;
+        notificationRepository.deleteAll();
+    }
+
+    @Test
+    public void coalesceOddNumberOfToggles() {
+        eventPublisher.publishEvent(new TicketAssignedEvent(ticketId0, projectId, recipientId));
+        eventPublisher.publishEvent(new TicketUnassignedEvent(ticketId0, projectId, recipientId));
+        eventPublisher.publishEvent(new TicketAssignedEvent(ticketId0, projectId, recipientId));
+
+        // nothing else is released later on
+        await().during(Duration.ofMillis(500)).atMost(Duration.ofSeconds(5))
+                .until(() -> notificationRepository.findByRecipientId(recipientId).size() == 1);
+
+        List<Notification> notifications = notificationRepository.findByRecipientId(recipientId);
+        assertEquals(1, notifications.size());
+        assertTrue(notifications.get(0).getContent().startsWith("You got assigned"));
+        assertEquals(1L, notificationDomainService.getUnreadCountByRecipientId(recipientId));
+    }
+
+    @Test
+    public void coalesceEvenNumberOfToggles() {
+        eventPublisher.publishEvent(new TicketAssignedEvent(ticketId0, projectId, recipientId));
+        eventPublisher.publishEvent(new TicketUnassignedEvent(ticketId0, projectId, recipientId));
+        eventPublisher.publishEvent(new TicketAssignedEvent(ticketId1, projectId, recipientId));
+
+        // ticketId1 is released together with ticketId0, so once it is there ticketId0 has been dropped
+        // nothing else is released later on
+        await().during(Duration.ofMillis(500)).atMost(Duration.ofSeconds(5))
+                .until(() -> notificationRepository.findByRecipientId(recipientId).size() == 1);
+
+        List<Notification> notifications = notificationRepository.findByRecipientId(recipientId);
+        assertEquals(1, notifications.size());
+        assertTrue(notifications.get(0).getContent().contains(ticketId1.toString()));
+        assertFalse(notifications.get(0).getContent().contains(ticketId0.toString()));
+    }
+
+    @Test
+    public void keepSeparateTicketsApart() throws Exception {
+        eventPublisher.publishEvent(new TicketAssignedEvent(ticketId0, projectId, recipientId));
+        eventPublisher.publishEvent(new TicketUnassignedEvent(ticketId1, projectId, recipientId));
+
+        await().until(() -> notificationRepository.findByRecipientId(recipientId).size() == 2);
+    }
+
+    @Test
+    public void coalesceInPublishOrderTest() {
+        TicketAssignedEvent assigned = new TicketAssignedEvent(ticketId0, projectId, recipientId);
+        TicketUnassignedEvent unassigned = new TicketUnassignedEvent(ticketId0, projectId, recipientId);
+        TicketAssignedEvent reassigned = new TicketAssignedEvent(ticketId0, projectId, recipientId);
+
+        // handed to the listeners out of order, the net state is still "assigned"
+        eventPublisher.publishEvent(assigned);
+        eventPublisher.publishEvent(reassigned);
+        eventPublisher.publishEvent(unassigned);
+
+        await().during(Duration.ofMillis(500)).atMost(Duration.ofSeconds(5))
+                .until(() -> notificationRepository.findByRecipientId(recipientId).size() == 1);
+        assertTrue(notificationRepository.findByRecipientId(recipientId).get(0).getContent().startsWith("You got assigned"));
+    }
+
+    @Test
+    public void coalesceRedeliveredEventTest() {
+        TicketAssignedEvent assigned = new TicketAssignedEvent(ticketId0, projectId, recipientId);
+
+        // the same event twice is not a toggle, and it notifies once
+        eventPublisher.publishEvent(assigned);
+        eventPublisher.publishEvent(assigned);
+
+        await().during(Duration.ofMillis(500)).atMost(Duration.ofSeconds(5))
+                .until(() -> notificationRepository.findByRecipientId(recipientId).size() == 1);
+        assertEquals(1L, notificationDomainService.getUnreadCountByRecipientId(recipientId));
+    }
+}
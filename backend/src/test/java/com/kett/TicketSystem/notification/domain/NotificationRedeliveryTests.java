@@ -0,0 +1,135 @@
+package com.kett.TicketSystem.notification.domain;
+
+import com.kett.TicketSystem.common.domainprimitives.EmailAddress;
+import com.kett.TicketSystem.common.eventprocessing.ProcessedEventRepository;
+import com.kett.TicketSystem.membership.domain.events.UnacceptedProjectMembershipCreatedEvent;
+import com.kett.TicketSystem.notification.repository.NotificationRepository;
+import com.kett.TicketSystem.ticket.domain.events.TicketAssignedEvent;
+import com.kett.TicketSystem.user.domain.events.UserDeletedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+// the buffer is flushed by hand, so both deliveries of an event are pending at the same time
+@SpringBootTest(properties = { "notification.write-buffer.flush-interval=3600000" })
+@ActiveProfiles({ "test" })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class NotificationRedeliveryTests {
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationRepository notificationRepository;
+    private final ProcessedEventRepository processedEventRepository;
+    private final NotificationDomainService notificationDomainService;
+
+    private UUID recipientId;
+    private UUID projectId;
+
+    @Autowired
+    public NotificationRedeliveryTests(
+            ApplicationEventPublisher eventPublisher,
+            NotificationRepository notificationRepository,
+            ProcessedEventRepository processedEventRepository,
+            NotificationDomainService notificationDomainService
+    ) {
+        this.eventPublisher = eventPublisher;
+        this.notificationRepository = notificationRepository;
+        this.processedEventRepository = processedEventRepository;
+        this.notificationDomainService = notificationDomainService;
+    }
+
+    @BeforeEach
+    public void buildUp() {
+        recipientId = UUID.randomUUID();
+        projectId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        recipientId = null;
+        projectId = null;
+        notificationRepository.deleteAll();
+        processedEventRepository.deleteAll();
+    }
+
+    @Test
+    public void redeliveredInvitationNotifiesOnceTest() {
+        UnacceptedProjectMembershipCreatedEvent event = new UnacceptedProjectMembershipCreatedEvent(UUID.randomUUID(), recipientId, projectId);
+        eventPublisher.publishEvent(event);
+        eventPublisher.publishEvent(event);
+
+        // buffered only, so neither delivery counts as processed yet
+        await().during(Duration.ofMillis(300)).atMost(Duration.ofSeconds(5))
+                .until(() -> processedEventRepository.count() == 0);
+        await().until(() -> {
+            notificationDomainService.flushPendingNotifications();
+            return notificationRepository.findByRecipientId(recipientId).size() == 1;
+        });
+        assertEquals(1L, notificationDomainService.getUnreadCountByRecipientId(recipientId));
+        assertEquals(1, processedEventRepository.count());
+
+        // redelivered after the notification was written
+        eventPublisher.publishEvent(event);
+        await().during(Duration.ofMillis(300)).atMost(Duration.ofSeconds(5))
+                .until(() -> {
+                    notificationDomainService.flushPendingNotifications();
+                    return notificationRepository.findByRecipientId(recipientId).size() == 1;
+                });
+        assertEquals(1L, notificationDomainService.getUnreadCountByRecipientId(recipientId));
+    }
+
+    @Test
+    public void redeliveredAssignmentNotifiesOnceTest() {
+        TicketAssignedEvent event = new TicketAssignedEvent(UUID.randomUUID(), projectId, recipientId);
+        eventPublisher.publishEvent(event);
+        eventPublisher.publishEvent(event);
+
+        await().during(Duration.ofMillis(300)).atMost(Duration.ofSeconds(5))
+                .until(() -> {
+                    notificationDomainService.flushPendingNotifications();
+                    return notificationRepository.findByRecipientId(recipientId).size() == 1;
+                });
+        assertEquals(1L, notificationDomainService.getUnreadCountByRecipientId(recipientId));
+    }
+
+    @Test
+    public void unflushedNotificationLeavesEventUnprocessedTest() {
+        UnacceptedProjectMembershipCreatedEvent event = new UnacceptedProjectMembershipCreatedEvent(UUID.randomUUID(), recipientId, projectId);
+        eventPublisher.publishEvent(event);
+
+        // e.g. the instance went down before the flush: nothing was written, the event may be delivered again
+        await().during(Duration.ofMillis(300)).atMost(Duration.ofSeconds(5))
+                .until(() -> processedEventRepository.count() == 0);
+        assertTrue(notificationRepository.findByRecipientId(recipientId).isEmpty());
+    }
+
+    @Test
+    public void deletedRecipientDropsPendingNotificationsTest() {
+        TicketAssignedEvent event = new TicketAssignedEvent(UUID.randomUUID(), projectId, recipientId);
+        eventPublisher.publishEvent(event);
+        await().during(Duration.ofMillis(300)).atMost(Duration.ofSeconds(5))
+                .until(() -> processedEventRepository.count() == 0);
+
+        // the pending notification is dropped instead of inserted after the delete, its event is done
+        eventPublisher.publishEvent(new UserDeletedEvent(recipientId, "Jonas Hilbert", EmailAddress.fromString("jonas.hilbert@gmail.com")));
+        await().until(() -> processedEventRepository.count() == 1);
+        notificationDomainService.flushPendingNotifications();
+        assertTrue(notificationRepository.findByRecipientId(recipientId).isEmpty());
+
+        eventPublisher.publishEvent(event);
+        await().during(Duration.ofMillis(300)).atMost(Duration.ofSeconds(5))
+                .until(() -> {
+                    notificationDomainService.flushPendingNotifications();
+                    return notificationRepository.findByRecipientId(recipientId).isEmpty();
+                });
+    }
+}
@@ -0,0 +1,139 @@
+package com.kett.TicketSystem.notification.domain;
+
+import com.kett.TicketSystem.notification.repository.NotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "notification.retention.max-age=30d",
+        "notification.retention.max-per-recipient=3",
+        "notification.retention.chunk-size=2",
+        "notification.retention.archive-directory=target/notification-archive-test"
+})
+@ActiveProfiles({ "test" })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class NotificationRetentionJobTests {
+    private final NotificationRetentionJob notificationRetentionJob;
+    private final NotificationRepository notificationRepository;
+    private final File archiveDirectory = new File("target/notification-archive-test");
+
+    private UUID recipientId0;
+    private UUID recipientId1;
+
+    @Autowired
+    public NotificationRetentionJobTests(
+            NotificationRetentionJob notificationRetentionJob,
+            NotificationRepository notificationRepository
+    ) {
+        this.notificationRetentionJob = notificationRetentionJob;
+        this.notificationRepository = notificationRepository;
+    }
+
+    @BeforeEach
+    public void buildUp() {
+        recipientId0 = UUID.randomUUID();
+        recipientId1 = UUID.randomUUID();
+        notificationRepository.deleteAll();
+        deleteArchives();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        recipientId0 = null;
+        recipientId1 = null;
+        notificationRepository.deleteAll();
+        deleteArchives();
+    }
+
+    @Test
+    public void purgeOldReadNotificationsTest() throws Exception {
+        saveNotification(recipientId0, true, LocalDateTime.now().minusDays(40));
+        saveNotification(recipientId0, true, LocalDateTime.now().minusDays(35));
+        saveNotification(recipientId1, true, LocalDateTime.now().minusDays(31));
+        Notification oldUnread = saveNotification(recipientId0, false, LocalDateTime.now().minusDays(40));
+        Notification freshRead = saveNotification(recipientId1, true, LocalDateTime.now().minusDays(1));
+
+        assertEquals(3, notificationRetentionJob.run());
+
+        List<UUID> remainingIds = notificationRepository.findAll().stream().map(Notification::getId).collect(Collectors.toList());
+        assertEquals(2, remainingIds.size());
+        assertTrue(remainingIds.contains(oldUnread.getId()));
+        assertTrue(remainingIds.contains(freshRead.getId()));
+        assertEquals(3, readArchivedLines().size());
+    }
+
+    @Test
+    public void purgeBeyondRecipientLimitTest() throws Exception {
+        for (int i = 5; i > 0; i--) {
+            saveNotification(recipientId0, false, LocalDateTime.now().minusHours(i));
+        }
+        saveNotification(recipientId1, false, LocalDateTime.now().minusHours(1));
+
+        assertEquals(2, notificationRetentionJob.run());
+
+        List<Notification> remaining = notificationRepository.findByRecipientId(recipientId0);
+        assertEquals(3, remaining.size());
+        remaining.forEach(notification -> assertTrue(notification.getCreationTime().isAfter(LocalDateTime.now().minusHours(4))));
+        assertEquals(1, notificationRepository.findByRecipientId(recipientId1).size());
+
+        List<String> archivedLines = readArchivedLines();
+        assertEquals(2, archivedLines.size());
+        archivedLines.forEach(line -> assertTrue(line.contains(recipientId0.toString())));
+    }
+
+    @Test
+    public void nothingToPurgeTest() throws Exception {
+        saveNotification(recipientId0, true, LocalDateTime.now());
+        assertEquals(0, notificationRetentionJob.run());
+        assertEquals(1, notificationRepository.count());
+
+        File[] archives = archiveDirectory.listFiles();
+        assertTrue(archives == null || archives.length == 0);
+    }
+
+    private Notification saveNotification(UUID recipientId, boolean isRead, LocalDateTime creationTime) {
+        Notification notification = new Notification(recipientId, NotificationType.PROJECT_INVITATION, UUID.randomUUID(), null);
+        notification.setCreationTime(creationTime);
+        if (isRead) {
+            notification.setIsRead(true);
+        }
+        return notificationRepository.save(notification);
+    }
+
+    private List<String> readArchivedLines() throws Exception {
+        File[] archives = archiveDirectory.listFiles();
+        assertNotNull(archives);
+        assertEquals(1, archives.length);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(archives[0].toPath())), StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+
+    private void deleteArchives() {
+        File[] archives = archiveDirectory.listFiles();
+        if (archives != null) {
+            for (File archive : archives) {
+                assertTrue(archive.delete());
+            }
+        }
+    }
+}
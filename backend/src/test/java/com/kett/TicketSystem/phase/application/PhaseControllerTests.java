@@ -7,8 +7,11 @@ import com.kett.TicketSystem.phase.application.dto.PhasePutPositionDto;
 import com.kett.TicketSystem.phase.application.dto.PhasePostDto;
 import com.kett.TicketSystem.phase.domain.Phase;
 import com.kett.TicketSystem.phase.domain.PhaseDomainService;
+import com.kett.TicketSystem.phase.domain.PhaseTemplate;
+import com.kett.TicketSystem.phase.domain.PhaseTicketCountReconciler;
 import com.kett.TicketSystem.phase.domain.events.PhaseCreatedEvent;
 import com.kett.TicketSystem.phase.domain.events.PhaseDeletedEvent;
+import com.kett.TicketSystem.phase.domain.events.PhasesCreatedEvent;
 import com.kett.TicketSystem.phase.domain.exceptions.NoPhaseFoundException;
 import com.kett.TicketSystem.phase.repository.PhaseRepository;
 import com.kett.TicketSystem.project.domain.events.DefaultProjectCreatedEvent;
@@ -33,7 +36,11 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.servlet.http.Cookie;
 import java.util.List;
@@ -58,9 +65,11 @@ public class PhaseControllerTests {
     private final ApplicationEventPublisher eventPublisher;
     private final EventCatcher eventCatcher;
     private final PhaseDomainService phaseDomainService;
+    private final PhaseTicketCountReconciler phaseTicketCountReconciler;
     private final PhaseRepository phaseRepository;
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
 
     private String userName;
     private String userEmail;
@@ -87,9 +96,11 @@ public class PhaseControllerTests {
             ApplicationEventPublisher eventPublisher,
             EventCatcher eventCatcher,
             PhaseDomainService phaseDomainService,
+            PhaseTicketCountReconciler phaseTicketCountReconciler,
             PhaseRepository phaseRepository,
             ProjectRepository projectRepository,
-            UserRepository userRepository
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager
     ) {
         this.mockMvc = mockMvc;
         this.objectMapper = objectMapper;
@@ -97,9 +108,11 @@ public class PhaseControllerTests {
         this.restMinion = new RestRequestHelper(mockMvc, objectMapper);
         this.eventPublisher = eventPublisher;
         this.phaseDomainService = phaseDomainService;
+        this.phaseTicketCountReconciler = phaseTicketCountReconciler;
         this.phaseRepository = phaseRepository;
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
+        this.transactionManager = transactionManager;
     }
 
     @BeforeEach
@@ -196,6 +209,46 @@ public class PhaseControllerTests {
                         .andReturn();
     }
 
+    @Test
+    public void getUnchangedPhasesByQueryTest() throws Exception {
+        MvcResult getResult =
+                mockMvc.perform(
+                                get("/phases")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .queryParam("project-id", buildUpProjectId.toString())
+                                        .header("Authorization", jwt))
+                        .andExpect(status().isOk())
+                        .andReturn();
+        String eTag = getResult.getResponse().getHeader("ETag");
+        assertNotNull(eTag);
+
+        MvcResult notModifiedResult =
+                mockMvc.perform(
+                                get("/phases")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .queryParam("project-id", buildUpProjectId.toString())
+                                        .header("Authorization", jwt)
+                                        .header("If-None-Match", eTag))
+                        .andExpect(status().isNotModified())
+                        .andReturn();
+        assertEquals("", notModifiedResult.getResponse().getContentAsString());
+
+        // a new phase changes the aggregate version of the project's phases
+        restMinion.postPhase(jwt, buildUpProjectId, phaseName0, null);
+
+        MvcResult modifiedResult =
+                mockMvc.perform(
+                                get("/phases")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .queryParam("project-id", buildUpProjectId.toString())
+                                        .header("Authorization", jwt)
+                                        .header("If-None-Match", eTag))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.length()").value(2))
+                        .andReturn();
+        assertNotEquals(eTag, modifiedResult.getResponse().getHeader("ETag"));
+    }
+
     @Test
     public void postPhaseToNewProjectTest() throws Exception {
         // post to first place
@@ -476,73 +529,78 @@ public class PhaseControllerTests {
     public void consumeDefaultProjectCreatedEventTest() throws Exception {
         UUID tempProjectId = UUID.randomUUID();
 
-        eventCatcher.catchEventOfType(PhaseCreatedEvent.class);
+        eventCatcher.catchEventOfType(PhasesCreatedEvent.class);
         eventPublisher.publishEvent(new DefaultProjectCreatedEvent(tempProjectId, userId));
         Thread.sleep(100); // give enough time to handle event
 
-        // test at least one PhaseCreatedEvent
+        // test PhasesCreatedEvent
         await().until(eventCatcher::hasCaughtEvent);
-        PhaseCreatedEvent phaseCreatedEvent = (PhaseCreatedEvent) eventCatcher.getEvent();
-        assertEquals(tempProjectId, phaseCreatedEvent.getProjectId());
+        PhasesCreatedEvent phasesCreatedEvent = (PhasesCreatedEvent) eventCatcher.getEvent();
+        assertEquals(tempProjectId, phasesCreatedEvent.getProjectId());
+        assertEquals(4, phasesCreatedEvent.getPhaseIds().size());
 
-        // test phases
-        List<Phase> phases = phaseDomainService.getPhasesByProjectId(tempProjectId);
-        assertEquals(4, phases.size());
+        // test phases, the event lists them from first to last
+        assertEquals(4, phaseDomainService.getPhasesByProjectId(tempProjectId).size());
+        List<Phase> phases = phasesCreatedEvent.getPhaseIds().stream().map(phaseDomainService::getPhaseById).toList();
 
-        assertEquals("DONE", phases.get(0).getName());
-        UUID doneId = phases.get(0).getId();
-        assertFalse(phases.get(0).isFirst());
-        assertTrue(phases.get(0).isLast());
-        assertEquals(phases.get(1).getId(), phases.get(0).getPreviousPhase().getId());
-        assertNull(phases.get(0).getNextPhase());
+        assertEquals("BACKLOG", phases.get(0).getName());
+        assertTrue(phases.get(0).isFirst());
+        assertFalse(phases.get(0).isLast());
+        assertNull(phases.get(0).getPreviousPhase());
+        assertEquals(phases.get(1).getId(), phases.get(0).getNextPhase().getId());
 
-        assertEquals("REVIEW", phases.get(1).getName());
-        UUID reviewId = phases.get(1).getId();
+        assertEquals("DOING", phases.get(1).getName());
         assertFalse(phases.get(1).isFirst());
         assertFalse(phases.get(1).isLast());
-        assertEquals(phases.get(2).getId(), phases.get(1).getPreviousPhase().getId());
-        assertEquals(phases.get(0).getId(), phases.get(1).getNextPhase().getId());
+        assertEquals(phases.get(0).getId(), phases.get(1).getPreviousPhase().getId());
+        assertEquals(phases.get(2).getId(), phases.get(1).getNextPhase().getId());
 
-        assertEquals("DOING", phases.get(2).getName());
-        UUID doingId = phases.get(2).getId();
+        assertEquals("REVIEW", phases.get(2).getName());
         assertFalse(phases.get(2).isFirst());
         assertFalse(phases.get(2).isLast());
-        assertEquals(phases.get(3).getId(), phases.get(2).getPreviousPhase().getId());
-        assertEquals(phases.get(1).getId(), phases.get(2).getNextPhase().getId());
-
-        assertEquals("BACKLOG", phases.get(3).getName());
-        UUID backlogId = phases.get(3).getId();
-        assertTrue(phases.get(3).isFirst());
-        assertFalse(phases.get(3).isLast());
-        assertNull(phases.get(3).getPreviousPhase());
-        assertEquals(phases.get(2).getId(), phases.get(3).getNextPhase().getId());
+        assertEquals(phases.get(1).getId(), phases.get(2).getPreviousPhase().getId());
+        assertEquals(phases.get(3).getId(), phases.get(2).getNextPhase().getId());
+
+        assertEquals("DONE", phases.get(3).getName());
+        assertFalse(phases.get(3).isFirst());
+        assertTrue(phases.get(3).isLast());
+        assertEquals(phases.get(2).getId(), phases.get(3).getPreviousPhase().getId());
+        assertNull(phases.get(3).getNextPhase());
     }
 
     @Test
     public void consumeProjectCreatedEventTest() throws Exception {
         UUID tempProjectId = UUID.randomUUID();
 
-        eventCatcher.catchEventOfType(PhaseCreatedEvent.class);
+        eventCatcher.catchEventOfType(PhasesCreatedEvent.class);
         eventPublisher.publishEvent(new ProjectCreatedEvent(tempProjectId, userId));
         Thread.sleep(100); // give enough time to handle event
 
         // test event
         await().until(eventCatcher::hasCaughtEvent);
-        PhaseCreatedEvent phaseCreatedEvent = (PhaseCreatedEvent) eventCatcher.getEvent();
-        assertEquals(tempProjectId, phaseCreatedEvent.getProjectId());
+        PhasesCreatedEvent phasesCreatedEvent = (PhasesCreatedEvent) eventCatcher.getEvent();
+        assertEquals(tempProjectId, phasesCreatedEvent.getProjectId());
 
         // test phases
         List<Phase> phases = phaseDomainService.getPhasesByProjectId(tempProjectId);
         assertEquals(1, phases.size());
 
         assertEquals("BACKLOG", phases.get(0).getName());
-        assertEquals(phases.get(0).getId(), phaseCreatedEvent.getPhaseId());
+        assertEquals(List.of(phases.get(0).getId()), phasesCreatedEvent.getPhaseIds());
         assertTrue(phases.get(0).isFirst());
         assertTrue(phases.get(0).isLast());
         assertNull(phases.get(0).getPreviousPhase());
         assertNull(phases.get(0).getNextPhase());
     }
 
+    @Test
+    public void createPhasesFromTemplateOnlyOnceTest() {
+        await().until(() -> phaseDomainService.getFirstPhaseByProjectId(buildUpProjectId).isPresent());
+        PhaseTemplate phaseTemplate = new PhaseTemplate(List.of("TODO", "DONE"));
+        assertTrue(phaseDomainService.createPhasesFromTemplate(buildUpProjectId, phaseTemplate).isEmpty());
+        assertEquals(1, phaseDomainService.getPhasesByProjectId(buildUpProjectId).size());
+    }
+
     @Test
     public void consumeProjectDeletedEventTest() throws Exception {
         eventCatcher.catchEventOfType(PhaseDeletedEvent.class);
@@ -575,6 +633,69 @@ public class PhaseControllerTests {
         assertEquals(1, phase.getTicketCount());
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void consumeConcurrentTicketCreatedEventsTest() {
+        await().until(() -> phaseDomainService.getFirstPhaseByProjectId(buildUpProjectId).isPresent());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        TransactionTemplate otherTransactionTemplate = new TransactionTemplate(transactionManager);
+        otherTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // the phase is loaded before another ticket is created and committed in the meantime
+            phaseDomainService.getFirstPhaseByProjectId(buildUpProjectId).orElseThrow();
+            otherTransactionTemplate.executeWithoutResult(otherStatus ->
+                    eventPublisher.publishEvent(new TicketCreatedEvent(UUID.randomUUID(), buildUpProjectId, userId))
+            );
+            eventPublisher.publishEvent(new TicketCreatedEvent(UUID.randomUUID(), buildUpProjectId, userId));
+        });
+
+        assertEquals(2, phaseDomainService.getFirstPhaseByProjectId(buildUpProjectId).orElseThrow().getTicketCount());
+    }
+
+    @Test
+    public void reconcileDriftedTicketCountTest() {
+        // counted by the event, but there is no ticket row
+        eventPublisher.publishEvent(new TicketCreatedEvent(UUID.randomUUID(), buildUpProjectId, userId));
+        UUID phaseId = phaseDomainService.getPhasesByProjectId(buildUpProjectId).get(0).getId();
+        assertEquals(1, phaseDomainService.getPhaseById(phaseId).getTicketCount());
+
+        assertEquals(1, phaseTicketCountReconciler.run());
+        assertEquals(0, phaseDomainService.getPhaseById(phaseId).getTicketCount());
+    }
+
+    @Test
+    public void reconcileChangesPhaseTagTest() throws Exception {
+        eventPublisher.publishEvent(new TicketCreatedEvent(UUID.randomUUID(), buildUpProjectId, userId));
+        UUID phaseId = phaseDomainService.getPhasesByProjectId(buildUpProjectId).get(0).getId();
+        String eTag = mockMvc.perform(
+                        get("/phases/" + phaseId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", jwt))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        assertEquals(1, phaseTicketCountReconciler.run());
+
+        // the repaired count is served instead of a stale 304
+        MvcResult repairedResult =
+                mockMvc.perform(
+                                get("/phases/" + phaseId)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .header("Authorization", jwt)
+                                        .header("If-None-Match", eTag))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.ticketCount").value(0))
+                        .andReturn();
+        assertNotEquals(eTag, repairedResult.getResponse().getHeader("ETag"));
+
+        // the next ticket event continues from the repaired count
+        eventPublisher.publishEvent(new TicketCreatedEvent(UUID.randomUUID(), buildUpProjectId, userId));
+        assertEquals(1, phaseDomainService.getPhaseById(phaseId).getTicketCount());
+    }
+
     @Test
     public void consumeTicketDeletedEvent() {
         UUID ticketId = UUID.randomUUID();
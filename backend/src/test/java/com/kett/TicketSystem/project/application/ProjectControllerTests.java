@@ -5,14 +5,20 @@ import com.jayway.jsonpath.JsonPath;
 import com.kett.TicketSystem.common.domainprimitives.EmailAddress;
 import com.kett.TicketSystem.common.exceptions.NoProjectFoundException;
 import com.kett.TicketSystem.membership.domain.events.LastProjectMemberDeletedEvent;
+import com.kett.TicketSystem.membership.domain.events.ProjectMembershipsDeletedEvent;
+import com.kett.TicketSystem.phase.domain.events.ProjectPhasesDeletedEvent;
 import com.kett.TicketSystem.project.application.dto.ProjectPatchDto;
 import com.kett.TicketSystem.project.application.dto.ProjectPostDto;
 import com.kett.TicketSystem.project.domain.Project;
+import com.kett.TicketSystem.project.domain.ProjectDeletion;
+import com.kett.TicketSystem.project.domain.ProjectDeletionState;
 import com.kett.TicketSystem.project.domain.ProjectDomainService;
 import com.kett.TicketSystem.project.domain.events.DefaultProjectCreatedEvent;
 import com.kett.TicketSystem.project.domain.events.ProjectCreatedEvent;
 import com.kett.TicketSystem.project.domain.events.ProjectDeletedEvent;
+import com.kett.TicketSystem.project.repository.ProjectDeletionRepository;
 import com.kett.TicketSystem.project.repository.ProjectRepository;
+import com.kett.TicketSystem.ticket.domain.events.ProjectTicketsDeletedEvent;
 import com.kett.TicketSystem.user.domain.events.UserCreatedEvent;
 import com.kett.TicketSystem.user.repository.UserRepository;
 import com.kett.TicketSystem.util.EventCatcher;
@@ -29,14 +35,19 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.servlet.http.Cookie;
+import java.time.Duration;
 import java.util.UUID;
 
 import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -52,7 +63,9 @@ public class ProjectControllerTests {
     private final ApplicationEventPublisher eventPublisher;
     private final ProjectDomainService projectDomainService;
     private final ProjectRepository projectRepository;
+    private final ProjectDeletionRepository projectDeletionRepository;
     private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
     private final RestRequestHelper restMinion;
 
     private UUID userId;
@@ -77,7 +90,9 @@ public class ProjectControllerTests {
             ApplicationEventPublisher eventPublisher,
             ProjectDomainService projectDomainService,
             ProjectRepository projectRepository,
-            UserRepository userRepository
+            ProjectDeletionRepository projectDeletionRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager
     ) {
         this.mockMvc = mockMvc;
         this.objectMapper = objectMapper;
@@ -85,7 +100,9 @@ public class ProjectControllerTests {
         this.eventPublisher = eventPublisher;
         this.projectDomainService = projectDomainService;
         this.projectRepository = projectRepository;
+        this.projectDeletionRepository = projectDeletionRepository;
         this.userRepository = userRepository;
+        this.transactionManager = transactionManager;
         this.restMinion = new RestRequestHelper(this.mockMvc, this.objectMapper);
     }
 
@@ -121,6 +138,7 @@ public class ProjectControllerTests {
         buildUpProjectName = null;
         buildUpProjectDescription = null;
 
+        projectDeletionRepository.deleteAll();
         projectRepository.deleteAll();
         userRepository.deleteAll();
     }
@@ -182,6 +200,47 @@ public class ProjectControllerTests {
     }
 
     @Test
+    public void getUnchangedProjectTest() throws Exception {
+        MvcResult getResult =
+                mockMvc.perform(
+                                get("/projects/" + buildUpProjectId)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .header("Authorization", jwt))
+                        .andExpect(status().isOk())
+                        .andExpect(header().exists("ETag"))
+                        .andReturn();
+        String eTag = getResult.getResponse().getHeader("ETag");
+
+        MvcResult notModifiedResult =
+                mockMvc.perform(
+                                get("/projects/" + buildUpProjectId)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .header("Authorization", jwt)
+                                        .header("If-None-Match", eTag))
+                        .andExpect(status().isNotModified())
+                        .andExpect(header().string("ETag", eTag))
+                        .andReturn();
+        assertEquals("", notModifiedResult.getResponse().getContentAsString());
+
+        // the version is increased when the change is flushed
+        restMinion.patchProject(jwt, buildUpProjectId, "Burrata", null);
+        projectRepository.flush();
+
+        MvcResult modifiedResult =
+                mockMvc.perform(
+                                get("/projects/" + buildUpProjectId)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .header("Authorization", jwt)
+                                        .header("If-None-Match", eTag))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.name").value("Burrata"))
+                        .andReturn();
+        assertNotEquals(eTag, modifiedResult.getResponse().getHeader("ETag"));
+    }
+
+    // the purge starts after the deletion committed, which the test transaction never does
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteProjectTest() throws Exception {
         eventCatcher.catchEventOfType(ProjectDeletedEvent.class);
         MvcResult deleteResult =
@@ -189,7 +248,10 @@ public class ProjectControllerTests {
                         delete("/projects/" + buildUpProjectId)
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .header("Authorization", jwt))
-                .andExpect(status().isNoContent())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/projects/" + buildUpProjectId + "/deletion"))
+                .andExpect(jsonPath("$.projectId").value(buildUpProjectId.toString()))
+                .andExpect(jsonPath("$.state").value(ProjectDeletionState.IN_PROGRESS.toString()))
                 .andReturn();
 
         // test ProjectDeletedEvent
@@ -199,6 +261,77 @@ public class ProjectControllerTests {
 
         // test instance
         assertThrows(NoProjectFoundException.class, () -> projectDomainService.getProjectById(buildUpProjectId));
+        ProjectDeletion projectDeletion = projectDomainService.getProjectDeletionByProjectId(buildUpProjectId);
+        assertEquals(userId, projectDeletion.getRequesterId());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rolledBackDeletionPurgesNothingTest() {
+        eventCatcher.catchEventOfType(ProjectDeletedEvent.class);
+        // e.g. a version conflict with a concurrent patch of the project
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            projectDomainService.deleteProjectById(buildUpProjectId, userId);
+            status.setRollbackOnly();
+        });
+
+        await().during(Duration.ofMillis(300)).atMost(Duration.ofSeconds(5)).until(() -> !eventCatcher.hasCaughtEvent());
+        assertFalse(projectRepository.findById(buildUpProjectId).orElseThrow().isBeingDeleted());
+        assertTrue(projectDeletionRepository.findByProjectId(buildUpProjectId).isEmpty());
+    }
+
+    @Test
+    public void getProjectDeletionTest() throws Exception {
+        restMinion.deleteProject(jwt, buildUpProjectId);
+        mockMvc.perform(
+                        get("/projects/" + buildUpProjectId + "/deletion")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", jwt))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.projectId").value(buildUpProjectId.toString()))
+                .andExpect(jsonPath("$.state").exists())
+                .andExpect(jsonPath("$.creationTime").exists());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void resumeStalledProjectDeletionTest() {
+        // a purge that was requested, but whose event got lost, e.g. because the instance stopped
+        Project project = projectRepository.findById(buildUpProjectId).orElseThrow();
+        project.markAsDeleting();
+        projectRepository.save(project);
+        projectDeletionRepository.save(new ProjectDeletion(buildUpProjectId, userId));
+
+        assertEquals(0, projectDomainService.resumeStalledProjectDeletions(Duration.ofMinutes(10), 10));
+        assertEquals(1, projectDomainService.resumeStalledProjectDeletions(Duration.ZERO, 10));
+
+        await().until(() -> projectRepository.findById(buildUpProjectId).isEmpty());
+        ProjectDeletion projectDeletion = projectDomainService.getProjectDeletionByProjectId(buildUpProjectId);
+        assertEquals(ProjectDeletionState.FINISHED, projectDeletion.getState());
+        assertEquals(0, projectDomainService.resumeStalledProjectDeletions(Duration.ZERO, 10));
+    }
+
+    @Test
+    public void consumeProjectDeletionProgressEventsTest() {
+        Project project = new Project(projectName, projectDescription);
+        project.markAsDeleting();
+        projectId = projectRepository.save(project).getId();
+        projectDeletionRepository.save(new ProjectDeletion(projectId, userId));
+
+        eventPublisher.publishEvent(new ProjectMembershipsDeletedEvent(projectId, 2, false));
+        eventPublisher.publishEvent(new ProjectMembershipsDeletedEvent(projectId, 0, true));
+        eventPublisher.publishEvent(new ProjectPhasesDeletedEvent(projectId, 4, true));
+        ProjectDeletion projectDeletion = projectDomainService.getProjectDeletionByProjectId(projectId);
+        assertEquals(ProjectDeletionState.IN_PROGRESS, projectDeletion.getState());
+        assertEquals(2L, projectDeletion.getNumOfDeletedMemberships());
+        assertEquals(4L, projectDeletion.getNumOfDeletedPhases());
+
+        eventPublisher.publishEvent(new ProjectTicketsDeletedEvent(projectId, 7, true));
+        projectDeletion = projectDomainService.getProjectDeletionByProjectId(projectId);
+        assertEquals(ProjectDeletionState.FINISHED, projectDeletion.getState());
+        assertEquals(7L, projectDeletion.getNumOfDeletedTickets());
+        assertNotNull(projectDeletion.getFinishTime());
+        assertTrue(projectRepository.findById(projectId).isEmpty());
     }
 
     @Test
@@ -246,6 +379,14 @@ public class ProjectControllerTests {
     }
 
     @Test
+    public void requestDefaultProjectOnceTest() {
+        UUID mockUserId = UUID.randomUUID();
+        assertTrue(projectDomainService.requestDefaultProject(mockUserId));
+        assertFalse(projectDomainService.requestDefaultProject(mockUserId));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void consumeLastMembershipDeletedEventTest() throws Exception {
         eventCatcher.catchEventOfType(ProjectDeletedEvent.class);
         eventPublisher.publishEvent(
@@ -0,0 +1,145 @@
+package com.kett.TicketSystem.project.domain;
+
+import com.kett.TicketSystem.membership.repository.MembershipRepository;
+import com.kett.TicketSystem.project.repository.DefaultProjectProvisioningRepository;
+import com.kett.TicketSystem.project.repository.ProjectRepository;
+import com.kett.TicketSystem.user.domain.User;
+import com.kett.TicketSystem.user.domain.UserDomainService;
+import com.kett.TicketSystem.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+// the scheduled provisioning is pushed out of the way, the tests provision the batches themselves
+@SpringBootTest(properties = { "project.default-provisioning.interval=3600000" })
+@ActiveProfiles({ "test" })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class DefaultProjectProvisioningTests {
+    private final ProjectDomainService projectDomainService;
+    private final DefaultProjectProvisioningRepository defaultProjectProvisioningRepository;
+    private final ProjectRepository projectRepository;
+    private final MembershipRepository membershipRepository;
+    private final UserRepository userRepository;
+    private final UserDomainService userDomainService;
+    private final PlatformTransactionManager transactionManager;
+
+    private UUID userId0;
+    private UUID userId1;
+    private UUID userId2;
+
+    @Autowired
+    public DefaultProjectProvisioningTests(
+            ProjectDomainService projectDomainService,
+            DefaultProjectProvisioningRepository defaultProjectProvisioningRepository,
+            ProjectRepository projectRepository,
+            MembershipRepository membershipRepository,
+            UserRepository userRepository,
+            UserDomainService userDomainService,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.projectDomainService = projectDomainService;
+        this.defaultProjectProvisioningRepository = defaultProjectProvisioningRepository;
+        this.projectRepository = projectRepository;
+        this.membershipRepository = membershipRepository;
+        this.userRepository = userRepository;
+        this.userDomainService = userDomainService;
+        this.transactionManager = transactionManager;
+    }
+
+    @BeforeEach
+    public void buildUp() {
+        // stored without publishing any user event, like users registered before provisioning was introduced
+        userId0 = userRepository.save(new User("Peter Greene", "peter.greene@gmail.com", "password")).getId();
+        userId1 = userRepository.save(new User("Julia McGonagall", "julia.MG@hogwarts.uk", "password")).getId();
+        userId2 = userRepository.save(new User("Jonas Hilbert", "jonas.hilbert@gmail.com", "password")).getId();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userId0 = null;
+        userId1 = null;
+        userId2 = null;
+
+        defaultProjectProvisioningRepository.deleteAll();
+        membershipRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void provisionInBatchesTest() {
+        projectDomainService.requestDefaultProject(userId0);
+        projectDomainService.requestDefaultProject(userId1);
+        projectDomainService.requestDefaultProject(userId2);
+
+        assertEquals(2, projectDomainService.provisionDefaultProjects(2));
+        assertEquals(1, projectDomainService.provisionDefaultProjects(2));
+        assertEquals(0, projectDomainService.provisionDefaultProjects(2));
+        assertEquals(3, projectRepository.count());
+    }
+
+    @Test
+    public void provisionedProjectBelongsToRequestingUserTest() {
+        List<UUID> userIds = List.of(userId0, userId1, userId2);
+        userIds.forEach(projectDomainService::requestDefaultProject);
+        assertEquals(3, projectDomainService.provisionDefaultProjects(10));
+
+        Set<UUID> projectIds = new HashSet<>();
+        for (UUID userId : userIds) {
+            UUID projectId = defaultProjectProvisioningRepository.findById(userId).orElseThrow().getProjectId();
+            assertNotNull(projectId);
+            assertTrue(projectRepository.existsById(projectId));
+            projectIds.add(projectId);
+
+            // the admin membership is created from the published event, so it shows which user the project went to
+            await().until(() -> membershipRepository.existsByUserIdAndProjectId(userId, projectId));
+        }
+        assertEquals(3, projectIds.size());
+    }
+
+    @Test
+    public void signupStoresRequestTest() {
+        UUID userId = userDomainService.addUser(new User("Laura Bloom", "laura.bloom@gmail.com", "password")).getId();
+
+        // stored with the user, not eventually
+        assertFalse(defaultProjectProvisioningRepository.findById(userId).orElseThrow().isProvisioned());
+        assertEquals(1, projectDomainService.provisionDefaultProjects(10));
+        assertTrue(defaultProjectProvisioningRepository.findById(userId).orElseThrow().isProvisioned());
+    }
+
+    @Test
+    public void rolledBackSignupStoresNoRequestTest() {
+        UUID userId = new TransactionTemplate(transactionManager).execute(status -> {
+            UUID addedUserId = userDomainService.addUser(new User("Laura Bloom", "laura.bloom@gmail.com", "password")).getId();
+            status.setRollbackOnly();
+            return addedUserId;
+        });
+
+        assertFalse(defaultProjectProvisioningRepository.existsById(userId));
+        assertEquals(0, projectDomainService.provisionDefaultProjects(10));
+    }
+
+    @Test
+    public void deletedUserRequestIsRemovedTest() {
+        UUID userId = userDomainService.addUser(new User("Laura Bloom", "laura.bloom@gmail.com", "password")).getId();
+        userDomainService.deleteById(userId);
+
+        assertFalse(defaultProjectProvisioningRepository.existsById(userId));
+        assertEquals(0, projectDomainService.provisionDefaultProjects(10));
+        assertEquals(0, projectRepository.count());
+    }
+}
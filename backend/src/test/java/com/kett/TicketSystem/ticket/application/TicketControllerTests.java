@@ -290,6 +290,50 @@ public class TicketControllerTests {
                         .andReturn();
     }
 
+    @Test
+    public void getUnchangedTicketsByProjectIdQueryTest() throws Exception {
+        UUID ticketId = restMinion.postTicket(
+                jwt0, buildUpProjectId, ticketTitle0, ticketDescription0, dateOfTomorrow, new ArrayList<>()
+        );
+
+        MvcResult getResult =
+                mockMvc.perform(
+                                get("/tickets")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .queryParam("project-id", buildUpProjectId.toString())
+                                        .header("Authorization", jwt0))
+                        .andExpect(status().isOk())
+                        .andReturn();
+        String eTag = getResult.getResponse().getHeader("ETag");
+        assertNotNull(eTag);
+
+        MvcResult notModifiedResult =
+                mockMvc.perform(
+                                get("/tickets")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .queryParam("project-id", buildUpProjectId.toString())
+                                        .header("Authorization", jwt0)
+                                        .header("If-None-Match", eTag))
+                        .andExpect(status().isNotModified())
+                        .andReturn();
+        assertEquals("", notModifiedResult.getResponse().getContentAsString());
+
+        String newTitle = "My renamed ticket";
+        restMinion.patchTicket(jwt0, ticketId, newTitle, null, null, null, null);
+
+        MvcResult modifiedResult =
+                mockMvc.perform(
+                                get("/tickets")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .queryParam("project-id", buildUpProjectId.toString())
+                                        .header("Authorization", jwt0)
+                                        .header("If-None-Match", eTag))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[0].title").value(newTitle))
+                        .andReturn();
+        assertNotEquals(eTag, modifiedResult.getResponse().getHeader("ETag"));
+    }
+
     @Test
     public void getTicketByAssigneeIdQueryTest() throws Exception {
         List<UUID> assigneeIds = new ArrayList<>();
@@ -405,6 +449,64 @@ public class TicketControllerTests {
         assertEquals(ticketPatchDto.getDueTime(), ticket.getDueTime());
     }
 
+    @Test
+    public void patchTicketWithOutdatedVersionTest() throws Exception {
+        UUID ticketId = restMinion.postTicket(
+                jwt0, buildUpProjectId, ticketTitle0, ticketDescription0, dateOfTomorrow, new ArrayList<>()
+        );
+        MvcResult getResult =
+                mockMvc.perform(
+                                get("/tickets/" + ticketId)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .header("Authorization", jwt0))
+                        .andExpect(status().isOk())
+                        .andReturn();
+        String eTag = getResult.getResponse().getHeader("ETag");
+
+        String firstTitle = "first come";
+        MvcResult firstPatchResult =
+                mockMvc.perform(
+                                patch("/tickets/" + ticketId)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(objectMapper.writeValueAsString(new TicketPatchDto(firstTitle, null, null, null, null)))
+                                        .header("Authorization", jwt0)
+                                        .header("If-Match", eTag))
+                        .andExpect(status().isNoContent())
+                        .andReturn();
+
+        // second edit based on the same read
+        MvcResult secondPatchResult =
+                mockMvc.perform(
+                                patch("/tickets/" + ticketId)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(objectMapper.writeValueAsString(new TicketPatchDto("first served", null, null, null, null)))
+                                        .header("Authorization", jwt0)
+                                        .header("If-Match", eTag))
+                        .andExpect(status().isConflict())
+                        .andReturn();
+
+        Ticket ticket = ticketDomainService.getTicketById(ticketId);
+        assertEquals(firstTitle, ticket.getTitle());
+        assertEquals("\"" + ticket.getVersion() + "\"", secondPatchResult.getResponse().getHeader("ETag"));
+        assertNotEquals(eTag, secondPatchResult.getResponse().getHeader("ETag"));
+    }
+
+    @Test
+    public void patchTicketWithInvalidEntityTagTest() throws Exception {
+        UUID ticketId = restMinion.postTicket(
+                jwt0, buildUpProjectId, ticketTitle0, ticketDescription0, dateOfTomorrow, new ArrayList<>()
+        );
+        MvcResult patchResult =
+                mockMvc.perform(
+                                patch("/tickets/" + ticketId)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(objectMapper.writeValueAsString(new TicketPatchDto("no version", null, null, null, null)))
+                                        .header("Authorization", jwt0)
+                                        .header("If-Match", "yesterday"))
+                        .andExpect(status().isBadRequest())
+                        .andReturn();
+    }
+
     @Test
     public void patchTicketPhaseIdTimeTest() throws Exception {
         UUID ticketId = restMinion.postTicket(
@@ -502,4 +604,55 @@ public class TicketControllerTests {
         // test instance
         assertThrows(NoTicketFoundException.class, () -> ticketDomainService.getTicketById(ticketId));
     }
+
+    @Test
+    public void getProjectStatisticsTest() throws Exception {
+        UUID ticketId0 = restMinion.postTicket(
+                jwt0, buildUpProjectId, ticketTitle0, ticketDescription0, dateOfTomorrow, List.of(userId1)
+        );
+        UUID ticketId1 = restMinion.postTicket(
+                jwt0, buildUpProjectId, ticketTitle0, ticketDescription0, dateOfTomorrow, List.of(userId1)
+        );
+        UUID backlogPhaseId = ticketDomainService.getTicketById(ticketId0).getPhaseId();
+        UUID donePhaseId = restMinion.postPhase(jwt0, buildUpProjectId, "DONE", backlogPhaseId);
+        restMinion.patchTicket(jwt0, ticketId1, null, null, null, donePhaseId, List.of(userId0));
+        mockMvc.perform(
+                        delete("/tickets/" + ticketId0)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", jwt0))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(
+                        get("/projects/" + buildUpProjectId + "/stats")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", jwt1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.projectId").value(buildUpProjectId.toString()))
+                .andExpect(jsonPath("$.ticketCount").value(1))
+                .andExpect(jsonPath("$.overdueTicketCount").value(0))
+                .andExpect(jsonPath("$.ticketCountByPhaseId." + backlogPhaseId).value(0))
+                .andExpect(jsonPath("$.ticketCountByPhaseId." + donePhaseId).value(1))
+                .andExpect(jsonPath("$.ticketCountByAssigneeId." + userId0).value(1))
+                .andExpect(jsonPath("$.ticketCountByAssigneeId." + userId1).value(0));
+
+        // the counters match a full recount, which also counts the overdue tickets
+        assertTrue(ticketDomainService.recomputeStatistics(buildUpProjectId, dateOfTomorrow.plusDays(1)));
+        mockMvc.perform(
+                        get("/projects/" + buildUpProjectId + "/stats")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", jwt0))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ticketCount").value(1))
+                .andExpect(jsonPath("$.overdueTicketCount").value(1))
+                .andExpect(jsonPath("$.ticketCountByPhaseId." + backlogPhaseId).value(0))
+                .andExpect(jsonPath("$.ticketCountByPhaseId." + donePhaseId).value(1))
+                .andExpect(jsonPath("$.ticketCountByAssigneeId." + userId0).value(1))
+                .andExpect(jsonPath("$.ticketCountByAssigneeId." + userId1).value(0));
+
+        mockMvc.perform(
+                        get("/projects/" + buildUpProjectId + "/stats")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", jwt2))
+                .andExpect(status().isForbidden());
+    }
 }
@@ -0,0 +1,155 @@
+package com.kett.TicketSystem.userdirectory;
+
+import com.kett.TicketSystem.common.domainprimitives.EmailAddress;
+import com.kett.TicketSystem.common.userdirectory.InMemoryUserDirectory;
+import com.kett.TicketSystem.common.userdirectory.UserDirectoryEntryRepository;
+import com.kett.TicketSystem.user.domain.User;
+import com.kett.TicketSystem.user.domain.events.UserCreatedEvent;
+import com.kett.TicketSystem.user.domain.events.UserDeletedEvent;
+import com.kett.TicketSystem.user.domain.events.UserPatchedEvent;
+import com.kett.TicketSystem.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles({ "test" })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class UserDirectoryTests {
+    private final ApplicationEventPublisher eventPublisher;
+    private final InMemoryUserDirectory userDirectory;
+    private final UserDirectoryEntryRepository userDirectoryEntryRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private UUID userId;
+    private EmailAddress email0;
+    private EmailAddress email1;
+
+    @Autowired
+    public UserDirectoryTests(
+            ApplicationEventPublisher eventPublisher,
+            InMemoryUserDirectory userDirectory,
+            UserDirectoryEntryRepository userDirectoryEntryRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.eventPublisher = eventPublisher;
+        this.userDirectory = userDirectory;
+        this.userDirectoryEntryRepository = userDirectoryEntryRepository;
+        this.userRepository = userRepository;
+        this.transactionManager = transactionManager;
+    }
+
+    @BeforeEach
+    public void buildUp() {
+        userId = UUID.randomUUID();
+        email0 = EmailAddress.fromString("il.tempo.gigante@gmail.com");
+        email1 = EmailAddress.fromString("jonas.hilbert@gmail.com");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userId = null;
+        email0 = null;
+        email1 = null;
+        userDirectoryEntryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void userLifecycleTest() {
+        eventPublisher.publishEvent(new UserCreatedEvent(userId, "Il Tempo Gigante", email0));
+        assertEquals(Optional.of(userId), userDirectory.findUserIdByEmail(email0));
+        assertTrue(userDirectory.containsUserId(userId));
+
+        eventPublisher.publishEvent(new UserPatchedEvent(userId, "Il Tempo Gigante", email1));
+        assertEquals(Optional.empty(), userDirectory.findUserIdByEmail(email0));
+        assertEquals(Optional.of(userId), userDirectory.findUserIdByEmail(email1));
+
+        eventPublisher.publishEvent(new UserDeletedEvent(userId, "Il Tempo Gigante", email1));
+        assertEquals(Optional.empty(), userDirectory.findUserIdByEmail(email1));
+        assertFalse(userDirectory.containsUserId(userId));
+        assertFalse(userDirectoryEntryRepository.existsById(userId));
+    }
+
+    @Test
+    public void rolledBackUserTest() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new UserCreatedEvent(userId, "Il Tempo Gigante", email0));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(Optional.empty(), userDirectory.findUserIdByEmail(email0));
+        assertFalse(userDirectory.containsUserId(userId));
+        assertFalse(userDirectoryEntryRepository.existsById(userId));
+    }
+
+    @Test
+    public void userRegisteredOnOtherInstanceTest() {
+        // committed without publishing any event here, like a signup handled by another instance
+        User user0 = userRepository.save(new User("Il Tempo Gigante", email0, "password"));
+        User user1 = userRepository.save(new User("Jonas Hilbert", email1, "password"));
+
+        assertEquals(Optional.of(user0.getId()), userDirectory.findUserIdByEmail(email0));
+        assertTrue(userDirectory.containsUserId(user1.getId()));
+        assertFalse(userDirectory.containsUserId(userId));
+
+        // cached on the first lookup
+        userRepository.deleteAll();
+        assertEquals(Optional.of(user0.getId()), userDirectory.findUserIdByEmail(email0));
+        assertEquals(Optional.of(user1.getId()), userDirectory.findUserIdByEmail(email1));
+    }
+
+    @Test
+    public void loadSnapshotTest() {
+        User user = userRepository.save(new User("Il Tempo Gigante", email0, "password"));
+        eventPublisher.publishEvent(new UserCreatedEvent(user.getId(), user.getName(), email0));
+        assertEquals(email0, userDirectoryEntryRepository.findById(user.getId()).orElseThrow().getUserEmail());
+
+        // a fresh directory only knows what was persisted
+        InMemoryUserDirectory restartedUserDirectory = new InMemoryUserDirectory(userDirectoryEntryRepository, transactionManager, true);
+        restartedUserDirectory.load();
+        assertEquals(Optional.of(user.getId()), restartedUserDirectory.findUserIdByEmail(email0));
+    }
+
+    @Test
+    public void loadUsersWithoutSnapshotEntryTest() {
+        // registered before the directory existed, no event was ever consumed for this user
+        User user = userRepository.save(new User("Il Tempo Gigante", email0, "password"));
+        // deleted while the snapshot was disabled
+        eventPublisher.publishEvent(new UserCreatedEvent(userId, "Jonas Hilbert", email1));
+        assertTrue(userDirectoryEntryRepository.existsById(userId));
+
+        InMemoryUserDirectory restartedUserDirectory = new InMemoryUserDirectory(userDirectoryEntryRepository, transactionManager, true);
+        restartedUserDirectory.load();
+        assertEquals(Optional.of(user.getId()), restartedUserDirectory.findUserIdByEmail(email0));
+        assertTrue(restartedUserDirectory.containsUserId(user.getId()));
+        assertTrue(userDirectoryEntryRepository.existsById(user.getId()));
+        assertFalse(restartedUserDirectory.containsUserId(userId));
+        assertFalse(userDirectoryEntryRepository.existsById(userId));
+    }
+
+    @Test
+    public void loadWithoutSnapshotTest() {
+        User user = userRepository.save(new User("Il Tempo Gigante", email0, "password"));
+
+        InMemoryUserDirectory restartedUserDirectory = new InMemoryUserDirectory(userDirectoryEntryRepository, transactionManager, false);
+        restartedUserDirectory.load();
+        assertEquals(Optional.of(user.getId()), restartedUserDirectory.findUserIdByEmail(email0));
+        assertFalse(userDirectoryEntryRepository.existsById(user.getId()));
+    }
+}
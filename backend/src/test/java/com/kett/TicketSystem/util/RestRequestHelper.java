@@ -160,7 +160,7 @@ public class RestRequestHelper {
                                 delete("/projects/" + projectId)
                                         .contentType(MediaType.APPLICATION_JSON)
                                         .header("Authorization", jwt))
-                        .andExpect(status().isNoContent())
+                        .andExpect(status().isAccepted())
                         .andReturn();
     }
 
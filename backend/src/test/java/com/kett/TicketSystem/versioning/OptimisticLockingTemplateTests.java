@@ -0,0 +1,131 @@
+package com.kett.TicketSystem.versioning;
+
+import com.kett.TicketSystem.common.exceptions.InvalidEntityTagException;
+import com.kett.TicketSystem.common.exceptions.VersionConflictException;
+import com.kett.TicketSystem.common.versioning.EntityTags;
+import com.kett.TicketSystem.common.versioning.OptimisticLockingTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OptimisticLockingTemplateTests {
+    private MeterRegistry meterRegistry;
+    private OptimisticLockingTemplate optimisticLockingTemplate;
+    private AtomicInteger numOfAttempts;
+
+    // no database involved, the template only needs transactions to start and end
+    private static class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+
+    @BeforeEach
+    public void buildUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        optimisticLockingTemplate = new OptimisticLockingTemplate(new NoOpTransactionManager(), meterRegistry, 3, 1, 2);
+        numOfAttempts = new AtomicInteger();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        meterRegistry = null;
+        optimisticLockingTemplate = null;
+        numOfAttempts = null;
+    }
+
+    @Test
+    public void retryUntilNoConflictTest() {
+        optimisticLockingTemplate.executeWithRetry(status -> {
+            if (numOfAttempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Object.class, UUID.randomUUID());
+            }
+        });
+
+        assertEquals(3, numOfAttempts.get());
+        assertEquals(2.0, meterRegistry.get("optimistic.locking.retries").counter().count());
+    }
+
+    @Test
+    public void giveUpAfterMaxAttemptsTest() {
+        assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+                optimisticLockingTemplate.executeWithRetry(status -> {
+                    numOfAttempts.incrementAndGet();
+                    throw new ObjectOptimisticLockingFailureException(Object.class, UUID.randomUUID());
+                })
+        );
+
+        assertEquals(3, numOfAttempts.get());
+        assertEquals(1.0, meterRegistry.get("optimistic.locking.retries.exhausted").counter().count());
+    }
+
+    @Test
+    public void otherExceptionsAreNotRetriedTest() {
+        assertThrows(IllegalStateException.class, () ->
+                optimisticLockingTemplate.executeWithRetry(status -> {
+                    numOfAttempts.incrementAndGet();
+                    throw new IllegalStateException("not a conflict");
+                })
+        );
+        assertEquals(1, numOfAttempts.get());
+    }
+
+    @Test
+    public void flushConflictCarriesCurrentVersionTest() {
+        VersionConflictException versionConflictException = assertThrows(VersionConflictException.class, () ->
+                optimisticLockingTemplate.flushOrThrowConflict(
+                        () -> {
+                            throw new ObjectOptimisticLockingFailureException(Object.class, UUID.randomUUID());
+                        },
+                        () -> Optional.of(7L),
+                        () -> new IllegalStateException("not found"),
+                        "test entity"
+                )
+        );
+        assertEquals(7L, versionConflictException.getCurrentVersion());
+    }
+
+    @Test
+    public void checkExpectedVersionTest() {
+        optimisticLockingTemplate.checkExpectedVersion(null, 3L, "test entity");
+        optimisticLockingTemplate.checkExpectedVersion(3L, 3L, "test entity");
+
+        VersionConflictException versionConflictException = assertThrows(VersionConflictException.class, () ->
+                optimisticLockingTemplate.checkExpectedVersion(2L, 3L, "test entity")
+        );
+        assertEquals(3L, versionConflictException.getCurrentVersion());
+    }
+
+    @Test
+    public void parseIfMatchTest() {
+        assertNull(EntityTags.toExpectedVersion(null));
+        assertNull(EntityTags.toExpectedVersion("*"));
+        assertEquals(4L, EntityTags.toExpectedVersion("\"4\""));
+
+        assertThrows(InvalidEntityTagException.class, () -> EntityTags.toExpectedVersion("4"));
+        assertThrows(InvalidEntityTagException.class, () -> EntityTags.toExpectedVersion("W/\"4\""));
+        assertThrows(InvalidEntityTagException.class, () -> EntityTags.toExpectedVersion("\"four\""));
+    }
+}